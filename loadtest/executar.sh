@@ -0,0 +1,137 @@
+#!/usr/bin/env bash
+# Suíte de carga ponta a ponta contra um Postgres local descartável:
+#   1. gera uma chave RSA de teste, o JWK set correspondente e tokens RS256 assinados com ela;
+#   2. sobe postgres + jwks (loadtest/docker-compose.yml) e espera a carga inicial
+#      (SEMENTE_REPORTS reports, SEMENTE_CIDADAOS cidadãos, SEMENTE_MUNICIPIOS_POR_ESTADO municípios
+#      em cada um dos 27 estados, SEMENTE_QUESTIONARIOS questionários);
+#   3. sobe o serviço apontando para esse banco e para o JWK set local; as migrações rodam
+#      sobre os dados já existentes, como numa atualização em produção;
+#   4. roda loadtest/k6/suite.js (leituras e escritas de reports e questionários) e
+#      grava p50/p99 e vazão por operação em loadtest/resultados/.
+#
+# Uso (na raiz do projeto; requer docker compose, k6, openssl, curl, JDK 17 e Maven):
+#   loadtest/executar.sh
+#   SEMENTE_REPORTS=200000 TAXA=100 DURACAO=2m loadtest/executar.sh
+# Outras variáveis: POSTGRES_PORTA (55432), JWKS_PORTA (58080), APP_PORTA (8082), APP_JAR
+# (pula o build), MANTER=1 (não derruba banco e serviço no fim, para repetir só o k6).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+export SEMENTE_MUNICIPIOS_POR_ESTADO="${SEMENTE_MUNICIPIOS_POR_ESTADO:-100}"
+export SEMENTE_CIDADAOS="${SEMENTE_CIDADAOS:-5000}"
+export SEMENTE_REPORTS="${SEMENTE_REPORTS:-2000000}"
+export SEMENTE_QUESTIONARIOS="${SEMENTE_QUESTIONARIOS:-50000}"
+export POSTGRES_PORTA="${POSTGRES_PORTA:-55432}"
+export JWKS_PORTA="${JWKS_PORTA:-58080}"
+APP_PORTA="${APP_PORTA:-8082}"
+QUANTIDADE_TOKENS="${QUANTIDADE_TOKENS:-50}"
+
+GERADO=loadtest/.gerado
+RESULTADOS=loadtest/resultados
+COMPOSE=(docker compose -f loadtest/docker-compose.yml -p pdm-loadtest)
+ISSUER="http://localhost:${JWKS_PORTA}/realms/denguemaps"
+APP_URL="http://localhost:${APP_PORTA}"
+
+base64url() {
+    openssl base64 -A | tr '+/' '-_' | tr -d '='
+}
+
+# Chave nova a cada execução; os tokens valem 24h e têm jti distintos, para o cache de
+# autoridades por token (KeycloakRealmRoleConverter) trabalhar como com usuários reais
+gerar_credenciais() {
+    mkdir -p "$GERADO"
+    openssl genpkey -algorithm RSA -pkeyopt rsa_keygen_bits:2048 -out "$GERADO/chave-teste.pem" 2>/dev/null
+    local modulo
+    modulo=$(openssl rsa -in "$GERADO/chave-teste.pem" -noout -modulus | cut -d= -f2 | xxd -r -p | base64url)
+    printf '{"keys":[{"kty":"RSA","kid":"loadtest","use":"sig","alg":"RS256","n":"%s","e":"AQAB"}]}\n' \
+        "$modulo" > "$GERADO/jwks.json"
+
+    local cabecalho agora corpo assinatura i
+    cabecalho=$(printf '{"alg":"RS256","typ":"JWT","kid":"loadtest"}' | base64url)
+    agora=$(date +%s)
+    {
+        printf '['
+        for ((i = 1; i <= QUANTIDADE_TOKENS; i++)); do
+            corpo=$(printf '{"iss":"%s","sub":"loadtest-%d","jti":"loadtest-%d-%d","iat":%d,"exp":%d,"realm_access":{"roles":["cidadao"]}}' \
+                "$ISSUER" "$i" "$agora" "$i" "$agora" $((agora + 86400)) | base64url)
+            assinatura=$(printf '%s.%s' "$cabecalho" "$corpo" \
+                | openssl dgst -sha256 -sign "$GERADO/chave-teste.pem" | base64url)
+            [[ $i -gt 1 ]] && printf ','
+            printf '"%s.%s.%s"' "$cabecalho" "$corpo" "$assinatura"
+        done
+        printf ']\n'
+    } > "$GERADO/tokens.json"
+}
+
+encerrar() {
+    if [[ "${MANTER:-0}" == "1" ]]; then
+        echo "MANTER=1: serviço (pid ${APP_PID:-?}) e containers continuam de pé"
+        return
+    fi
+    [[ -n "${APP_PID:-}" ]] && kill "$APP_PID" 2>/dev/null && wait "$APP_PID" 2>/dev/null || true
+    "${COMPOSE[@]}" down -v >/dev/null 2>&1 || true
+}
+
+esperar() {
+    local descricao=$1 limite=$2
+    shift 2
+    local inicio=$SECONDS
+    until "$@" >/dev/null 2>&1; do
+        if ((SECONDS - inicio > limite)); then
+            echo "Tempo esgotado esperando $descricao" >&2
+            return 1
+        fi
+        if [[ -n "${APP_PID:-}" ]] && ! kill -0 "$APP_PID" 2>/dev/null; then
+            echo "O serviço terminou antes de $descricao; veja $RESULTADOS/app.log" >&2
+            return 1
+        fi
+        sleep 5
+    done
+    echo "Pronto: $descricao ($((SECONDS - inicio))s)"
+}
+
+mkdir -p "$RESULTADOS"
+gerar_credenciais
+trap encerrar EXIT
+
+"${COMPOSE[@]}" down -v >/dev/null 2>&1 || true
+echo "Subindo Postgres e populando: $SEMENTE_REPORTS reports, $SEMENTE_CIDADAOS cidadãos..."
+"${COMPOSE[@]}" up -d --wait --wait-timeout 3600
+
+if [[ -z "${APP_JAR:-}" ]]; then
+    mvn -B -q -DskipTests package
+    APP_JAR=$(ls target/pdm-report-ms-*.jar | grep -v -- '-plain' | head -n 1)
+fi
+
+TOKEN=$(cut -d'"' -f2 "$GERADO/tokens.json")
+
+# show-sql e o DEBUG de segurança do perfil dev distorceriam as medições
+java -jar "$APP_JAR" \
+    --server.port="$APP_PORTA" \
+    --spring.datasource.url="jdbc:postgresql://localhost:${POSTGRES_PORTA}/denguemaps_db" \
+    --spring.jpa.show-sql=false \
+    --logging.level.org.springframework.security=INFO \
+    --management.endpoint.health.probes.enabled=true \
+    --JWT_ISSUER-URI="$ISSUER" \
+    --JWT_JWK-URI="${ISSUER}/protocol/openid-connect/certs" \
+    > "$RESULTADOS/app.log" 2>&1 &
+APP_PID=$!
+
+# readiness só aceita tráfego depois dos listeners de ApplicationReadyEvent (índice de clusters)
+esperar "readiness do serviço" 3600 \
+    curl -sf -H "Authorization: Bearer $TOKEN" "$APP_URL/actuator/health/readiness"
+if ((SEMENTE_QUESTIONARIOS > 0)); then
+    esperar "normalização dos questionários semeados" 3600 \
+        grep -q "Respostas normalizadas para questionários antigos" "$RESULTADOS/app.log"
+fi
+
+k6 run \
+    -e BASE_URL="$APP_URL" \
+    -e TOKENS="$PWD/$GERADO/tokens.json" \
+    -e SEMENTE_MUNICIPIOS_POR_ESTADO="$SEMENTE_MUNICIPIOS_POR_ESTADO" \
+    -e SEMENTE_CIDADAOS="$SEMENTE_CIDADAOS" \
+    -e SEMENTE_REPORTS="$SEMENTE_REPORTS" \
+    -e TAXA="${TAXA:-200}" \
+    -e DURACAO="${DURACAO:-5m}" \
+    loadtest/k6/suite.js
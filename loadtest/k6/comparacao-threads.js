@@ -0,0 +1,58 @@
+// Compara vazão/latência entre o modo padrão (threads de plataforma) e o perfil virtual-threads.
+//
+// 1. Suba o serviço no modo padrão e rode:
+//      k6 run -e MODO=plataforma -e BASE_URL=http://localhost:8082 -e TOKEN=<jwt> loadtest/k6/comparacao-threads.js
+// 2. Suba de novo com build -Pjdk21 e PROFILE_ACTIVE=dev,virtual-threads e rode com -e MODO=virtual.
+// 3. Compare loadtest/resultados/threads-plataforma.json com threads-virtual.json
+//    (http_reqs.rate = vazão; http_req_duration p(95)/p(99); http_req_failed).
+//
+// A carga é de taxa de chegada constante crescente: quando o servidor satura, as requisições
+// se acumulam (latência sobe) em vez de o k6 reduzir a taxa, o que expõe o teto de cada modo.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8082';
+const TOKEN = __ENV.TOKEN || '';
+const MODO = __ENV.MODO || 'plataforma';
+const TAXA_MAXIMA = parseInt(__ENV.TAXA_MAXIMA || '800', 10);
+
+export const options = {
+    scenarios: {
+        leitura: {
+            executor: 'ramping-arrival-rate',
+            startRate: 50,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            stages: [
+                { duration: '30s', target: Math.floor(TAXA_MAXIMA / 4) },
+                { duration: '1m', target: Math.floor(TAXA_MAXIMA / 2) },
+                { duration: '1m', target: TAXA_MAXIMA },
+                { duration: '30s', target: TAXA_MAXIMA },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+};
+
+const params = {
+    headers: { Authorization: `Bearer ${TOKEN}` },
+    tags: { modo: MODO },
+};
+
+export default function () {
+    // Mistura de leituras que passam pelo banco: página por cursor e busca por caixa
+    const resposta = Math.random() < 0.5
+        ? http.get(`${BASE_URL}/api/report/all/pagina?tamanho=50`, params)
+        : http.get(`${BASE_URL}/api/report/bbox?minLat=-7.3&minLon=-35.0&maxLat=-7.0&maxLon=-34.7&limite=200`, params);
+    check(resposta, { 'status 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(dados) {
+    return {
+        [`loadtest/resultados/threads-${MODO}.json`]: JSON.stringify(dados, null, 2),
+        stdout: `\nModo ${MODO}: ${dados.metrics.http_reqs.values.rate.toFixed(1)} req/s, `
+            + `p95 ${dados.metrics.http_req_duration.values['p(95)'].toFixed(1)} ms, `
+            + `falhas ${(dados.metrics.http_req_failed.values.rate * 100).toFixed(2)}%\n`,
+    };
+}
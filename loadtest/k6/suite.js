@@ -0,0 +1,224 @@
+// Suíte de carga mista de ReportController e QuestionarioController, sobre a massa de
+// loadtest/postgres/semente.psql. Normalmente é chamada por loadtest/executar.sh, que sobe
+// banco, JWK set e serviço; com tudo de pé (MANTER=1) dá para repetir só ela:
+//      k6 run -e TOKENS=$PWD/loadtest/.gerado/tokens.json -e TAXA=300 loadtest/k6/suite.js
+//
+// Taxa de chegada constante (TAXA req/s no total, durante DURACAO) dividida em 60% leituras
+// de reports, 20% escritas de reports e 20% questionários. Cada requisição leva a tag
+// "operacao"; o resumo traz p50/p99, vazão e falhas por operação e vai para
+// loadtest/resultados/suite-<data>.json.
+//
+// Os IDs são montados como na semente (md5(prefixo || n) formatado como UUID), então os
+// parâmetros SEMENTE_* precisam ser os mesmos usados para popular o banco.
+import http from 'k6/http';
+import { check } from 'k6';
+import crypto from 'k6/crypto';
+import exec from 'k6/execution';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8082';
+const TOKENS = JSON.parse(open(__ENV.TOKENS || '../.gerado/tokens.json'));
+const MUNICIPIOS_POR_ESTADO = parseInt(__ENV.SEMENTE_MUNICIPIOS_POR_ESTADO || '100', 10);
+const CIDADAOS = parseInt(__ENV.SEMENTE_CIDADAOS || '5000', 10);
+const REPORTS = parseInt(__ENV.SEMENTE_REPORTS || '2000000', 10);
+const TAXA = parseInt(__ENV.TAXA || '200', 10);
+const DURACAO = __ENV.DURACAO || '5m';
+
+// Mesmas capitais de semente.psql: os reports se concentram em volta delas
+const CAPITAIS = [
+    ['AC', -9.97, -67.81], ['AL', -9.67, -35.74], ['AP', 0.03, -51.07], ['AM', -3.12, -60.02],
+    ['BA', -12.97, -38.50], ['CE', -3.73, -38.53], ['DF', -15.79, -47.88], ['ES', -20.32, -40.34],
+    ['GO', -16.68, -49.25], ['MA', -2.53, -44.30], ['MT', -15.60, -56.10], ['MS', -20.47, -54.62],
+    ['MG', -19.92, -43.94], ['PA', -1.46, -48.50], ['PB', -7.12, -34.86], ['PR', -25.43, -49.27],
+    ['PE', -8.05, -34.88], ['PI', -5.09, -42.80], ['RJ', -22.91, -43.17], ['RN', -5.79, -35.21],
+    ['RS', -30.03, -51.23], ['RO', -8.76, -63.90], ['RR', 2.82, -60.67], ['SC', -27.59, -48.55],
+    ['SP', -23.55, -46.63], ['SE', -10.91, -37.07], ['TO', -10.18, -48.33],
+];
+const RISCOS = ['BAIXO', 'MEDIO', 'ALTO'];
+const PERGUNTAS = JSON.stringify({
+    q1: 'Há água parada no quintal?',
+    q2: 'Alguém na casa teve febre nos últimos 7 dias?',
+    q3: 'Os reservatórios de água ficam tampados?',
+});
+
+const OPERACOES = [
+    'report_pagina', 'report_bbox', 'report_raio', 'report_cluster', 'report_esp',
+    'report_esp_cidadao', 'report_contagem_estado', 'report_criar', 'report_atualizar',
+    'questionario_esp_cidadao', 'questionario_agregacao', 'questionario_criar',
+];
+
+function cenario(funcao, fracao) {
+    const taxa = Math.max(1, Math.round(TAXA * fracao));
+    return {
+        executor: 'constant-arrival-rate',
+        exec: funcao,
+        rate: taxa,
+        timeUnit: '1s',
+        duration: DURACAO,
+        preAllocatedVUs: taxa,
+        maxVUs: taxa * 10,
+    };
+}
+
+// Um limite por operação faz o k6 calcular as submétricas que o resumo usa
+const thresholds = { http_req_failed: ['rate<0.01'] };
+for (const operacao of OPERACOES) {
+    thresholds[`http_req_duration{operacao:${operacao}}`] = ['p(99)<2000'];
+    thresholds[`http_reqs{operacao:${operacao}}`] = ['count>=0'];
+    thresholds[`http_req_failed{operacao:${operacao}}`] = ['rate<0.01'];
+}
+
+export const options = {
+    scenarios: {
+        leitura_reports: cenario('lerReports', 0.6),
+        escrita_reports: cenario('escreverReports', 0.2),
+        questionarios: cenario('questionarios', 0.2),
+    },
+    thresholds,
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+};
+
+function sortear(n) {
+    return 1 + Math.floor(Math.random() * n);
+}
+
+function uuidDe(texto) {
+    const h = crypto.md5(texto, 'hex');
+    return `${h.slice(0, 8)}-${h.slice(8, 12)}-${h.slice(12, 16)}-${h.slice(16, 20)}-${h.slice(20)}`;
+}
+
+function uuidNovo() {
+    return uuidDe(`${exec.vu.idInTest}-${exec.scenario.iterationInTest}-${Date.now()}-${Math.random()}`);
+}
+
+function diasAtras(dias) {
+    return new Date(Date.now() - dias * 86400000).toISOString();
+}
+
+function perto(capital, graus) {
+    return [capital[1] + (Math.random() - 0.5) * graus, capital[2] + (Math.random() - 0.5) * graus];
+}
+
+function parametros(operacao, cabecalhos = {}) {
+    return {
+        headers: Object.assign({
+            Authorization: `Bearer ${TOKENS[exec.vu.idInTest % TOKENS.length]}`,
+            'Content-Type': 'application/json',
+        }, cabecalhos),
+        tags: { operacao },
+    };
+}
+
+function get(operacao, caminho) {
+    const resposta = http.get(`${BASE_URL}${caminho}`, parametros(operacao));
+    check(resposta, { 'status 200': (r) => r.status === 200 });
+    return resposta;
+}
+
+export function lerReports() {
+    const capital = CAPITAIS[sortear(CAPITAIS.length) - 1];
+    const [lat, lon] = perto(capital, 0.1);
+    const sorteio = Math.random();
+    if (sorteio < 0.2) {
+        get('report_pagina', `/api/report/all/pagina?tamanho=50&de=${diasAtras(30)}`);
+    } else if (sorteio < 0.4) {
+        get('report_bbox', `/api/report/bbox?minLat=${lat - 0.05}&minLon=${lon - 0.05}`
+            + `&maxLat=${lat + 0.05}&maxLon=${lon + 0.05}&limite=200&de=${diasAtras(90)}`);
+    } else if (sorteio < 0.55) {
+        get('report_raio', `/api/report/raio?lat=${lat}&lon=${lon}&metros=2000&limite=200`);
+    } else if (sorteio < 0.7) {
+        get('report_cluster', `/api/report/cluster?zoom=8&minLat=${capital[1] - 2}&minLon=${capital[2] - 2}`
+            + `&maxLat=${capital[1] + 2}&maxLon=${capital[2] + 2}`);
+    } else if (sorteio < 0.8) {
+        get('report_esp', `/api/report/esp?uuid=${uuidDe(`report${sortear(REPORTS)}`)}`);
+    } else if (sorteio < 0.9) {
+        get('report_esp_cidadao', `/api/report/esp-cidadao?uuid=${uuidDe(`cidadao${sortear(CIDADAOS)}`)}`
+            + `&de=${diasAtras(180)}`);
+    } else {
+        get('report_contagem_estado', `/api/report/contagem-risco/estado?estado=${capital[0]}`);
+    }
+}
+
+export function escreverReports() {
+    const capital = CAPITAIS[sortear(CAPITAIS.length) - 1];
+    const [lat, lon] = perto(capital, 0.2);
+    const corpo = {
+        coordenadas: JSON.stringify({ lat, lon }),
+        classificacaoRisco: RISCOS[sortear(RISCOS.length) - 1],
+        fkCidadaoID: uuidDe(`cidadao${sortear(CIDADAOS)}`),
+    };
+    const criado = http.post(`${BASE_URL}/api/report`, JSON.stringify(corpo),
+        parametros('report_criar', { 'Idempotency-Key': uuidNovo() }));
+    check(criado, { 'status 201': (r) => r.status === 201 });
+
+    // Parte dos reports é reclassificada logo depois, como na revisão pelo agente
+    if (criado.status === 201 && Math.random() < 0.3) {
+        corpo.id = criado.json('id');
+        corpo.classificacaoRisco = RISCOS[sortear(RISCOS.length) - 1];
+        const atualizado = http.put(`${BASE_URL}/api/report`, JSON.stringify(corpo), parametros('report_atualizar'));
+        check(atualizado, { 'status 200': (r) => r.status === 200 });
+    }
+}
+
+export function questionarios() {
+    const sorteio = Math.random();
+    if (sorteio < 0.35) {
+        get('questionario_esp_cidadao',
+            `/api/questionario/esp-cidadao?uuid=${uuidDe(`cidadao${sortear(CIDADAOS)}`)}&incluirPerguntas=false`);
+    } else if (sorteio < 0.6) {
+        const estado = CAPITAIS[sortear(CAPITAIS.length) - 1][0];
+        get('questionario_agregacao', `/api/questionario/agregacao?estado=${estado}`
+            + `&id=${uuidDe(`municipio${estado}${sortear(MUNICIPIOS_POR_ESTADO)}`)}&de=${diasAtras(90)}`);
+    } else {
+        const corpo = {
+            perguntas: PERGUNTAS,
+            respostas: JSON.stringify({
+                q1: Math.random() < 0.3 ? 'Sim' : 'Não',
+                q2: Math.random() < 0.1 ? 'Sim' : 'Não',
+                q3: Math.random() < 0.7 ? 'Sim' : 'Não',
+            }),
+            fkCidadaoId: uuidDe(`cidadao${sortear(CIDADAOS)}`),
+        };
+        const resposta = http.post(`${BASE_URL}/api/questionario`, JSON.stringify(corpo),
+            parametros('questionario_criar', { 'Idempotency-Key': uuidNovo() }));
+        check(resposta, { 'status 201': (r) => r.status === 201 });
+    }
+}
+
+function linha(colunas) {
+    return colunas.map((c, i) => (i === 0 ? String(c).padEnd(28) : String(c).padStart(10))).join('') + '\n';
+}
+
+export function handleSummary(dados) {
+    const segundos = dados.state.testRunDurationMs / 1000;
+    let tabela = linha(['operação', 'req', 'req/s', 'p50 ms', 'p99 ms', 'falhas %']);
+    for (const operacao of OPERACOES) {
+        const duracao = dados.metrics[`http_req_duration{operacao:${operacao}}`];
+        const total = dados.metrics[`http_reqs{operacao:${operacao}}`];
+        const falhas = dados.metrics[`http_req_failed{operacao:${operacao}}`];
+        if (!duracao || !total || total.values.count === 0) {
+            continue;
+        }
+        tabela += linha([
+            operacao,
+            total.values.count,
+            (total.values.count / segundos).toFixed(1),
+            duracao.values.med.toFixed(1),
+            duracao.values['p(99)'].toFixed(1),
+            (falhas.values.rate * 100).toFixed(2),
+        ]);
+    }
+    const geral = dados.metrics.http_req_duration.values;
+    tabela += linha([
+        'total',
+        dados.metrics.http_reqs.values.count,
+        dados.metrics.http_reqs.values.rate.toFixed(1),
+        geral.med.toFixed(1),
+        geral['p(99)'].toFixed(1),
+        (dados.metrics.http_req_failed.values.rate * 100).toFixed(2),
+    ]);
+    const data = new Date().toISOString().replace(/[:.]/g, '-');
+    return {
+        [`loadtest/resultados/suite-${data}.json`]: JSON.stringify(dados, null, 2),
+        stdout: `\nTaxa alvo ${TAXA} req/s por ${DURACAO}\n${tabela}`,
+    };
+}
@@ -0,0 +1,52 @@
+-- Tabelas criadas pelos outros serviços (cadastro de cidadãos, municípios e secretarias)
+-- e o estado de report/questionario anterior às migrações deste serviço, no formato
+-- mapeado pelas entidades. As migrações V1..V7 rodam por cima na subida da aplicação.
+
+CREATE TABLE secretaria (
+    secretaria_id  uuid PRIMARY KEY,
+    nome           varchar(255) NOT NULL,
+    fk_endereco_id uuid,
+    fk_gestor_id   uuid
+);
+
+CREATE TABLE municipio (
+    municipio_id     uuid PRIMARY KEY,
+    nome             varchar(255) NOT NULL,
+    geolocalizacao   varchar(255),
+    estado           varchar(2) NOT NULL,
+    fk_secretaria_id uuid REFERENCES secretaria (secretaria_id)
+);
+
+CREATE TABLE endereco (
+    endereco_id     uuid PRIMARY KEY,
+    logradouro      varchar(255),
+    cep             varchar(255),
+    numero          varchar(255),
+    fk_municipio_id uuid REFERENCES municipio (municipio_id)
+);
+
+CREATE TABLE cidadao (
+    cidadao_id      uuid PRIMARY KEY,
+    nome            varchar(255) NOT NULL,
+    cpf             varchar(11) NOT NULL UNIQUE,
+    fk_endereco_id  uuid REFERENCES endereco (endereco_id),
+    ref_keycloak_id uuid NOT NULL UNIQUE
+);
+
+CREATE TABLE report (
+    report_id           uuid PRIMARY KEY,
+    coordenadas         jsonb NOT NULL,
+    classificacao_risco varchar(255),
+    fk_cidadao_id       uuid REFERENCES cidadao (cidadao_id),
+    created_at          timestamptz NOT NULL,
+    updated_by          timestamptz NOT NULL
+);
+
+CREATE TABLE questionario (
+    questionario_id uuid PRIMARY KEY,
+    perguntas       jsonb NOT NULL,
+    respostas       jsonb NOT NULL,
+    fk_cidadao_id   uuid REFERENCES cidadao (cidadao_id),
+    created_at      timestamptz NOT NULL,
+    updated_by      timestamptz NOT NULL
+);
@@ -0,0 +1,10 @@
+#!/bin/sh
+# Popula o banco com as quantidades de SEMENTE_* (ver docker-compose.yml).
+# O .psql não tem extensão reconhecida pelo entrypoint do postgres, então só roda por aqui.
+set -e
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" \
+    -v municipios_por_estado="${SEMENTE_MUNICIPIOS_POR_ESTADO:-100}" \
+    -v cidadaos="${SEMENTE_CIDADAOS:-5000}" \
+    -v reports="${SEMENTE_REPORTS:-2000000}" \
+    -v questionarios="${SEMENTE_QUESTIONARIOS:-50000}" \
+    -f /docker-entrypoint-initdb.d/semente.psql
@@ -0,0 +1,65 @@
+package br.ifpb.project.denguemaps.pdmreportms.benchmark;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.municipio.MunicipioBuscaDTO;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura do Estado vindo no JSON das requisições (sigla via {@link Estado#fromSigla}).
+ * "AC" é o melhor caso da busca linear e "TO" o pior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EstadoJsonBenchmark {
+
+    @Param({"AC", "PB", "TO"})
+    private String sigla;
+
+    private ObjectReader leitorEstado;
+    private ObjectReader leitorMunicipioBusca;
+    private String jsonEstado;
+    private String jsonMunicipioBusca;
+
+    @Setup
+    public void preparar() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        leitorEstado = objectMapper.readerFor(Estado.class);
+        leitorMunicipioBusca = objectMapper.readerFor(MunicipioBuscaDTO.class);
+        jsonEstado = "\"" + sigla + "\"";
+        jsonMunicipioBusca = "{\"nome\": \"João Pessoa\", \"estado\": \"" + sigla + "\"}";
+    }
+
+    @Benchmark
+    public Estado fromSigla() {
+        return Estado.fromSigla(sigla);
+    }
+
+    @Benchmark
+    public Estado lerEstado() throws Exception {
+        return leitorEstado.readValue(jsonEstado);
+    }
+
+    @Benchmark
+    public MunicipioBuscaDTO lerMunicipioBusca() throws Exception {
+        return leitorMunicipioBusca.readValue(jsonMunicipioBusca);
+    }
+}
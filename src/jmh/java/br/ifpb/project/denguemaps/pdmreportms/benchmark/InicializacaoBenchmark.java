@@ -0,0 +1,77 @@
+package br.ifpb.project.denguemaps.pdmreportms.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de inicialização a frio: cada invocação sobe a aplicação em um processo novo, com o layout
+ * da imagem montado pelo perfil inicio-rapido (target/inicio-rapido), até o fim do refresh do contexto.
+ * Usa os mesmos argumentos do treino do CDS (sem Flyway nem metadados JDBC, dispensando o banco).
+ * A configuração cds-aot precisa de banco (DATA_POSTGRES_URL): com AOT o Flyway fica sempre ligado.
+ * Executar com: mvn -Pinicio-rapido,jmh verify -DskipTests -Djmh.args="Inicializacao -p configuracao=padrao,cds"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InicializacaoBenchmark {
+    private static final String ARQUIVO_CDS = "cds/app.jsa";
+
+    @Param({"padrao", "cds", "cds-aot"})
+    public String configuracao;
+
+    private Path diretorio;
+    private String java;
+
+    @Setup
+    public void preparar() {
+        diretorio = Path.of(System.getProperty("inicio-rapido.diretorio", "target/inicio-rapido"));
+        if (!Files.exists(diretorio.resolve(ARQUIVO_CDS))) {
+            throw new IllegalStateException("Layout de inicialização não encontrado em " + diretorio.toAbsolutePath()
+                    + "; gere com mvn -Pinicio-rapido package");
+        }
+        // Mesma JDK do treino: o arquivo CDS só vale para o build da JVM que o gerou
+        java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    @Benchmark
+    public int iniciar() throws IOException, InterruptedException {
+        List<String> comando = new ArrayList<>();
+        comando.add(java);
+        if (!configuracao.equals("padrao")) {
+            comando.add("-XX:SharedArchiveFile=" + ARQUIVO_CDS);
+        }
+        if (configuracao.equals("cds-aot")) {
+            comando.add("-Dspring.aot.enabled=true");
+        }
+        comando.addAll(List.of("-cp", "@cds/classpath.txt", "@cds/treino.args"));
+        Process processo = new ProcessBuilder(comando)
+                .directory(diretorio.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        int codigo = processo.waitFor();
+        if (codigo != 0) {
+            throw new IllegalStateException("Aplicação terminou com código " + codigo + " na configuração " + configuracao);
+        }
+        return codigo;
+    }
+}
@@ -0,0 +1,72 @@
+package br.ifpb.project.denguemaps.pdmreportms.benchmark;
+
+import br.ifpb.project.denguemaps.pdmreportms.security.converter.KeycloakRealmRoleConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão das roles do token Keycloak em authorities, executada a cada requisição autenticada.
+ * {@link #convert()} reutiliza o mesmo token (acerto no cache por jti); {@link #convertTokenNovo()}
+ * usa um jti novo a cada chamada e mede a conversão completa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeycloakRealmRoleConverterBenchmark {
+
+    private KeycloakRealmRoleConverter converter;
+    private Jwt jwt;
+    private long sequencia;
+
+    @Setup
+    public void preparar() {
+        converter = new KeycloakRealmRoleConverter();
+        Instant agora = Instant.now();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .jti("a1b2c3d4")
+                .subject("f3c1a2b4-0000-0000-0000-000000000000")
+                .issuedAt(agora)
+                .expiresAt(agora.plusSeconds(300))
+                .claim("realm_access", Map.of("roles", List.of(
+                        "offline_access", "uma_authorization", "default-roles-denguemaps", "CIDADAO")))
+                .claim("resource_access", Map.of(
+                        "pdm-report-ms", Map.of("roles", List.of("report-leitura", "report-escrita")),
+                        "account", Map.of("roles", List.of("manage-account", "view-profile"))))
+                .build();
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> convert() {
+        return converter.convert(jwt);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> convertTokenNovo() {
+        Jwt novo = Jwt.withTokenValue(jwt.getTokenValue())
+                .headers(h -> h.putAll(jwt.getHeaders()))
+                .claims(c -> c.putAll(jwt.getClaims()))
+                .jti(Long.toString(sequencia++))
+                .build();
+        return converter.convert(novo);
+    }
+}
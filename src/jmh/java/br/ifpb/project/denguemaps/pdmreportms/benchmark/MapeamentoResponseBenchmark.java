@@ -0,0 +1,134 @@
+package br.ifpb.project.denguemaps.pdmreportms.benchmark;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.CidadaoCache;
+import br.ifpb.project.denguemaps.pdmreportms.cache.ConjuntoPerguntasCache;
+import br.ifpb.project.denguemaps.pdmreportms.cache.MunicipioResolver;
+import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.QuestionarioResponseDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportCriacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLoteResultadoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Cidadao;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Questionario;
+import br.ifpb.project.denguemaps.pdmreportms.repository.CidadaoRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ConjuntoPerguntasRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ContadorRiscoRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.MunicipioRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.QuestionarioRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository;
+import br.ifpb.project.denguemaps.pdmreportms.service.ContadorRiscoService;
+import br.ifpb.project.denguemaps.pdmreportms.service.QuestionarioService;
+import br.ifpb.project.denguemaps.pdmreportms.service.ReportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamento entidade -> DTO de resposta nos serviços, sem banco.
+ * Serviços e caches são os reais; os repositórios são {@link RepositorioEmMemoria}, chamados
+ * poucas vezes por operação, para o custo medido ser o do serviço: no report, o cadastro em
+ * lote (leitura das coordenadas + montagem das respostas); no questionário, a listagem completa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoResponseBenchmark {
+
+    @Param({"10", "500"})
+    private int quantidade;
+
+    private ReportService reportService;
+    private QuestionarioService questionarioService;
+    private List<ReportCriacaoDTO> lote;
+
+    @Setup
+    public void preparar() {
+        Cidadao cidadao = new Cidadao();
+        cidadao.setId(UUID.randomUUID());
+        cidadao.setNome("Cidadão Benchmark");
+
+        ReportRepository reportRepository = RepositorioEmMemoria.criar(ReportRepository.class,
+                Map.of("saveAll", args -> args[0]));
+        // Sem município: o cadastro segue, mas não há contador de risco a atualizar
+        CidadaoRepository cidadaoRepository = RepositorioEmMemoria.criar(CidadaoRepository.class, Map.of(
+                "findAllById", args -> List.of(cidadao),
+                "buscarMunicipios", args -> List.of()));
+        MunicipioResolver municipioResolver = new MunicipioResolver(
+                RepositorioEmMemoria.criar(MunicipioRepository.class, Map.of()));
+        CidadaoCache cidadaoCache = new CidadaoCache(cidadaoRepository, new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(10));
+        reportService = new ReportService(
+                reportRepository,
+                municipioResolver,
+                cidadaoRepository,
+                cidadaoCache,
+                evento -> { },
+                new ContadorRiscoService(
+                        RepositorioEmMemoria.criar(ContadorRiscoRepository.class, Map.of()),
+                        cidadaoRepository,
+                        reportRepository,
+                        municipioResolver)
+        );
+
+        lote = new ArrayList<>(quantidade);
+        List<Questionario> questionarios = new ArrayList<>(quantidade);
+        OffsetDateTime agora = OffsetDateTime.now();
+        for (int i = 0; i < quantidade; i++) {
+            ReportCriacaoDTO dto = new ReportCriacaoDTO();
+            dto.setCoordenadas("{\"lat\": " + (-7.1 - i * 0.0001) + ", \"lon\": " + (-34.8 - i * 0.0001) + "}");
+            dto.setClassificacaoRisco(i % 3 == 0 ? "ALTO" : "BAIXO");
+            dto.setFkCidadaoID(cidadao.getId());
+            lote.add(dto);
+
+            questionarios.add(new Questionario(
+                    UUID.randomUUID(),
+                    "[\"Há água parada?\", \"Há pneus expostos?\"]",
+                    "[\"sim\", \"não\"]",
+                    cidadao,
+                    agora,
+                    agora,
+                    new ArrayList<>(),
+                    null,
+                    null
+            ));
+        }
+
+        // As perguntas ficam inline, então o cache de conjuntos não é consultado
+        questionarioService = new QuestionarioService(
+                RepositorioEmMemoria.criar(QuestionarioRepository.class, Map.of("findAll", args -> questionarios)),
+                cidadaoCache,
+                municipioResolver,
+                new ConjuntoPerguntasCache(
+                        RepositorioEmMemoria.criar(ConjuntoPerguntasRepository.class, Map.of()),
+                        new SimpleMeterRegistry(),
+                        1_000)
+        );
+    }
+
+    @Benchmark
+    public List<ReportLoteResultadoDTO> cadastrarReportsEmLote() {
+        return reportService.cadastrarReportsEmLote(lote);
+    }
+
+    @Benchmark
+    public List<QuestionarioResponseDTO> buscarTodoQuestionario() {
+        return questionarioService.buscarTodoQuestionario();
+    }
+}
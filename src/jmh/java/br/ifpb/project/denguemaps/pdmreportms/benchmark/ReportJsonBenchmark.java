@@ -0,0 +1,73 @@
+package br.ifpb.project.denguemaps.pdmreportms.benchmark;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das listas de ReportResponseDTO como o Spring MVC faz nas respostas,
+ * com OffsetDateTime em ISO-8601 (mesmos padrões do ObjectMapper do Spring Boot).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportJsonBenchmark {
+
+    @Param({"50", "1000"})
+    private int quantidade;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter escritorLista;
+    private List<ReportResponseDTO> reports;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        escritorLista = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, ReportResponseDTO.class));
+        reports = new ArrayList<>(quantidade);
+        OffsetDateTime base = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.ofHours(-3));
+        for (int i = 0; i < quantidade; i++) {
+            reports.add(new ReportResponseDTO(
+                    UUID.randomUUID(),
+                    "{\"lat\": -7.11, \"lon\": -34.86}",
+                    i % 3 == 0 ? "ALTO" : "BAIXO",
+                    "Cidadão " + i,
+                    base.plusMinutes(i),
+                    base.plusMinutes(i + 5)
+            ));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws Exception {
+        return objectMapper.writeValueAsBytes(reports);
+    }
+
+    @Benchmark
+    public byte[] serializarListaComWriterTipado() throws Exception {
+        return escritorLista.writeValueAsBytes(reports);
+    }
+}
@@ -0,0 +1,34 @@
+package br.ifpb.project.denguemaps.pdmreportms.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repositório falso em memória para os benchmarks: cada método implementado é uma função
+ * sobre os argumentos, e os demais lançam UnsupportedOperationException. A chamada custa
+ * só o despacho do proxy do JDK, sem o registro e a busca de stubs de um mock.
+ */
+final class RepositorioEmMemoria {
+
+    private RepositorioEmMemoria() {
+    }
+
+    static <T> T criar(Class<T> tipo, Map<String, Function<Object[], Object>> metodos) {
+        Object repositorio = Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            Function<Object[], Object> implementacao = metodos.get(metodo.getName());
+            if (implementacao != null) {
+                return implementacao.apply(args);
+            }
+            if (metodo.getDeclaringClass() == Object.class) {
+                return switch (metodo.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> tipo.getSimpleName() + " em memória";
+                };
+            }
+            throw new UnsupportedOperationException(tipo.getSimpleName() + "." + metodo.getName());
+        });
+        return tipo.cast(repositorio);
+    }
+}
@@ -1,11 +1,18 @@
 package br.ifpb.project.denguemaps.pdmreportms;
 
+import br.ifpb.project.denguemaps.pdmreportms.aot.ImagemNativaRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 
 @SpringBootApplication
 @EnableWebSecurity
+@EnableScheduling
+@EnableAsync
+@ImportRuntimeHints(ImagemNativaRuntimeHints.class)
 public class PdmReportMsApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,77 @@
+package br.ifpb.project.denguemaps.pdmreportms.aot;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+import java.util.stream.Stream;
+
+/**
+ * Dicas de reflexão e recursos para a imagem nativa (perfil native) que o processamento AOT do
+ * Spring não descobre sozinho. As entidades, repositórios e controllers já são cobertos pelo AOT.
+ * Roda em tempo de build, então pode varrer o classpath.
+ */
+public class ImagemNativaRuntimeHints implements RuntimeHintsRegistrar {
+    private static final String PACOTE_DTO = "br.ifpb.project.denguemaps.pdmreportms.dto";
+
+    private final BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Importados por spring.config.import; o Spring Boot só registra application[-perfil].*
+        hints.resources().registerPattern("application_*.yml");
+
+        // Hibernate: DTOs montados por "SELECT new ..." (construtor via reflexão) e também
+        // serializados pelo Jackson fora das assinaturas dos controllers (SSE, idempotência, WAL)
+        classesDoPacote(PACOTE_DTO, true, classLoader).forEach(tipo -> {
+            binding.registerReflectionHints(hints.reflection(), tipo);
+            hints.reflection().registerType(tipo, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        });
+
+        // hypersistence JsonType: o Hibernate instancia o tipo pelo @Type e o JsonType carrega
+        // descritores, configuração (hypersistence-utils.properties) e ObjectMapper por reflexão
+        Stream.of("io.hypersistence.utils.hibernate.type.json",
+                        "io.hypersistence.utils.hibernate.type.json.internal",
+                        "io.hypersistence.utils.hibernate.type.util")
+                .flatMap(pacote -> classesDoPacote(pacote, false, classLoader))
+                .forEach(tipo -> hints.reflection().registerType(tipo,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS));
+        hints.resources().registerPattern("hypersistence-utils.properties");
+
+        // Caffeine escolhe a implementação do cache/nó pela configuração do builder e a carrega por
+        // nome (classes geradas, ex: SSMS), com acesso aos campos por VarHandle. Inclui os caches do
+        // KeycloakRealmRoleConverter, CidadaoCache e IdempotenciaCache
+        classesDoPacote("com.github.benmanes.caffeine.cache", false, classLoader)
+                .forEach(tipo -> hints.reflection().registerType(tipo,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS));
+
+        // Cache de segundo nível: região do Hibernate e provider JCache resolvidos por nome
+        Stream.of("org.hibernate.cache.jcache.internal.JCacheRegionFactory",
+                        "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+                        "com.github.benmanes.caffeine.jcache.copy.JavaSerializationCopier")
+                .forEach(nome -> hints.reflection().registerType(TypeReference.of(nome),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+        hints.resources().registerPattern("reference.conf");
+    }
+
+    private static Stream<Class<?>> classesDoPacote(String pacote, boolean subpacotes, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider varredura = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definicao) {
+                // Todas as classes, inclusive abstratas, interfaces e aninhadas
+                return true;
+            }
+        };
+        varredura.addIncludeFilter((leitor, fabrica) -> !leitor.getClassMetadata().getClassName().endsWith("package-info"));
+        return varredura.findCandidateComponents(pacote).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .filter(nome -> subpacotes || ClassUtils.getPackageName(nome).equals(pacote))
+                .map(nome -> ClassUtils.resolveClassName(nome, classLoader));
+    }
+}
@@ -0,0 +1,108 @@
+package br.ifpb.project.denguemaps.pdmreportms.cache;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.CidadaoResumoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Cidadao;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.repository.CidadaoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cache limitado e com expiração dos cidadãos já confirmados como existentes.
+ * Os caminhos de escrita usam {@link #referenciar(UUID)} para anexar o cidadão ao report/questionário
+ * sem ir ao banco. Só resultados positivos são guardados: um cidadão recém-cadastrado por outro
+ * serviço não fica "inexistente" até o TTL vencer.
+ * O resumo leva também o município de residência, usado pelo feed de reports para filtrar eventos
+ * (uma mudança de endereço leva até o TTL para aparecer no feed).
+ * Métricas de hit/miss ficam em /actuator/metrics/cache.gets com a tag cache=cidadao.
+ */
+@Component
+public class CidadaoCache {
+    public static final String NOME_CACHE = "cidadao";
+
+    private final CidadaoRepository cidadaoRepository;
+    private final Cache<UUID, CidadaoResumo> cache;
+
+    public record CidadaoResumo(UUID id, String nome, UUID municipioId, Estado estado) {
+    }
+
+    public CidadaoCache(
+            CidadaoRepository cidadaoRepository,
+            MeterRegistry meterRegistry,
+            @Value("${cache.cidadao.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${cache.cidadao.ttl:10m}") Duration ttl) {
+        this.cidadaoRepository = cidadaoRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOME_CACHE);
+    }
+
+    public Optional<CidadaoResumo> buscar(UUID idCidadao) {
+        if (idCidadao == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(buscarTodos(List.of(idCidadao)).get(idCidadao));
+    }
+
+    /**
+     * Resumo de cada cidadão existente entre os informados; os ausentes do cache são
+     * carregados numa única consulta.
+     */
+    public Map<UUID, CidadaoResumo> buscarTodos(Collection<UUID> idsCidadao) {
+        Map<UUID, CidadaoResumo> encontrados = new HashMap<>();
+        Set<UUID> ausentes = new HashSet<>();
+        for (UUID id : idsCidadao) {
+            if (id == null) {
+                continue;
+            }
+            CidadaoResumo resumo = cache.getIfPresent(id);
+            if (resumo != null) {
+                encontrados.put(id, resumo);
+            } else {
+                ausentes.add(id);
+            }
+        }
+        if (!ausentes.isEmpty()) {
+            for (CidadaoResumoDTO dto : cidadaoRepository.buscarResumos(ausentes)) {
+                CidadaoResumo resumo = new CidadaoResumo(dto.getCidadaoId(), dto.getNome(), dto.getMunicipioId(), dto.getEstado());
+                cache.put(resumo.id(), resumo);
+                encontrados.put(resumo.id(), resumo);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Referência (proxy) para o cidadão, validando a existência pelo cache.
+     * Em um hit nenhuma consulta é feita.
+     */
+    public Cidadao referenciar(UUID idCidadao) {
+        buscar(idCidadao).orElseThrow(() -> new IllegalArgumentException("Cidadao não encontrado"));
+        return cidadaoRepository.getReferenceById(idCidadao);
+    }
+
+    public void invalidar(UUID idCidadao) {
+        cache.invalidate(idCidadao);
+    }
+
+    public void invalidarTodos() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,71 @@
+package br.ifpb.project.denguemaps.pdmreportms.cache;
+
+import br.ifpb.project.denguemaps.pdmreportms.entity.ConjuntoPerguntas;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ConjuntoPerguntasRepository;
+import br.ifpb.project.denguemaps.pdmreportms.util.JsonCanonicoUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Cache dos conjuntos de perguntas (hash -> JSON). O conteúdo de um hash nunca muda,
+ * então não há expiração, só limite de tamanho; na prática os poucos modelos de
+ * questionário em uso ficam sempre em memória.
+ * Métricas de hit/miss ficam em /actuator/metrics/cache.gets com a tag cache=conjunto-perguntas.
+ */
+@Component
+public class ConjuntoPerguntasCache {
+    public static final String NOME_CACHE = "conjunto-perguntas";
+
+    private final ConjuntoPerguntasRepository conjuntoPerguntasRepository;
+    private final Cache<String, String> cache;
+
+    public ConjuntoPerguntasCache(
+            ConjuntoPerguntasRepository conjuntoPerguntasRepository,
+            MeterRegistry meterRegistry,
+            @Value("${cache.conjunto-perguntas.tamanho-maximo:1000}") long tamanhoMaximo) {
+        this.conjuntoPerguntasRepository = conjuntoPerguntasRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOME_CACHE);
+    }
+
+    /**
+     * Garante que o conjunto exista no banco e devolve a referência para o questionário.
+     * Em um hit nenhuma escrita é feita; num miss o insert ignora o conflito de hash.
+     */
+    public ConjuntoPerguntas registrar(String perguntasJson) {
+        String canonico = JsonCanonicoUtil.canonizar(perguntasJson);
+        String hash = JsonCanonicoUtil.hash(canonico);
+        if (cache.getIfPresent(hash) == null) {
+            conjuntoPerguntasRepository.inserirSeAusente(hash, canonico);
+            cache.put(hash, canonico);
+        }
+        return conjuntoPerguntasRepository.getReferenceById(hash);
+    }
+
+    /**
+     * Referência para um conjunto já existente, validando pelo cache.
+     */
+    public ConjuntoPerguntas referenciar(String hash) {
+        buscarPerguntas(hash).orElseThrow(() -> new IllegalArgumentException("Conjunto de perguntas não encontrado"));
+        return conjuntoPerguntasRepository.getReferenceById(hash);
+    }
+
+    public Optional<String> buscarPerguntas(String hash) {
+        if (hash == null) {
+            return Optional.empty();
+        }
+        // Só resultados positivos entram no cache (a função devolve null para hash inexistente)
+        return Optional.ofNullable(cache.get(hash, h -> conjuntoPerguntasRepository.findById(h)
+                .map(ConjuntoPerguntas::getPerguntas)
+                .orElse(null)));
+    }
+}
@@ -0,0 +1,189 @@
+package br.ifpb.project.denguemaps.pdmreportms.cache;
+
+import br.ifpb.project.denguemaps.pdmreportms.entity.Idempotencia;
+import br.ifpb.project.denguemaps.pdmreportms.entity.IdempotenciaId;
+import br.ifpb.project.denguemaps.pdmreportms.repository.IdempotenciaRepository;
+import br.ifpb.project.denguemaps.pdmreportms.util.JsonCanonicoUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Respostas de criações feitas com o cabeçalho Idempotency-Key, para que a repetição da
+ * mesma requisição (cliente que não recebeu a resposta e tentou de novo) devolva a resposta
+ * original sem gravar outra vez.
+ * A chave vale por operação e por usuário e fica na tabela idempotencia (V11__idempotencia.sql):
+ * ela é reservada na transação da criação e recebe a resposta antes do commit, então vale entre
+ * instâncias e restarts. Uma repetição simultânea espera no índice único a original terminar;
+ * só respostas 2xx são confirmadas, então uma falha pode ser repetida.
+ * O Caffeine guarda só execuções já confirmadas, para repetições na mesma instância não irem ao banco.
+ */
+@Component
+@Slf4j
+public class IdempotenciaCache {
+    public static final String NOME_CACHE = "idempotencia";
+    public static final String CABECALHO = "Idempotency-Key";
+    // Presente nas respostas devolvidas do cache
+    public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private final IdempotenciaRepository idempotenciaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<IdempotenciaId, Concluida> cache;
+    private final Duration ttl;
+    private final Duration tempoEspera;
+
+    // Resposta confirmada; o hash da requisição original detecta a mesma chave usada com outro conteúdo
+    private record Concluida(String requisicaoHash, int status, String corpo) {
+    }
+
+    // Resultado da transação; concluida só é preenchida quando há algo a guardar no Caffeine
+    private record Desfecho<T>(ResponseEntity<T> resposta, Concluida concluida) {
+    }
+
+    public IdempotenciaCache(
+            IdempotenciaRepository idempotenciaRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cache.idempotencia.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${cache.idempotencia.ttl:24h}") Duration ttl,
+            @Value("${cache.idempotencia.tempo-espera:10s}") Duration tempoEspera) {
+        this.idempotenciaRepository = idempotenciaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.tempoEspera = tempoEspera;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NOME_CACHE);
+    }
+
+    /**
+     * Executa {@code acao} uma única vez por chave, na mesma transação da reserva. Sem chave,
+     * executa sempre. Responde 422 se a chave já foi usada com outra requisição e 409 se a
+     * execução original ainda não terminou depois de {@code tempo-espera}.
+     * {@code tipoCorpo} é usado para ler a resposta guardada numa repetição.
+     */
+    public <T> ResponseEntity<T> executar(String operacao, String chave, Object requisicao,
+                                          Class<T> tipoCorpo, Supplier<ResponseEntity<T>> acao) {
+        if (chave == null || chave.isBlank()) {
+            return acao.get();
+        }
+        if (chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            return ResponseEntity.badRequest().build();
+        }
+        IdempotenciaId id = new IdempotenciaId(operacao, usuario(), chave);
+        String requisicaoHash = JsonCanonicoUtil.hash(paraJson(requisicao));
+        Concluida local = cache.getIfPresent(id);
+        if (local != null) {
+            return repetir(local, requisicaoHash, tipoCorpo);
+        }
+        Desfecho<T> desfecho;
+        try {
+            desfecho = transactionTemplate.execute(status -> {
+                if (!reservar(id, requisicaoHash)) {
+                    return new Desfecho<>(null, idempotenciaRepository.findById(id)
+                            .filter(existente -> existente.getStatus() != null)
+                            .map(existente -> new Concluida(existente.getRequisicaoHash(), existente.getStatus(), existente.getResposta()))
+                            .orElse(null));
+                }
+                ResponseEntity<T> resposta = acao.get();
+                if (!resposta.getStatusCode().is2xxSuccessful()) {
+                    // Libera a chave junto com o que a ação gravou
+                    status.setRollbackOnly();
+                    return new Desfecho<>(resposta, null);
+                }
+                String corpo = paraJson(resposta.getBody());
+                idempotenciaRepository.registrarResposta(operacao, id.getUsuario(), chave, resposta.getStatusCode().value(), corpo);
+                return new Desfecho<>(resposta, new Concluida(requisicaoHash, resposta.getStatusCode().value(), corpo));
+            });
+        } catch (PessimisticLockingFailureException e) {
+            // A original ainda não terminou (ou travou) depois de tempo-espera
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        if (desfecho.concluida() != null) {
+            cache.put(id, desfecho.concluida());
+        }
+        if (desfecho.resposta() != null) {
+            return desfecho.resposta();
+        }
+        if (desfecho.concluida() == null) {
+            // Linha sem resposta: não deveria ser confirmada, trata como execução em andamento
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return repetir(desfecho.concluida(), requisicaoHash, tipoCorpo);
+    }
+
+    public long tamanho() {
+        return cache.estimatedSize();
+    }
+
+    @Scheduled(fixedDelayString = "${cache.idempotencia.intervalo-limpeza:1h}",
+            initialDelayString = "${cache.idempotencia.intervalo-limpeza:1h}")
+    public void apagarVencidas() {
+        Integer apagadas = transactionTemplate.execute(status ->
+                idempotenciaRepository.apagarVencidas(OffsetDateTime.now().minus(ttl)));
+        log.debug("Chaves de idempotência vencidas apagadas: {}", apagadas);
+    }
+
+    // Só a espera pela reserva fica limitada a tempo-espera; a ação segue com o lock_timeout de antes
+    private boolean reservar(IdempotenciaId id, String requisicaoHash) {
+        String lockTimeout = idempotenciaRepository.lockTimeoutAtual();
+        idempotenciaRepository.definirLockTimeout(tempoEspera.toMillis() + "ms");
+        int reservadas = idempotenciaRepository.reservar(id.getOperacao(), id.getUsuario(), id.getChave(),
+                requisicaoHash, OffsetDateTime.now().minus(ttl));
+        idempotenciaRepository.definirLockTimeout(lockTimeout);
+        return reservadas > 0;
+    }
+
+    private <T> ResponseEntity<T> repetir(Concluida original, String requisicaoHash, Class<T> tipoCorpo) {
+        if (!original.requisicaoHash().equals(requisicaoHash)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+        T corpo;
+        try {
+            corpo = objectMapper.readValue(original.corpo(), tipoCorpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta guardada ilegível para " + tipoCorpo.getSimpleName(), e);
+        }
+        return ResponseEntity.status(original.status())
+                .header(CABECALHO_REPETIDA, "true")
+                .body(corpo);
+    }
+
+    private String paraJson(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Não foi possível serializar " + valor.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static String usuario() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacao != null ? autenticacao.getName() : "";
+    }
+}
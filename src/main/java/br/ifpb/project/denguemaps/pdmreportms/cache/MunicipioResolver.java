@@ -0,0 +1,93 @@
+package br.ifpb.project.denguemaps.pdmreportms.cache;
+
+import br.ifpb.project.denguemaps.pdmreportms.entity.Municipio;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.repository.MunicipioRepository;
+import br.ifpb.project.denguemaps.pdmreportms.util.TextoUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória dos municípios, por Estado + nome normalizado e por id.
+ * Municípios quase nunca mudam, então o índice é carregado na inicialização e
+ * recarregado periodicamente; a resolução em uma requisição não vai ao banco.
+ * Um miss ainda consulta o banco uma vez (município cadastrado depois da última carga).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MunicipioResolver {
+    private final MunicipioRepository municipioRepository;
+
+    private volatile Indice indice = Indice.vazio();
+
+    private record Indice(Map<Estado, Map<String, Municipio>> porEstadoENome, Map<UUID, Municipio> porId) {
+        static Indice vazio() {
+            Map<Estado, Map<String, Municipio>> porEstadoENome = new EnumMap<>(Estado.class);
+            for (Estado estado : Estado.values()) {
+                porEstadoENome.put(estado, new ConcurrentHashMap<>());
+            }
+            return new Indice(porEstadoENome, new ConcurrentHashMap<>());
+        }
+
+        void adicionar(Municipio municipio) {
+            porId.put(municipio.getId(), municipio);
+            porEstadoENome.get(municipio.getEstado()).put(TextoUtil.normalizar(municipio.getNome()), municipio);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${cache.municipio.intervalo-recarga:6h}",
+            initialDelayString = "${cache.municipio.intervalo-recarga:6h}")
+    public void recarregar() {
+        List<Municipio> municipios = municipioRepository.findAll();
+        Indice novo = Indice.vazio();
+        municipios.forEach(novo::adicionar);
+        indice = novo;
+        log.info("Índice de municípios carregado com {} municípios", municipios.size());
+    }
+
+    /**
+     * Resolve o município pelo id e, se não encontrado, pelo nome (sem diferenciar acentos e caixa),
+     * sempre dentro do Estado informado.
+     */
+    public Optional<Municipio> resolver(String nome, UUID id, Estado estado) {
+        Indice atual = indice;
+        if (id != null) {
+            Municipio municipio = atual.porId().get(id);
+            if (municipio != null && municipio.getEstado() == estado) {
+                return Optional.of(municipio);
+            }
+        }
+        if (nome != null && !nome.isBlank()) {
+            Municipio municipio = atual.porEstadoENome().get(estado).get(TextoUtil.normalizar(nome));
+            if (municipio != null) {
+                return Optional.of(municipio);
+            }
+        }
+        return buscarNoBanco(atual, nome, id, estado);
+    }
+
+    private Optional<Municipio> buscarNoBanco(Indice atual, String nome, UUID id, Estado estado) {
+        Optional<Municipio> municipio = Optional.empty();
+        if (id != null) {
+            municipio = municipioRepository.buscarPorNomeOuIdEEstado(null, id, estado.name());
+        }
+        if (municipio.isEmpty() && nome != null && !nome.isBlank()) {
+            municipio = municipioRepository.buscarPorNomeOuIdEEstado(nome, null, estado.name());
+        }
+        municipio.ifPresent(atual::adicionar);
+        return municipio;
+    }
+}
@@ -0,0 +1,73 @@
+package br.ifpb.project.denguemaps.pdmreportms.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache com Caffeine) para os dados de referência
+ * Municipio e Secretaria, e o cache de consultas do MunicipioRepository.
+ * O banco é compartilhado com os outros serviços, que podem alterar essas tabelas sem
+ * passar por este Hibernate: por isso as regiões expiram (mesmo intervalo de recarga
+ * do {@link MunicipioResolver}).
+ * Métricas de hit/miss em /actuator/metrics/cache.gets (tag cache=hibernate.&lt;região&gt;)
+ * e nas métricas hibernate.second.level.cache.* e hibernate.cache.query.*.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SegundoNivelCacheConfiguration {
+    public static final String REGIAO_MUNICIPIO = "municipio";
+    public static final String REGIAO_SECRETARIA = "secretaria";
+    // Nomes padrão do Hibernate para as regiões do cache de consultas
+    static final String REGIAO_CONSULTAS = "default-query-results-region";
+    static final String REGIAO_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager segundoNivelCacheManager(
+            MeterRegistry meterRegistry,
+            @Value("${cache.segundo-nivel.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${cache.segundo-nivel.ttl:${cache.municipio.intervalo-recarga:6h}}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        criar(cacheManager, meterRegistry, REGIAO_MUNICIPIO, tamanhoMaximo, ttl);
+        criar(cacheManager, meterRegistry, REGIAO_SECRETARIA, tamanhoMaximo, ttl);
+        criar(cacheManager, meterRegistry, REGIAO_CONSULTAS, tamanhoMaximo, ttl);
+        // Os timestamps invalidam o cache de consultas: não podem expirar antes dos resultados
+        criar(cacheManager, meterRegistry, REGIAO_TIMESTAMPS, tamanhoMaximo, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer segundoNivelCacheHibernate(CacheManager segundoNivelCacheManager) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, segundoNivelCacheManager);
+    }
+
+    private static void criar(CacheManager cacheManager, MeterRegistry meterRegistry,
+                              String regiao, long tamanhoMaximo, Duration ttl) {
+        if (cacheManager.getCache(regiao) != null) {
+            // Provider compartilhado na JVM (ex: contexto reiniciado pelo devtools)
+            cacheManager.destroyCache(regiao);
+        }
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+        if (ttl != null) {
+            configuracao.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        // As entradas do Hibernate são imutáveis: sem cópia por serialização a cada leitura
+        configuracao.setStoreByValue(false);
+        configuracao.setNativeStatisticsEnabled(true);
+        javax.cache.Cache<Object, Object> cache = cacheManager.createCache(regiao, configuracao);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.unwrap(Cache.class), "hibernate." + regiao);
+    }
+}
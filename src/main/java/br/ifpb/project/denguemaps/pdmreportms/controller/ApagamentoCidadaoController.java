@@ -0,0 +1,37 @@
+package br.ifpb.project.denguemaps.pdmreportms.controller;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.ApagamentoCidadaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.service.ApagamentoCidadaoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/api/cidadao/apagamento")
+public class ApagamentoCidadaoController {
+
+    private final ApagamentoCidadaoService apagamentoCidadaoService;
+
+    // Responde na hora com o pedido; o andamento é consultado no GET com o id devolvido
+    @PostMapping
+    public ResponseEntity<ApagamentoCidadaoDTO> solicitarApagamento(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+            @RequestParam UUID cidadaoId
+    ){
+        return new ResponseEntity<>(apagamentoCidadaoService.solicitar(cidadaoId), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping
+    public ResponseEntity<ApagamentoCidadaoDTO> consultarApagamento(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+            @RequestParam UUID id
+    ){
+        return new ResponseEntity<>(apagamentoCidadaoService.buscar(id), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,50 @@
+package br.ifpb.project.denguemaps.pdmreportms.controller;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.IngestaoStatusDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportCriacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportIngestaoAceiteDTO;
+import br.ifpb.project.denguemaps.pdmreportms.ingestao.IngestaoReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@Controller
+@ConditionalOnProperty(name = "ingestao-report.habilitada", havingValue = "true")
+@RequestMapping("/api/report/ingestao")
+@RequiredArgsConstructor
+public class IngestaoReportController {
+    // Segundos sugeridos ao cliente quando a fila está cheia ou a gravação está parada
+    private static final String RETRY_AFTER_INDISPONIVEL = "5";
+
+    private final IngestaoReportService ingestaoReportService;
+
+    // Responde assim que o report está no WAL; a gravação no banco acontece em segundo plano
+    @PostMapping
+    public ResponseEntity<ReportIngestaoAceiteDTO> ingerirReport(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestBody ReportCriacaoDTO request
+    ) {
+        return ingestaoReportService.enfileirar(request)
+                .map(aceite -> ResponseEntity.accepted()
+                        .location(URI.create("/api/report/esp?uuid=" + aceite.getId()))
+                        .body(aceite))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_INDISPONIVEL)
+                        .build());
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<IngestaoStatusDTO> consultarStatus(
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        return new ResponseEntity<>(ingestaoReportService.status(), HttpStatus.OK);
+    }
+}
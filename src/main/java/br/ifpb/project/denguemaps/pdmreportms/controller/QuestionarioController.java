@@ -1,18 +1,28 @@
 package br.ifpb.project.denguemaps.pdmreportms.controller;
 
 
+import br.ifpb.project.denguemaps.pdmreportms.cache.IdempotenciaCache;
+import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.AgregacaoPerguntaDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.QuestionarioAtualizarDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.QuestionarioCriarDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.QuestionarioResponseDTO;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
 import br.ifpb.project.denguemaps.pdmreportms.service.QuestionarioService;
+import br.ifpb.project.denguemaps.pdmreportms.util.GetCondicionalUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,17 +32,22 @@ import java.util.UUID;
 public class QuestionarioController {
 
     private final QuestionarioService questionarioService;
+    private final IdempotenciaCache idempotenciaCache;
 
+    // Com Idempotency-Key, repetições da mesma requisição devolvem o questionário já criado
     @PostMapping
     public ResponseEntity<QuestionarioResponseDTO> registrarQuestionario(
             @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+            @RequestHeader(value = IdempotenciaCache.CABECALHO, required = false) String chaveIdempotencia,
             @RequestBody @Valid QuestionarioCriarDTO questionarioCriarDTO
             ){
         String token = authHeader.replace("Bearer ", "");
-        return new ResponseEntity<>(
-                questionarioService.registrarQuestionarioComRetorno(
-                questionarioCriarDTO),
-                HttpStatus.CREATED);
+        return idempotenciaCache.executar("questionario", chaveIdempotencia, questionarioCriarDTO,
+                QuestionarioResponseDTO.class, () ->
+                new ResponseEntity<>(
+                        questionarioService.registrarQuestionarioComRetorno(
+                        questionarioCriarDTO),
+                        HttpStatus.CREATED));
     }
 
     @PutMapping
@@ -57,26 +72,65 @@ public class QuestionarioController {
 
     @GetMapping("/all")
     public ResponseEntity<List<QuestionarioResponseDTO>> retornarTodoQuestionario(
-            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+            @RequestParam(defaultValue = "true") boolean incluirPerguntas
     ){
-        return new ResponseEntity<>(questionarioService.buscarTodoQuestionario(), HttpStatus.OK);
+        return new ResponseEntity<>(questionarioService.buscarTodoQuestionario(incluirPerguntas), HttpStatus.OK);
     }
 
     @GetMapping("/esp")
     public ResponseEntity<QuestionarioResponseDTO> retornarQuestionarioEspecifico(
             @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
-            @RequestParam UUID uuid
+            @RequestParam UUID uuid,
+            @RequestParam(defaultValue = "true") boolean incluirPerguntas,
+            ServletWebRequest webRequest
     ){
-        return new ResponseEntity<>(questionarioService.buscarQuestionarioEspecifico(uuid), HttpStatus.OK);
+        if (GetCondicionalUtil.naoModificado(webRequest, questionarioService.buscarVersaoQuestionario(uuid))) {
+            return null;
+        }
+        return new ResponseEntity<>(questionarioService.buscarQuestionarioEspecifico(uuid, incluirPerguntas), HttpStatus.OK);
     }
 
     @GetMapping("/esp-cidadao")
     public ResponseEntity<List<QuestionarioResponseDTO>> retornarTodoQuestionarioCidadaoEspecifico(
             @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
-            @RequestParam UUID uuid
+            @RequestParam UUID uuid,
+            @RequestParam(defaultValue = "true") boolean incluirPerguntas
+    ){
+        return new ResponseEntity<>(
+                questionarioService.buscarQuestionarioCidadaoEspecifico(uuid, incluirPerguntas),
+                HttpStatus.OK);
+    }
+
+    // O conteúdo de um hash nunca muda: o cliente pode guardar a resposta indefinidamente
+    @GetMapping("/conjunto-perguntas")
+    public ResponseEntity<String> retornarConjuntoPerguntas(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+            @RequestParam String hash,
+            ServletWebRequest webRequest
+    ){
+        String etag = "\"" + hash + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                .body(questionarioService.buscarConjuntoPerguntas(hash));
+    }
+
+    @GetMapping("/agregacao")
+    public ResponseEntity<List<AgregacaoPerguntaDTO>> agregarRespostasPorMunicipio(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+            @RequestParam Estado estado,
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) UUID id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate
     ){
         return new ResponseEntity<>(
-                questionarioService.buscarQuestionarioCidadaoEspecifico(uuid),
+                questionarioService.agregarRespostasPorMunicipio(nome, id, estado, de, ate),
                 HttpStatus.OK);
     }
 }
@@ -1,21 +1,41 @@
 package br.ifpb.project.denguemaps.pdmreportms.controller;
 
 
+import br.ifpb.project.denguemaps.pdmreportms.cache.IdempotenciaCache;
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.municipio.MunicipioBuscaDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportClusterDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportCriacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLoteResultadoDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportObjetoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportPaginaDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportResponseDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportAtualizarDTO;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.service.ClusterReportService;
+import br.ifpb.project.denguemaps.pdmreportms.service.ContadorRiscoService;
+import br.ifpb.project.denguemaps.pdmreportms.service.FeedReportService;
 import br.ifpb.project.denguemaps.pdmreportms.service.ReportService;
+import br.ifpb.project.denguemaps.pdmreportms.util.GetCondicionalUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,15 +43,37 @@ import java.util.UUID;
 @RequestMapping("/api/report")
 @RequiredArgsConstructor
 public class ReportController {
+    // Total de reports do filtro em GET /api/report, que devolve só a página pedida
+    public static final String CABECALHO_TOTAL = "X-Total-Count";
+
     private final ReportService reportService;
+    private final ClusterReportService clusterReportService;
+    private final ContadorRiscoService contadorRiscoService;
+    private final FeedReportService feedReportService;
+    private final ObjectMapper objectMapper;
+    private final IdempotenciaCache idempotenciaCache;
 
+    // Com Idempotency-Key, repetições da mesma requisição devolvem o report já criado
     @PostMapping
     public ResponseEntity<ReportResponseDTO> registrarReport(
             @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = IdempotenciaCache.CABECALHO, required = false) String chaveIdempotencia,
             @RequestBody ReportCriacaoDTO request
     ) {
-        ReportResponseDTO reportResponseDTO = reportService.cadastrarReport(request);
-        return new ResponseEntity<>(reportResponseDTO, HttpStatus.CREATED);
+        return idempotenciaCache.executar("report", chaveIdempotencia, request, ReportResponseDTO.class, () -> {
+            ReportResponseDTO reportResponseDTO = reportService.cadastrarReport(request);
+            return new ResponseEntity<>(reportResponseDTO, HttpStatus.CREATED);
+        });
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReportLoteResultadoDTO>> registrarReportsEmLote(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestBody List<ReportCriacaoDTO> request
+    ) {
+        List<ReportLoteResultadoDTO> resultados = reportService.cadastrarReportsEmLote(request);
+        boolean todosGravados = resultados.stream().allMatch(ReportLoteResultadoDTO::isSucesso);
+        return new ResponseEntity<>(resultados, todosGravados ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
     }
 
     @PutMapping
@@ -55,8 +97,12 @@ public class ReportController {
     @GetMapping("/esp")
     public ResponseEntity<List<ReportResponseDTO>> buscarReportEspecifico(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam UUID uuid
+            @RequestParam UUID uuid,
+            ServletWebRequest webRequest
             ){
+        if (GetCondicionalUtil.naoModificado(webRequest, reportService.buscarVersaoReport(uuid))) {
+            return null;
+        }
         List<ReportResponseDTO> listaReport = reportService.buscarReportEspecifico(uuid);
         return new ResponseEntity<>(listaReport, HttpStatus.OK);
     }
@@ -64,40 +110,163 @@ public class ReportController {
     @GetMapping("/esp-cidadao")
     public ResponseEntity<List<ReportResponseDTO>> buscarReportCidadaoEspecifico(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam UUID uuid
+            @RequestParam UUID uuid,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate,
+            ServletWebRequest webRequest
     ){
-        List<ReportResponseDTO> listaCidadaoReport = reportService.buscarReportCidadaoEspecifico(uuid);
+        if (GetCondicionalUtil.naoModificado(webRequest, reportService.buscarVersaoReportsCidadao(uuid))) {
+            return null;
+        }
+        List<ReportResponseDTO> listaCidadaoReport = reportService.buscarReportCidadaoEspecifico(uuid, de, ate);
         return new ResponseEntity<>(listaCidadaoReport, HttpStatus.OK);
     }
 
     @GetMapping("/all")
     public ResponseEntity<List<ReportResponseDTO>> listarTodoReport(
-            @AuthenticationPrincipal Jwt jwt
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate
+    ){
+        List<ReportResponseDTO> listaReport = reportService.buscarTodoReport(de, ate);
+        return new ResponseEntity<>(listaReport, HttpStatus.OK);
+    }
+
+    @GetMapping("/all/pagina")
+    public ResponseEntity<ReportPaginaDTO> listarPaginaReport(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ReportService.TAMANHO_PAGINA_PADRAO) int tamanho,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate
+    ){
+        ReportPaginaDTO pagina = reportService.buscarPaginaReport(cursor, tamanho, de, ate);
+        return new ResponseEntity<>(pagina, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> transmitirTodoReport(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate
+    ){
+        StreamingResponseBody corpo = saida -> reportService.transmitirTodoReport(de, ate, report -> {
+            try {
+                saida.write(objectMapper.writeValueAsBytes(report));
+                saida.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+
+    // Feed de criações/atualizações/remoções; o EventSource reenvia Last-Event-ID ao reconectar
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharReports(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) Estado estado,
+            @RequestParam(required = false) UUID municipioId,
+            @RequestParam(required = false) String nomeMunicipio,
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId
+    ){
+        return feedReportService.assinar(municipioId, nomeMunicipio, estado, ultimoEventoId);
+    }
+
+    @GetMapping("/bbox")
+    public ResponseEntity<List<ReportResponseDTO>> buscarReportsNaCaixa(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon,
+            @RequestParam(defaultValue = "" + ReportService.LIMITE_BUSCA_ESPACIAL_PADRAO) int limite,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate
     ){
-        List<ReportResponseDTO> listaReport = reportService.buscarTodoReport();
+        List<ReportResponseDTO> listaReport = reportService.buscarReportsNaCaixa(minLat, minLon, maxLat, maxLon, de, ate, limite);
         return new ResponseEntity<>(listaReport, HttpStatus.OK);
     }
 
+    @GetMapping("/raio")
+    public ResponseEntity<List<ReportResponseDTO>> buscarReportsNoRaio(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam double metros,
+            @RequestParam(defaultValue = "" + ReportService.LIMITE_BUSCA_ESPACIAL_PADRAO) int limite,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate
+    ){
+        List<ReportResponseDTO> listaReport = reportService.buscarReportsNoRaio(lat, lon, metros, de, ate, limite);
+        return new ResponseEntity<>(listaReport, HttpStatus.OK);
+    }
+
+    @GetMapping("/cluster")
+    public ResponseEntity<List<ReportClusterDTO>> buscarClusters(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam int zoom,
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon
+    ){
+        List<ReportClusterDTO> clusters = clusterReportService.buscarClusters(zoom, minLat, minLon, maxLat, maxLon);
+        return new ResponseEntity<>(clusters, HttpStatus.OK);
+    }
+
+    // Mantém a lista como corpo, como antes da paginação; o total de resultados vai no cabeçalho
     @GetMapping
     public ResponseEntity<List<ReportResponseDTO>> buscarReportObjeto(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestBody ReportObjetoDTO request){
-        List<ReportResponseDTO> listaReport = reportService.buscarReportObjeto(request);
-        return new ResponseEntity<>(listaReport, HttpStatus.OK);
+            @RequestBody ReportObjetoDTO request,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "" + ReportService.TAMANHO_PAGINA_PADRAO) int tamanho,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate){
+        Page<ReportResponseDTO> paginaReport = reportService.buscarReportObjeto(request, pagina, tamanho, de, ate);
+        return ResponseEntity.ok()
+                .header(CABECALHO_TOTAL, String.valueOf(paginaReport.getTotalElements()))
+                .body(paginaReport.getContent());
     }
 
     @GetMapping("/all-municipio")
     public ResponseEntity<List<ReportResponseDTO>> buscarReportsPorMunicipio(
             @AuthenticationPrincipal Jwt jwt,
-            @Valid @RequestBody MunicipioBuscaDTO request) {
+            @Valid @RequestBody MunicipioBuscaDTO request,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate) {
         List<ReportResponseDTO> listaReports = reportService.buscarReportsPorMunicipio(
                 request.getNome(),
                 request.getId(),
-                request.getEstado()
+                request.getEstado(),
+                de,
+                ate
         );
         return new ResponseEntity<>(listaReports, HttpStatus.OK);
     }
 
+    @GetMapping("/contagem-risco/municipio")
+    public ResponseEntity<List<ContagemRiscoDTO>> buscarContagemRiscoPorMunicipio(
+            @AuthenticationPrincipal Jwt jwt,
+            @Valid @RequestBody MunicipioBuscaDTO request) {
+        List<ContagemRiscoDTO> contagens = contadorRiscoService.buscarPorMunicipio(
+                request.getNome(),
+                request.getId(),
+                request.getEstado()
+        );
+        return new ResponseEntity<>(contagens, HttpStatus.OK);
+    }
+
+    @GetMapping("/contagem-risco/estado")
+    public ResponseEntity<List<ContagemRiscoDTO>> buscarContagemRiscoPorEstado(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam Estado estado) {
+        List<ContagemRiscoDTO> contagens = contadorRiscoService.buscarPorEstado(estado);
+        return new ResponseEntity<>(contagens, HttpStatus.OK);
+    }
 
 
 }
@@ -0,0 +1,48 @@
+package br.ifpb.project.denguemaps.pdmreportms.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Só ativa com virtual threads (spring.threads.virtual.enabled=true, perfil virtual-threads):
+ * coloca o {@link ConcorrenciaLimitadaDataSource} na frente do pool do Hikari.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ConcorrenciaDataSourceConfiguration {
+
+    @Bean
+    static BeanPostProcessor limitarConcorrenciaDataSource(
+            @Value("${datasource.limite-concorrencia.maximo:${spring.datasource.hikari.maximum-pool-size:10}}") int maximo,
+            @Value("${datasource.limite-concorrencia.espera-maxima:5s}") Duration esperaMaxima,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcorrenciaLimitadaDataSource) {
+                    return bean;
+                }
+                ConcorrenciaLimitadaDataSource limitado = new ConcorrenciaLimitadaDataSource(dataSource, maximo, esperaMaxima);
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("datasource.concorrencia.em.uso", limitado, ConcorrenciaLimitadaDataSource::getEmUso)
+                            .tag("datasource", beanName)
+                            .register(registry);
+                    Gauge.builder("datasource.concorrencia.aguardando", limitado, ConcorrenciaLimitadaDataSource::getAguardando)
+                            .tag("datasource", beanName)
+                            .register(registry);
+                });
+                return limitado;
+            }
+        };
+    }
+}
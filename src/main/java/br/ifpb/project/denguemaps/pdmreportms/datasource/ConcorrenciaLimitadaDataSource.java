@@ -0,0 +1,104 @@
+package br.ifpb.project.denguemaps.pdmreportms.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita quantas threads podem segurar uma conexão ao mesmo tempo.
+ * Com virtual threads não há mais o teto do pool do Tomcat: milhares de requisições
+ * chegam juntas ao Hikari. Aqui elas esperam em uma fila justa (FIFO) e, passado o
+ * tempo máximo, falham com erro claro em vez de se acumularem dentro do pool.
+ * A permissão é devolvida quando a conexão é fechada (devolvida ao pool).
+ */
+public class ConcorrenciaLimitadaDataSource extends DelegatingDataSource {
+    private final Semaphore permissoes;
+    private final int maximo;
+    private final long esperaMaximaNanos;
+
+    public ConcorrenciaLimitadaDataSource(DataSource alvo, int maximo, Duration esperaMaxima) {
+        super(alvo);
+        if (maximo < 1) {
+            throw new IllegalArgumentException("O limite de concorrência deve ser ao menos 1.");
+        }
+        this.permissoes = new Semaphore(maximo, true);
+        this.maximo = maximo;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberandoAoFechar(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberandoAoFechar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    public int getEmUso() {
+        return maximo - permissoes.availablePermits();
+    }
+
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Limite de " + maximo + " conexões simultâneas atingido; tempo de espera esgotado");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão", e);
+        }
+    }
+
+    private Connection liberandoAoFechar(Connection conexao) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    if ("close".equals(metodo.getName()) && metodo.getParameterCount() == 0) {
+                        try {
+                            conexao.close();
+                        } finally {
+                            // close() pode ser chamado mais de uma vez; a permissão só volta uma
+                            if (liberada.compareAndSet(false, true)) {
+                                permissoes.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return metodo.invoke(conexao, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
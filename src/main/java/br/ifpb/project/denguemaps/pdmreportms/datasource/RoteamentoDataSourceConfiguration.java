@@ -0,0 +1,79 @@
+package br.ifpb.project.denguemaps.pdmreportms.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Só ativa com réplicas configuradas (datasource.replicas.urls): substitui o DataSource
+ * do Spring Boot pelo {@link RoteamentoLeituraDataSource}, com um pool Hikari para o
+ * primário e um por réplica, todos com as configurações de spring.datasource.hikari.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${datasource.replicas.urls:}'.isBlank()")
+public class RoteamentoDataSourceConfiguration {
+
+    @Bean
+    public RoteamentoLeituraDataSource dataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${datasource.replicas.tamanho-pool:0}") int tamanhoPool,
+            @Value("${datasource.replicas.atraso-maximo:5s}") Duration atrasoMaximo,
+            @Value("${datasource.replicas.intervalo-verificacao:5s}") Duration intervaloVerificacao) {
+        Binder binder = Binder.get(environment);
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+
+        HikariDataSource primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configurarPool(primario, RoteamentoLeituraDataSource.PRIMARIO, binder, registry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String nome = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setDriverClassName(properties.determineDriverClassName());
+            configurarPool(replica, nome, binder, registry);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            if (tamanhoPool > 0) {
+                replica.setMaximumPoolSize(tamanhoPool);
+            }
+            replicas.put(nome, replica);
+        }
+
+        RoteamentoLeituraDataSource dataSource = new RoteamentoLeituraDataSource(primario, replicas, atrasoMaximo, registry);
+        dataSource.iniciarVerificacao(intervaloVerificacao);
+        return dataSource;
+    }
+
+    private static void configurarPool(HikariDataSource pool, String nome, Binder binder, MeterRegistry registry) {
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(nome);
+        // Métricas hikaricp.* com a tag pool=<nome>, separadas por pool
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+    }
+}
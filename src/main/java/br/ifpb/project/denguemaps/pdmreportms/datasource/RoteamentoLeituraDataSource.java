@@ -0,0 +1,206 @@
+package br.ifpb.project.denguemaps.pdmreportms.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia as transações somente leitura (@Transactional(readOnly = true)) para as réplicas
+ * e o resto para o primário. As réplicas são usadas em rodízio; uma réplica fora do ar ou
+ * com atraso de replicação acima de {@code atrasoMaximo} deixa de receber leituras até se
+ * recuperar, e sem nenhuma disponível a leitura vai para o primário.
+ * A escolha só acontece no primeiro comando da transação (proxy preguiçoso): quando o
+ * gerenciador de transações pede a conexão, o readOnly ainda não está no contexto.
+ */
+@Slf4j
+public class RoteamentoLeituraDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    public static final String PRIMARIO = "primario";
+    // Réplica em dia (tudo que recebeu já foi aplicado) tem atraso zero, mesmo com o primário ocioso
+    static final String CONSULTA_ATRASO = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource primario;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final double atrasoMaximoSegundos;
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final Map<String, Counter> conexoesPorDestino = new HashMap<>();
+    private ScheduledExecutorService verificacao;
+
+    public static final class Replica {
+        private final String nome;
+        private final DataSource dataSource;
+        // Só recebe leituras depois da primeira verificação bem-sucedida
+        private volatile boolean disponivel;
+        private volatile double atrasoSegundos = Double.NaN;
+
+        private Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public boolean isDisponivel() {
+            return disponivel;
+        }
+
+        public double getAtrasoSegundos() {
+            return atrasoSegundos;
+        }
+    }
+
+    public RoteamentoLeituraDataSource(
+            DataSource primario,
+            Map<String, DataSource> replicas,
+            Duration atrasoMaximo,
+            MeterRegistry meterRegistry) {
+        this.primario = primario;
+        this.atrasoMaximoSegundos = atrasoMaximo.toMillis() / 1000.0;
+        replicas.forEach((nome, dataSource) -> this.replicas.add(new Replica(nome, dataSource)));
+
+        Map<Object, Object> alvos = new LinkedHashMap<>();
+        alvos.put(PRIMARIO, primario);
+        alvos.putAll(replicas);
+        for (Object destino : alvos.keySet()) {
+            conexoesPorDestino.put((String) destino, Counter.builder("datasource.roteamento.conexoes")
+                    .description("Conexões entregues por destino do roteamento")
+                    .tag("destino", (String) destino)
+                    .register(meterRegistry));
+        }
+        for (Replica replica : this.replicas) {
+            Gauge.builder("datasource.replica.atraso", replica, Replica::getAtrasoSegundos)
+                    .description("Atraso de replicação medido na última verificação, em segundos")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getNome())
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.disponivel", replica, r -> r.isDisponivel() ? 1 : 0)
+                    .description("1 se a réplica está recebendo leituras")
+                    .tag("replica", replica.getNome())
+                    .register(meterRegistry);
+        }
+
+        Roteador roteador = new Roteador();
+        roteador.setTargetDataSources(alvos);
+        roteador.setDefaultTargetDataSource(primario);
+        roteador.setLenientFallback(false);
+        roteador.afterPropertiesSet();
+        setTargetDataSource(roteador);
+        // Valores padrão do Hikari/Postgres; evita abrir uma conexão só para descobri-los
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        afterPropertiesSet();
+    }
+
+    public List<Replica> getReplicas() {
+        return List.copyOf(replicas);
+    }
+
+    /**
+     * Mede o atraso de cada réplica e atualiza quais recebem leituras.
+     */
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            boolean estava = replica.disponivel;
+            try (Connection conexao = replica.dataSource.getConnection();
+                 Statement comando = conexao.createStatement();
+                 ResultSet resultado = comando.executeQuery(CONSULTA_ATRASO)) {
+                resultado.next();
+                replica.atrasoSegundos = resultado.getDouble(1);
+                replica.disponivel = replica.atrasoSegundos <= atrasoMaximoSegundos;
+                if (estava && !replica.disponivel) {
+                    log.warn("Réplica {} com atraso de {}s; leituras voltam para o primário", replica.nome, replica.atrasoSegundos);
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.disponivel = false;
+                replica.atrasoSegundos = Double.NaN;
+                if (estava) {
+                    log.warn("Réplica {} indisponível; leituras voltam para o primário", replica.nome, e);
+                }
+            }
+            if (!estava && replica.disponivel) {
+                log.info("Réplica {} recebendo leituras (atraso {}s)", replica.nome, replica.atrasoSegundos);
+            }
+        }
+    }
+
+    public synchronized void iniciarVerificacao(Duration intervalo) {
+        if (verificacao != null) {
+            return;
+        }
+        verificacao = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "verificacao-replicas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        verificacao.scheduleWithFixedDelay(this::verificarReplicas, 0, intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (verificacao != null) {
+            verificacao.shutdownNow();
+        }
+        fechar(primario);
+        replicas.forEach(replica -> fechar(replica.dataSource));
+    }
+
+    String escolherDestino() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARIO;
+        }
+        int quantidade = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Replica replica = replicas.get((inicio + i) % quantidade);
+            if (replica.disponivel) {
+                return replica.nome;
+            }
+        }
+        return PRIMARIO;
+    }
+
+    private static void fechar(DataSource dataSource) {
+        if (dataSource instanceof Closeable fechavel) {
+            try {
+                fechavel.close();
+            } catch (Exception e) {
+                log.warn("Falha ao fechar pool de conexões", e);
+            }
+        }
+    }
+
+    private final class Roteador extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            String destino = escolherDestino();
+            conexoesPorDestino.get(destino).increment();
+            return destino;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.cidadao;
+
+import br.ifpb.project.denguemaps.pdmreportms.enums.StatusApagamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ApagamentoCidadaoDTO {
+    private UUID id;
+    private UUID cidadaoId;
+    private StatusApagamento status;
+    private long reportsTotal;
+    private long reportsApagados;
+    private long questionariosTotal;
+    private long questionariosApagados;
+    private OffsetDateTime iniciadoEm;
+    private OffsetDateTime concluidoEm;
+    private String erro;
+}
@@ -0,0 +1,17 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.cidadao;
+
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class CidadaoMunicipioDTO {
+    private UUID cidadaoId;
+    private UUID municipioId;
+    private Estado estado;
+}
@@ -0,0 +1,19 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.cidadao;
+
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class CidadaoResumoDTO {
+    private UUID cidadaoId;
+    private String nome;
+    // Nulos para cidadão sem endereço/município
+    private UUID municipioId;
+    private Estado estado;
+}
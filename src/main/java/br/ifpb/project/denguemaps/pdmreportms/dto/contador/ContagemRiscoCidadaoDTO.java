@@ -0,0 +1,16 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.contador;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ContagemRiscoCidadaoDTO {
+    private UUID cidadaoId;
+    private String classificacaoRisco;
+    private long quantidade;
+}
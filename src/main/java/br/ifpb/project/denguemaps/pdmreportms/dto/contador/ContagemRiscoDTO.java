@@ -0,0 +1,13 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.contador;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ContagemRiscoDTO {
+    private String classificacaoRisco;
+    private long quantidade;
+}
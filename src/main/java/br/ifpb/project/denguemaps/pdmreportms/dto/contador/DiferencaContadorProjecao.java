@@ -0,0 +1,17 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.contador;
+
+import java.util.UUID;
+
+/**
+ * Linha da comparação nativa entre a contagem de reports e report_contador_risco
+ * (ContadorRiscoRepository.calcularDiferencas): quanto falta somar ao contador.
+ */
+public interface DiferencaContadorProjecao {
+    UUID getMunicipioId();
+
+    String getEstado();
+
+    String getClassificacaoRisco();
+
+    Long getDiferenca();
+}
@@ -0,0 +1,17 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.questionario;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class AgregacaoPerguntaDTO {
+    private String perguntaChave;
+    private String pergunta;
+    private long totalCidadaos;
+    private List<DistribuicaoRespostaDTO> respostas;
+}
@@ -0,0 +1,17 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.questionario;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class DistribuicaoRespostaDTO {
+    private String resposta;
+    // Quantidade de respostas (um cidadão pode ter respondido mais de um questionário)
+    private long quantidade;
+    private long cidadaos;
+    // Percentual dos cidadãos que responderam a pergunta e deram esta resposta
+    private double percentualCidadaos;
+}
@@ -0,0 +1,20 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.questionario;
+
+/**
+ * Linha da agregação nativa de respostas (QuestionarioRepository.agregarRespostas).
+ * Linhas com total = 1 são o subtotal da pergunta (resposta nula) e trazem o número
+ * de cidadãos distintos que responderam a pergunta.
+ */
+public interface DistribuicaoRespostaProjecao {
+    String getPerguntaChave();
+
+    String getPergunta();
+
+    String getResposta();
+
+    Long getQuantidade();
+
+    Long getCidadaos();
+
+    Integer getTotal();
+}
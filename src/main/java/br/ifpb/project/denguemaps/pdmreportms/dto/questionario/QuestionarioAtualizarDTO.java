@@ -13,10 +13,11 @@ import java.util.UUID;
 public class QuestionarioAtualizarDTO {
     @NotBlank
     private UUID id;
-    @NotBlank
+    // Perguntas completas ou o hash de um conjunto já registrado
     private String perguntas;
     @NotBlank
     private String respostas;
     @NotBlank
     private UUID fkCidadaoId;
+    private String conjuntoPerguntasHash;
 }
@@ -11,10 +11,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 public class QuestionarioCriarDTO {
-    @NotBlank
+    // Perguntas completas ou o hash de um conjunto já registrado
     private String perguntas;
     @NotBlank
     private String respostas;
     @NotBlank
     private UUID fkCidadaoId;
+    private String conjuntoPerguntasHash;
 }
@@ -17,4 +17,5 @@ public class QuestionarioResponseDTO {
     private UUID fkCidadaoId;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedBy;
+    private String conjuntoPerguntasHash;
 }
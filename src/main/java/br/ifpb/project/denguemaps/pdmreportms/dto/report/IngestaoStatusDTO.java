@@ -0,0 +1,24 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class IngestaoStatusDTO {
+    // Aceitos e ainda não gravados no banco
+    private long pendentes;
+    private long capacidade;
+    private long gravados;
+    // Já existentes (replay) ou inválidos no momento da gravação
+    private long ignorados;
+    // Falharam repetidamente e foram para o arquivo de rejeitados
+    private long rejeitados;
+    private long tamanhoWalBytes;
+    private OffsetDateTime ultimaGravacao;
+    private String ultimoErro;
+}
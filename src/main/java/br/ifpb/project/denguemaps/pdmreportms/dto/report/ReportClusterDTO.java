@@ -0,0 +1,16 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ReportClusterDTO {
+    // Centróide dos reports agrupados
+    private double latitude;
+    private double longitude;
+    private long quantidade;
+    private String riscoPredominante;
+}
@@ -0,0 +1,21 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.report;
+
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.event.ReportAlteradoEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ReportEventoDTO {
+    private ReportAlteradoEvent.Tipo tipo;
+    private UUID reportId;
+    private UUID municipioId;
+    private Estado estado;
+    // Mesmo formato de /api/report/all; nulo na remoção
+    private ReportResponseDTO report;
+}
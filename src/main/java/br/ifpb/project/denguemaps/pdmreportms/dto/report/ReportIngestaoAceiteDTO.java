@@ -0,0 +1,19 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ReportIngestaoAceiteDTO {
+    // Id com que o report será gravado; consultável em /api/report/esp depois de gravado
+    private UUID id;
+    private OffsetDateTime recebidoEm;
+    // Reports na fila à frente deste, incluindo ele
+    private long pendentes;
+}
@@ -0,0 +1,21 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Report aceito pela ingestão assíncrona, como fica registrado no WAL:
+ * id e data definidos no aceite, antes de chegar ao banco.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ReportIngestaoDTO {
+    private UUID id;
+    private OffsetDateTime recebidoEm;
+    private ReportCriacaoDTO report;
+}
@@ -0,0 +1,17 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ReportLocalizacaoDTO {
+    private UUID id;
+    private Double latitude;
+    private Double longitude;
+    private String classificacaoRisco;
+}
@@ -0,0 +1,24 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ReportLoteResultadoDTO {
+    // Posição do item na lista enviada
+    private int indice;
+    private boolean sucesso;
+    private ReportResponseDTO report;
+    private String erro;
+
+    public static ReportLoteResultadoDTO sucesso(int indice, ReportResponseDTO report) {
+        return new ReportLoteResultadoDTO(indice, true, report, null);
+    }
+
+    public static ReportLoteResultadoDTO falha(int indice, String erro) {
+        return new ReportLoteResultadoDTO(indice, false, null, erro);
+    }
+}
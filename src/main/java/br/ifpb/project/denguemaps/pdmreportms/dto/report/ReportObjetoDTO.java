@@ -1,23 +1,27 @@
 package br.ifpb.project.denguemaps.pdmreportms.dto.report;
 
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
+import br.ifpb.project.denguemaps.pdmreportms.enums.OperadorFiltro;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.UUID;
 
+/**
+ * Filtro de busca de reports. Todos os campos são opcionais: só os informados viram critério.
+ */
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 public class ReportObjetoDTO {
-    @NotNull
     private UUID id;
-    @NotNull
     private String coordenadas;
-    @NotNull
     private String classificacaoRisco;
-    @NotNull
     private UUID fkCidadaoID;
+    // Padrão AND: o resultado atende a todos os critérios informados
+    private OperadorFiltro operador;
+
+    public ReportObjetoDTO(UUID id, String coordenadas, String classificacaoRisco, UUID fkCidadaoID) {
+        this(id, coordenadas, classificacaoRisco, fkCidadaoID, OperadorFiltro.AND);
+    }
 }
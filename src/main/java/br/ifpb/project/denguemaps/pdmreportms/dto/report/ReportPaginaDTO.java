@@ -0,0 +1,16 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ReportPaginaDTO {
+    private List<ReportResponseDTO> reports;
+    // Cursor opaco para a próxima página; nulo quando não há mais registros
+    private String proximoCursor;
+}
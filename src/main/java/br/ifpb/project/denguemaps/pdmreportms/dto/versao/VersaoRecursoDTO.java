@@ -0,0 +1,38 @@
+package br.ifpb.project.denguemaps.pdmreportms.dto.versao;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Resultado da consulta de versão (count + max(updated_by)) usada nos GET condicionais.
+ * Não carrega as entidades: serve só para montar ETag e Last-Modified.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class VersaoRecursoDTO {
+    private Long quantidade;
+    private OffsetDateTime ultimaAlteracao;
+
+    public boolean existe() {
+        return quantidade != null && quantidade > 0 && ultimaAlteracao != null;
+    }
+
+    /**
+     * ETag fraca: a quantidade cobre remoções, o maior updated_by (em microssegundos,
+     * a precisão do Postgres) cobre inserções e atualizações.
+     */
+    public String etag() {
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, ultimaAlteracao.toInstant());
+        return "W/\"" + quantidade + "-" + Long.toHexString(micros) + "\"";
+    }
+
+    public long ultimaAlteracaoMillis() {
+        return ultimaAlteracao.toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,59 @@
+package br.ifpb.project.denguemaps.pdmreportms.entity;
+
+import br.ifpb.project.denguemaps.pdmreportms.enums.StatusApagamento;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Pedido de apagamento dos dados de um cidadão e o seu andamento (V12__apagamento_cidadao.sql).
+ * Atualizado pelo ApagamentoCidadaoService a cada lote apagado.
+ */
+@Entity
+@Table(name = "apagamento_cidadao")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApagamentoCidadao {
+
+    @Id
+    @Column(name = "apagamento_id")
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "fk_cidadao_id", nullable = false)
+    private UUID cidadaoId;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private StatusApagamento status;
+
+    @Column(name = "reports_total", nullable = false)
+    private long reportsTotal;
+
+    @Column(name = "reports_apagados", nullable = false)
+    private long reportsApagados;
+
+    @Column(name = "questionarios_total", nullable = false)
+    private long questionariosTotal;
+
+    @Column(name = "questionarios_apagados", nullable = false)
+    private long questionariosApagados;
+
+    @Column(name = "iniciado_em")
+    private OffsetDateTime iniciadoEm;
+
+    @Column(name = "concluido_em")
+    private OffsetDateTime concluidoEm;
+
+    private String erro;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private OffsetDateTime atualizadoEm;
+}
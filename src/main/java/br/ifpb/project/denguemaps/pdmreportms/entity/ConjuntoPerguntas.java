@@ -0,0 +1,36 @@
+package br.ifpb.project.denguemaps.pdmreportms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Type;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Conjunto de perguntas de questionário guardado uma única vez, identificado pelo
+ * SHA-256 do JSON canônico (ver JsonCanonicoUtil). Os questionários apontam para ele
+ * em vez de repetir o jsonb completo. É gravado pelo ConjuntoPerguntasCache.
+ */
+@Entity
+@Table(name = "questionario_conjunto_perguntas")
+@Immutable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConjuntoPerguntas {
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(columnDefinition = "jsonb", nullable = false)
+    @Type(io.hypersistence.utils.hibernate.type.json.JsonType.class)
+    private String perguntas;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package br.ifpb.project.denguemaps.pdmreportms.entity;
+
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Quantidade de reports por município e classificação de risco.
+ * Mantido pelo ContadorRiscoService na mesma transação das escritas de report.
+ */
+@Entity
+@Table(name = "report_contador_risco")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContadorRisco {
+
+    @EmbeddedId
+    private ContadorRiscoId id;
+
+    @Column(nullable = false, length = 2)
+    @Enumerated(EnumType.STRING)
+    private Estado estado;
+
+    @Column(nullable = false)
+    private long quantidade;
+}
@@ -0,0 +1,27 @@
+package br.ifpb.project.denguemaps.pdmreportms.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ContadorRiscoId implements Serializable {
+
+    @Column(name = "fk_municipio_id")
+    private UUID municipioId;
+
+    @Column(name = "classificacao_risco")
+    private String classificacaoRisco;
+}
@@ -0,0 +1,39 @@
+package br.ifpb.project.denguemaps.pdmreportms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Type;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Execução de uma criação feita com Idempotency-Key (V11__idempotencia.sql).
+ * Gravada pelo IdempotenciaCache na mesma transação da criação, com a resposta devolvida.
+ */
+@Entity
+@Table(name = "idempotencia")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Idempotencia {
+
+    @EmbeddedId
+    private IdempotenciaId id;
+
+    @Column(name = "requisicao_hash", nullable = false, length = 64)
+    private String requisicaoHash;
+
+    private Integer status;
+
+    // Corpo da resposta em JSON
+    @Column(columnDefinition = "jsonb")
+    @Type(io.hypersistence.utils.hibernate.type.json.JsonType.class)
+    private String resposta;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+}
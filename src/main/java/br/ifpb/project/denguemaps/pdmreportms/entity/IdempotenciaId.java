@@ -0,0 +1,29 @@
+package br.ifpb.project.denguemaps.pdmreportms.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class IdempotenciaId implements Serializable {
+
+    @Column(name = "operacao")
+    private String operacao;
+
+    @Column(name = "usuario")
+    private String usuario;
+
+    @Column(name = "chave")
+    private String chave;
+}
@@ -6,11 +6,15 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
 @Entity
 @Table(name = "municipio")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "municipio")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -8,6 +8,8 @@ import lombok.Setter;
 import org.hibernate.annotations.Type;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -22,7 +24,8 @@ public class Questionario {
     @GeneratedValue
     private UUID id;
 
-    @Column(columnDefinition = "jsonb", nullable = false)
+    // Nulo nos questionários que referenciam um ConjuntoPerguntas
+    @Column(columnDefinition = "jsonb")
     @Type(io.hypersistence.utils.hibernate.type.json.JsonType.class)
     private String perguntas;
 
@@ -39,4 +42,18 @@ public class Questionario {
 
     @Column(name = "updated_by", nullable = false)
     private OffsetDateTime updatedBy;
+
+    // Respostas extraídas do jsonb ao salvar, para agregação no banco (QuestionarioRepository.agregarRespostas)
+    @ElementCollection
+    @CollectionTable(name = "questionario_resposta", joinColumns = @JoinColumn(name = "fk_questionario_id"))
+    @OrderColumn(name = "ordem")
+    private List<RespostaQuestionario> respostasNormalizadas = new ArrayList<>();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "fk_conjunto_perguntas_hash")
+    private ConjuntoPerguntas conjuntoPerguntas;
+
+    // Quando respostasNormalizadas foi preenchida; nulo nos antigos ainda pendentes (NormalizacaoRespostasInicial)
+    @Column(name = "normalizado_em")
+    private OffsetDateTime normalizadoEm;
 }
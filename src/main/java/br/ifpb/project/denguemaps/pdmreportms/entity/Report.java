@@ -40,4 +40,9 @@ public class Report {
 
     @Column(name = "updated_by", nullable = false)
     private OffsetDateTime updatedBy;
+
+    // Extraídas de "coordenadas" na gravação; indexadas para busca espacial (ver V1__report_localizacao.sql)
+    private Double latitude;
+
+    private Double longitude;
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package br.ifpb.project.denguemaps.pdmreportms.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Uma resposta do questionário já extraída do jsonb: chave da pergunta, texto da pergunta
+ * e resposta normalizada (sem acentos, minúscula) para agrupar "Sim"/"sim"/"SIM" juntos.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class RespostaQuestionario {
+
+    @Column(name = "pergunta_chave", nullable = false)
+    private String perguntaChave;
+
+    @Column(name = "pergunta", nullable = false)
+    private String pergunta;
+
+    @Column(name = "resposta", nullable = false)
+    private String resposta;
+}
@@ -2,6 +2,7 @@ package br.ifpb.project.denguemaps.pdmreportms.entity;
 
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
@@ -10,11 +11,15 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.UUID;
 
 @Entity
 @Table(name = "secretaria")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "secretaria")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,11 @@
+package br.ifpb.project.denguemaps.pdmreportms.enums;
+
+/**
+ * Como os critérios informados em uma busca são combinados.
+ */
+public enum OperadorFiltro {
+    // Todos os critérios devem ser atendidos
+    AND,
+    // Basta atender um dos critérios
+    OR
+}
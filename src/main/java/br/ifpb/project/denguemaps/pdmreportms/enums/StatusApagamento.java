@@ -0,0 +1,13 @@
+package br.ifpb.project.denguemaps.pdmreportms.enums;
+
+/**
+ * Situação de um pedido de apagamento dos dados de um cidadão (LGPD).
+ */
+public enum StatusApagamento {
+    // Aceito, aguardando uma thread livre
+    PENDENTE,
+    EM_ANDAMENTO,
+    CONCLUIDO,
+    // Interrompido por erro; o que já foi apagado não volta e o pedido pode ser repetido
+    FALHOU
+}
@@ -0,0 +1,74 @@
+package br.ifpb.project.denguemaps.pdmreportms.event;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.CidadaoCache;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Report;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Publicado pelo ReportService a cada escrita em report.
+ * Ouvintes com @TransactionalEventListener só o recebem depois do commit.
+ * Na remoção só o id do report e o cidadão autor são conhecidos.
+ * Nome e município do autor são resolvidos antes do commit, para os ouvintes não
+ * consultarem o banco depois dele (uma falha ali não desfaz mais a escrita).
+ */
+public record ReportAlteradoEvent(
+        Tipo tipo,
+        UUID reportId,
+        Double latitude,
+        Double longitude,
+        String classificacaoRisco,
+        UUID cidadaoId,
+        String coordenadas,
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedBy,
+        String nomeCidadao,
+        UUID municipioId,
+        Estado estado
+) {
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+
+    public static ReportAlteradoEvent criado(Report report, CidadaoCache.CidadaoResumo autor) {
+        return deReport(Tipo.CRIADO, report, autor);
+    }
+
+    public static ReportAlteradoEvent atualizado(Report report, CidadaoCache.CidadaoResumo autor) {
+        return deReport(Tipo.ATUALIZADO, report, autor);
+    }
+
+    public static ReportAlteradoEvent removido(UUID reportId, UUID cidadaoId, CidadaoCache.CidadaoResumo autor) {
+        return new ReportAlteradoEvent(Tipo.REMOVIDO, reportId, null, null, null, cidadaoId, null, null, null,
+                null, municipioId(autor), estado(autor));
+    }
+
+    private static ReportAlteradoEvent deReport(Tipo tipo, Report report, CidadaoCache.CidadaoResumo autor) {
+        return new ReportAlteradoEvent(
+                tipo,
+                report.getId(),
+                report.getLatitude(),
+                report.getLongitude(),
+                report.getClassificacaoRisco(),
+                report.getCidadao() != null ? report.getCidadao().getId() : null,
+                report.getCoordenadas(),
+                report.getCreatedAt(),
+                report.getUpdatedBy(),
+                autor != null ? autor.nome() : null,
+                municipioId(autor),
+                estado(autor)
+        );
+    }
+
+    private static UUID municipioId(CidadaoCache.CidadaoResumo autor) {
+        return autor != null ? autor.municipioId() : null;
+    }
+
+    private static Estado estado(CidadaoCache.CidadaoResumo autor) {
+        return autor != null ? autor.estado() : null;
+    }
+}
@@ -0,0 +1,166 @@
+package br.ifpb.project.denguemaps.pdmreportms.ingestao;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Write-ahead log local: um registro por linha, só com anexação no fim.
+ * O checkpoint guarda até que byte os registros já foram gravados no banco; ao reabrir,
+ * tudo depois dele é devolvido por {@link #pendentes()}. Quando todo o conteúdo está
+ * confirmado o arquivo é zerado, então ele só cresce enquanto há fila.
+ * Uma linha incompleta no fim (queda durante a escrita) é descartada ao reabrir.
+ */
+@Slf4j
+public class ArquivoWal implements Closeable {
+    public static final String NOME_ARQUIVO = "reports.wal";
+    private static final byte FIM_REGISTRO = '\n';
+
+    private final Path checkpoint;
+    private final FileChannel canal;
+    private final boolean sincronizar;
+    private long confirmado;
+
+    public record Registro(byte[] conteudo, long fim) {
+    }
+
+    /**
+     * @param sincronizar fsync a cada registro anexado: sem ele, uma queda do sistema
+     *                    operacional (não só do processo) pode perder os últimos aceites
+     */
+    public ArquivoWal(Path diretorio, boolean sincronizar) throws IOException {
+        Files.createDirectories(diretorio);
+        Path arquivo = diretorio.resolve(NOME_ARQUIVO);
+        this.checkpoint = diretorio.resolve(NOME_ARQUIVO + ".checkpoint");
+        this.sincronizar = sincronizar;
+        this.canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.confirmado = lerCheckpoint();
+        if (confirmado > canal.size()) {
+            // Checkpoint de um arquivo que já foi zerado
+            confirmado = 0;
+        }
+        descartarRegistroIncompleto();
+    }
+
+    /**
+     * Anexa um registro (sem quebras de linha) e devolve a posição do seu fim,
+     * usada depois em {@link #confirmar(long)}.
+     */
+    public synchronized long anexar(byte[] registro) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(registro.length + 1);
+        buffer.put(registro).put(FIM_REGISTRO).flip();
+        long posicao = canal.size();
+        while (buffer.hasRemaining()) {
+            posicao += canal.write(buffer, posicao);
+        }
+        if (sincronizar) {
+            canal.force(false);
+        }
+        return posicao;
+    }
+
+    // Registros anexados e ainda não confirmados, na ordem do arquivo
+    public synchronized List<Registro> pendentes() throws IOException {
+        long tamanho = canal.size();
+        List<Registro> registros = new ArrayList<>();
+        if (tamanho <= confirmado) {
+            return registros;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(tamanho - confirmado));
+        long posicao = confirmado;
+        while (buffer.hasRemaining()) {
+            int lidos = canal.read(buffer, posicao);
+            if (lidos < 0) {
+                break;
+            }
+            posicao += lidos;
+        }
+        byte[] conteudo = buffer.array();
+        int inicio = 0;
+        for (int i = 0; i < conteudo.length; i++) {
+            if (conteudo[i] == FIM_REGISTRO) {
+                if (i > inicio) {
+                    registros.add(new Registro(Arrays.copyOfRange(conteudo, inicio, i), confirmado + i + 1));
+                }
+                inicio = i + 1;
+            }
+        }
+        return registros;
+    }
+
+    /**
+     * Marca como gravado tudo até {@code fim}. Se nada mais estiver pendente, zera o arquivo.
+     */
+    public synchronized void confirmar(long fim) throws IOException {
+        if (fim <= confirmado) {
+            return;
+        }
+        confirmado = fim;
+        if (confirmado >= canal.size()) {
+            // Checkpoint antes do truncate: uma queda entre os dois só causa replay (idempotente)
+            confirmado = 0;
+            gravarCheckpoint(0);
+            canal.truncate(0);
+            return;
+        }
+        gravarCheckpoint(confirmado);
+    }
+
+    public synchronized long tamanho() throws IOException {
+        return canal.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+
+    private long lerCheckpoint() throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(checkpoint, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            log.warn("Checkpoint do WAL ilegível; todos os registros serão reprocessados");
+            return 0;
+        }
+    }
+
+    private void gravarCheckpoint(long posicao) throws IOException {
+        Path temporario = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(temporario, Long.toString(posicao), StandardCharsets.UTF_8);
+        Files.move(temporario, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void descartarRegistroIncompleto() throws IOException {
+        long tamanho = canal.size();
+        long fimValido = confirmado;
+        ByteBuffer byteLido = ByteBuffer.allocate(1);
+        // Procura a última quebra de linha depois do checkpoint
+        for (long posicao = tamanho - 1; posicao >= confirmado; posicao--) {
+            byteLido.clear();
+            canal.read(byteLido, posicao);
+            if (byteLido.get(0) == FIM_REGISTRO) {
+                fimValido = posicao + 1;
+                break;
+            }
+        }
+        if (fimValido < tamanho) {
+            log.warn("WAL com registro incompleto no fim ({} bytes); descartado", tamanho - fimValido);
+            canal.truncate(fimValido);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package br.ifpb.project.denguemaps.pdmreportms.ingestao;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.IngestaoStatusDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * DOWN enquanto a gravação da ingestão está parada (falha de disco no WAL ou nos rejeitados):
+ * nesse estado os reports aceitos não chegam ao banco e POST /api/report/ingestao responde 503.
+ */
+@Component
+@ConditionalOnProperty(name = "ingestao-report.habilitada", havingValue = "true")
+@RequiredArgsConstructor
+public class IngestaoReportHealthIndicator implements HealthIndicator {
+    private final IngestaoReportService ingestaoReportService;
+
+    @Override
+    public Health health() {
+        IngestaoStatusDTO status = ingestaoReportService.status();
+        Health.Builder saude = ingestaoReportService.falhaGravacao()
+                .map(falha -> Health.down().withDetail("falha", falha))
+                .orElseGet(Health::up);
+        return saude
+                .withDetail("pendentes", status.getPendentes())
+                .withDetail("capacidade", status.getCapacidade())
+                .build();
+    }
+}
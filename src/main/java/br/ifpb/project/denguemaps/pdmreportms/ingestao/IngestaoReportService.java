@@ -0,0 +1,327 @@
+package br.ifpb.project.denguemaps.pdmreportms.ingestao;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.IngestaoStatusDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportCriacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportIngestaoAceiteDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportIngestaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.service.ReportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingestão assíncrona de reports (POST /api/report/ingestao), ligada por
+ * {@code ingestao-report.habilitada}. O report é validado, recebe id e data, é anexado ao
+ * WAL local e a resposta sai sem esperar o banco; uma thread própria grava a fila em lotes,
+ * cada lote numa transação.
+ * O WAL só é confirmado depois do commit, então na inicialização tudo que ficou pendente
+ * (queda, deploy) é regravado. A gravação ignora ids já existentes, o que torna o replay
+ * seguro: cada report aceito chega ao banco ao menos uma vez e é gravado uma única vez.
+ * Falhas transitórias do banco seguram a fila e são tentadas de novo; um item que falha
+ * sozinho por outro motivo vai para o arquivo de rejeitados para não travar os demais.
+ * Uma falha de disco (WAL ou rejeitados) não encerra a thread: o lote é refeito com espera
+ * crescente e, enquanto isso, novos reports são recusados e o health fica DOWN.
+ */
+@Service
+@ConditionalOnProperty(name = "ingestao-report.habilitada", havingValue = "true")
+@Slf4j
+public class IngestaoReportService implements SmartLifecycle {
+    public static final String ARQUIVO_REJEITADOS = "reports.rejeitados";
+    private static final Duration ESPERA_MINIMA = Duration.ofMillis(500);
+    private static final Duration ESPERA_MAXIMA = Duration.ofSeconds(30);
+
+    private final ReportService reportService;
+    private final ObjectMapper objectMapper;
+    private final Path diretorio;
+    private final boolean sincronizar;
+    private final int capacidade;
+    private final int tamanhoLote;
+    private final Duration tempoEncerramento;
+
+    // Sem limite próprio: a capacidade é checada no aceite e o replay não pode ser recusado
+    private final BlockingQueue<Pendente> fila = new LinkedBlockingQueue<>();
+    // Anexar no WAL e entrar na fila na mesma ordem, para as confirmações seguirem o arquivo
+    private final Object lockAceite = new Object();
+    private final AtomicLong gravados = new AtomicLong();
+    private final AtomicLong ignorados = new AtomicLong();
+    private final AtomicLong rejeitados = new AtomicLong();
+    private volatile OffsetDateTime ultimaGravacao;
+    private volatile String ultimoErro;
+    // Preenchida enquanto a gravação está parada numa falha de disco
+    private volatile String falhaGravacao;
+
+    private ArquivoWal wal;
+    private Thread escritor;
+    private volatile boolean rodando;
+    private volatile boolean encerrando;
+
+    private record Pendente(ReportIngestaoDTO dto, byte[] conteudo, long fim) {
+    }
+
+    public IngestaoReportService(
+            ReportService reportService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${ingestao-report.diretorio:./dados/ingestao}") Path diretorio,
+            @Value("${ingestao-report.sincronizar:true}") boolean sincronizar,
+            @Value("${ingestao-report.capacidade:100000}") int capacidade,
+            @Value("${ingestao-report.tamanho-lote:500}") int tamanhoLote,
+            @Value("${ingestao-report.tempo-encerramento:30s}") Duration tempoEncerramento) {
+        this.reportService = reportService;
+        this.objectMapper = objectMapper;
+        this.diretorio = diretorio;
+        this.sincronizar = sincronizar;
+        this.capacidade = capacidade;
+        this.tamanhoLote = tamanhoLote;
+        this.tempoEncerramento = tempoEncerramento;
+        Gauge.builder("ingestao.report.pendentes", fila, BlockingQueue::size)
+                .description("Reports aceitos pela ingestão e ainda não gravados no banco")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Valida e aceita o report. Vazio quando a fila está cheia ou a gravação está parada
+     * por falha: o cliente deve tentar depois.
+     */
+    public Optional<ReportIngestaoAceiteDTO> enfileirar(ReportCriacaoDTO reportCriacaoDTO) {
+        if (!rodando) {
+            throw new IllegalStateException("Ingestão de reports não iniciada");
+        }
+        reportService.validarReportCriacao(reportCriacaoDTO);
+        ReportIngestaoDTO dto = new ReportIngestaoDTO(UUID.randomUUID(), OffsetDateTime.now(), reportCriacaoDTO);
+        try {
+            byte[] conteudo = objectMapper.writeValueAsBytes(dto);
+            synchronized (lockAceite) {
+                if (fila.size() >= capacidade || falhaGravacao != null) {
+                    return Optional.empty();
+                }
+                long fim = wal.anexar(conteudo);
+                fila.add(new Pendente(dto, conteudo, fim));
+                return Optional.of(new ReportIngestaoAceiteDTO(dto.getId(), dto.getRecebidoEm(), fila.size()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao registrar o report no WAL", e);
+        }
+    }
+
+    public IngestaoStatusDTO status() {
+        long tamanhoWal;
+        try {
+            tamanhoWal = wal != null ? wal.tamanho() : 0;
+        } catch (IOException e) {
+            tamanhoWal = -1;
+        }
+        return new IngestaoStatusDTO(
+                fila.size(),
+                capacidade,
+                gravados.get(),
+                ignorados.get(),
+                rejeitados.get(),
+                tamanhoWal,
+                ultimaGravacao,
+                ultimoErro
+        );
+    }
+
+    /**
+     * Motivo da gravação estar parada, vazio quando ela está funcionando.
+     */
+    public Optional<String> falhaGravacao() {
+        if (rodando && escritor != null && !escritor.isAlive()) {
+            return Optional.of("Thread de gravação da ingestão encerrada");
+        }
+        return Optional.ofNullable(falhaGravacao);
+    }
+
+    @Override
+    public void start() {
+        try {
+            wal = new ArquivoWal(diretorio, sincronizar);
+            for (ArquivoWal.Registro registro : wal.pendentes()) {
+                try {
+                    ReportIngestaoDTO dto = objectMapper.readValue(registro.conteudo(), ReportIngestaoDTO.class);
+                    fila.add(new Pendente(dto, registro.conteudo(), registro.fim()));
+                } catch (IOException e) {
+                    log.error("Registro ilegível no WAL da ingestão; movido para rejeitados", e);
+                    rejeitar(new Pendente(null, registro.conteudo(), registro.fim()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o WAL da ingestão em " + diretorio, e);
+        }
+        if (!fila.isEmpty()) {
+            log.info("Ingestão de reports: {} reports pendentes do WAL serão regravados", fila.size());
+        }
+        encerrando = false;
+        falhaGravacao = null;
+        rodando = true;
+        escritor = new Thread(this::gravarContinuamente, "ingestao-report");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Para de aceitar e espera a fila esvaziar até {@code tempo-encerramento};
+     * o que sobrar continua no WAL e é gravado na próxima inicialização.
+     */
+    @Override
+    public void stop() {
+        rodando = false;
+        encerrando = true;
+        try {
+            escritor.join(tempoEncerramento.toMillis());
+            if (escritor.isAlive()) {
+                log.warn("Ingestão de reports encerrada com {} pendentes; serão gravados na próxima inicialização", fila.size());
+                escritor.interrupt();
+                escritor.join(ESPERA_MAXIMA.toMillis());
+            }
+            wal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar o WAL da ingestão", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return rodando;
+    }
+
+    private void gravarContinuamente() {
+        List<Pendente> lote = new ArrayList<>(tamanhoLote);
+        Duration espera = ESPERA_MINIMA;
+        while (!encerrando || !fila.isEmpty() || !lote.isEmpty()) {
+            try {
+                if (lote.isEmpty()) {
+                    Pendente primeiro = fila.poll(1, TimeUnit.SECONDS);
+                    if (primeiro == null) {
+                        continue;
+                    }
+                    lote.add(primeiro);
+                    fila.drainTo(lote, tamanhoLote - 1);
+                }
+                gravarDividindo(lote);
+                wal.confirmar(lote.get(lote.size() - 1).fim());
+                lote.clear();
+                if (falhaGravacao != null) {
+                    log.info("Gravação da ingestão retomada");
+                    falhaGravacao = null;
+                }
+                espera = ESPERA_MINIMA;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                // O lote fica em mãos e é refeito: a gravação ignora ids já inseridos
+                ultimoErro = e.getMessage();
+                falhaGravacao = e.getMessage();
+                if (encerrando) {
+                    // Sem confirmar o WAL o lote é regravado na próxima inicialização
+                    log.error("Falha na gravação da ingestão durante o encerramento", e);
+                    return;
+                }
+                log.error("Falha na gravação da ingestão; nova tentativa em {}", espera, e);
+                try {
+                    Thread.sleep(espera.toMillis());
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                espera = proximaEspera(espera);
+            }
+        }
+    }
+
+    // Um item problemático só é isolado depois de dividir o lote até ele ficar sozinho
+    private void gravarDividindo(List<Pendente> lote) throws InterruptedException, IOException {
+        try {
+            gravarComRetentativa(lote);
+        } catch (RuntimeException e) {
+            ultimoErro = e.getMessage();
+            if (lote.size() == 1) {
+                log.error("Report {} da ingestão rejeitado", lote.get(0).dto().getId(), e);
+                rejeitar(lote.get(0));
+                return;
+            }
+            int meio = lote.size() / 2;
+            gravarDividindo(lote.subList(0, meio));
+            gravarDividindo(lote.subList(meio, lote.size()));
+        }
+    }
+
+    private void gravarComRetentativa(List<Pendente> lote) throws InterruptedException {
+        Duration espera = ESPERA_MINIMA;
+        while (true) {
+            try {
+                List<UUID> inseridos = reportService.gravarReportsIngeridos(
+                        lote.stream().map(Pendente::dto).toList());
+                gravados.addAndGet(inseridos.size());
+                ignorados.addAndGet(lote.size() - inseridos.size());
+                ultimaGravacao = OffsetDateTime.now();
+                return;
+            } catch (RuntimeException e) {
+                if (!transitorio(e)) {
+                    throw e;
+                }
+                ultimoErro = e.getMessage();
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                log.warn("Banco indisponível para a ingestão; nova tentativa em {}", espera);
+                Thread.sleep(espera.toMillis());
+                espera = proximaEspera(espera);
+            }
+        }
+    }
+
+    private void rejeitar(Pendente pendente) throws IOException {
+        byte[] linha = (new String(pendente.conteudo(), StandardCharsets.UTF_8) + "\n").getBytes(StandardCharsets.UTF_8);
+        Files.write(diretorio.resolve(ARQUIVO_REJEITADOS), linha,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE,
+                StandardOpenOption.SYNC);
+        rejeitados.incrementAndGet();
+    }
+
+    private static Duration proximaEspera(Duration espera) {
+        return espera.multipliedBy(2).compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera.multipliedBy(2);
+    }
+
+    private static boolean transitorio(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof TransientDataAccessException
+                    || causa instanceof RecoverableDataAccessException
+                    || causa instanceof DataAccessResourceFailureException
+                    || causa instanceof CannotCreateTransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
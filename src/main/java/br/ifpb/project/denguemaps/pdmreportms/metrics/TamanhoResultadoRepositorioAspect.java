@@ -0,0 +1,58 @@
+package br.ifpb.project.denguemaps.pdmreportms.metrics;
+
+import br.ifpb.project.denguemaps.pdmreportms.repository.MunicipioRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Distribuição do tamanho dos resultados das consultas de ReportRepository e MunicipioRepository.
+ * O tempo de cada consulta já é medido pelo Spring Data (spring.data.repository.invocations);
+ * aqui entra só a quantidade de linhas devolvidas, para separar consulta lenta de resultado grande.
+ * Streams não são medidos: o tamanho só é conhecido depois de consumidos.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TamanhoResultadoRepositorioAspect {
+    public static final String METRICA = "repositorio.resultado.tamanho";
+
+    private final MeterRegistry meterRegistry;
+
+    @AfterReturning(
+            pointcut = "execution(* *(..)) && (target(br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository)"
+                    + " || target(br.ifpb.project.denguemaps.pdmreportms.repository.MunicipioRepository))",
+            returning = "resultado")
+    public void registrarTamanho(JoinPoint joinPoint, Object resultado) {
+        int tamanho;
+        if (resultado instanceof Collection<?> colecao) {
+            tamanho = colecao.size();
+        } else if (resultado instanceof Slice<?> pagina) {
+            tamanho = pagina.getNumberOfElements();
+        } else if (resultado instanceof Optional<?> opcional) {
+            tamanho = opcional.isPresent() ? 1 : 0;
+        } else {
+            return;
+        }
+        String repositorio = joinPoint.getTarget() instanceof ReportRepository
+                ? ReportRepository.class.getSimpleName()
+                : MunicipioRepository.class.getSimpleName();
+        DistributionSummary.builder(METRICA)
+                .description("Quantidade de itens devolvidos por consulta")
+                .baseUnit("linhas")
+                .tag("repositorio", repositorio)
+                .tag("metodo", joinPoint.getSignature().getName())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(tamanho);
+    }
+}
@@ -0,0 +1,48 @@
+package br.ifpb.project.denguemaps.pdmreportms.repository;
+
+import br.ifpb.project.denguemaps.pdmreportms.entity.ApagamentoCidadao;
+import br.ifpb.project.denguemaps.pdmreportms.enums.StatusApagamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ApagamentoCidadaoRepository extends JpaRepository<ApagamentoCidadao, UUID> {
+
+    Optional<ApagamentoCidadao> findFirstByCidadaoIdAndStatusIn(UUID cidadaoId, Collection<StatusApagamento> status);
+
+    // Pedidos ativos sem avanço desde paradoAntes (a instância que os executava caiu ou reiniciou)
+    @Query("SELECT a.id FROM ApagamentoCidadao a " +
+            "WHERE a.status IN :status AND a.atualizadoEm < :paradoAntes ORDER BY a.atualizadoEm")
+    List<UUID> buscarIdsParados(
+            @Param("status") Collection<StatusApagamento> status,
+            @Param("paradoAntes") OffsetDateTime paradoAntes
+    );
+
+    // Assume um pedido parado; só uma instância consegue (1), as demais recebem 0
+    @Transactional
+    @Modifying
+    @Query("UPDATE ApagamentoCidadao a SET a.atualizadoEm = :agora " +
+            "WHERE a.id = :id AND a.status IN :status AND a.atualizadoEm < :paradoAntes")
+    int reivindicar(
+            @Param("id") UUID id,
+            @Param("status") Collection<StatusApagamento> status,
+            @Param("paradoAntes") OffsetDateTime paradoAntes,
+            @Param("agora") OffsetDateTime agora
+    );
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ApagamentoCidadao a WHERE a.status NOT IN :status AND a.atualizadoEm < :encerradoAntes")
+    int apagarEncerrados(
+            @Param("status") Collection<StatusApagamento> status,
+            @Param("encerradoAntes") OffsetDateTime encerradoAntes
+    );
+}
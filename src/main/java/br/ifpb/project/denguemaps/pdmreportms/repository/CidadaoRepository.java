@@ -1,9 +1,29 @@
 package br.ifpb.project.denguemaps.pdmreportms.repository;
 
+import br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.CidadaoMunicipioDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.CidadaoResumoDTO;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Cidadao;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface CidadaoRepository extends JpaRepository<Cidadao, UUID> {
-}
\ No newline at end of file
+
+    // Município de residência de cada cidadão (cidadãos sem endereço/município não aparecem)
+    @Query("SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.CidadaoMunicipioDTO(" +
+            "c.id, m.id, m.estado) " +
+            "FROM Cidadao c JOIN c.endereco e JOIN e.municipio m " +
+            "WHERE c.id IN :ids")
+    List<CidadaoMunicipioDTO> buscarMunicipios(@Param("ids") Collection<UUID> ids);
+
+    // Nome e município de residência de cada cidadão existente (município nulo sem endereço)
+    @Query("SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.CidadaoResumoDTO(" +
+            "c.id, c.nome, m.id, m.estado) " +
+            "FROM Cidadao c LEFT JOIN c.endereco e LEFT JOIN e.municipio m " +
+            "WHERE c.id IN :ids")
+    List<CidadaoResumoDTO> buscarResumos(@Param("ids") Collection<UUID> ids);
+}
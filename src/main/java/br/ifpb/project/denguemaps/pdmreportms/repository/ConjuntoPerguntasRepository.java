@@ -0,0 +1,20 @@
+package br.ifpb.project.denguemaps.pdmreportms.repository;
+
+import br.ifpb.project.denguemaps.pdmreportms.entity.ConjuntoPerguntas;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ConjuntoPerguntasRepository extends JpaRepository<ConjuntoPerguntas, String> {
+
+    // Idempotente: o mesmo conteúdo sempre gera o mesmo hash, então conflito significa "já existe"
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO questionario_conjunto_perguntas (hash, perguntas, created_at) " +
+            "VALUES (:hash, CAST(:perguntas AS jsonb), now()) " +
+            "ON CONFLICT (hash) DO NOTHING",
+            nativeQuery = true)
+    void inserirSeAusente(@Param("hash") String hash, @Param("perguntas") String perguntas);
+}
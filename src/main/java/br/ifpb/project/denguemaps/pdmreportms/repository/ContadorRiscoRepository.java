@@ -0,0 +1,67 @@
+package br.ifpb.project.denguemaps.pdmreportms.repository;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.DiferencaContadorProjecao;
+import br.ifpb.project.denguemaps.pdmreportms.entity.ContadorRisco;
+import br.ifpb.project.denguemaps.pdmreportms.entity.ContadorRiscoId;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ContadorRiscoRepository extends JpaRepository<ContadorRisco, ContadorRiscoId> {
+
+    // Upsert atômico: soma delta ao contador (sem deixar negativo se houver divergência)
+    @Modifying
+    @Query(value = "INSERT INTO report_contador_risco (fk_municipio_id, classificacao_risco, estado, quantidade) " +
+            "VALUES (:municipioId, :classificacaoRisco, :estado, GREATEST(:delta, 0)) " +
+            "ON CONFLICT (fk_municipio_id, classificacao_risco) " +
+            "DO UPDATE SET quantidade = GREATEST(report_contador_risco.quantidade + :delta, 0)",
+            nativeQuery = true)
+    void somar(
+            @Param("municipioId") UUID municipioId,
+            @Param("estado") String estado,
+            @Param("classificacaoRisco") String classificacaoRisco,
+            @Param("delta") long delta
+    );
+
+    @Query("SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoDTO(" +
+            "c.id.classificacaoRisco, c.quantidade) " +
+            "FROM ContadorRisco c WHERE c.id.municipioId = :municipioId AND c.quantidade > 0 " +
+            "ORDER BY c.id.classificacaoRisco")
+    List<ContagemRiscoDTO> buscarPorMunicipio(@Param("municipioId") UUID municipioId);
+
+    @Query("SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoDTO(" +
+            "c.id.classificacaoRisco, SUM(c.quantidade)) " +
+            "FROM ContadorRisco c WHERE c.estado = :estado AND c.quantidade > 0 " +
+            "GROUP BY c.id.classificacaoRisco ORDER BY c.id.classificacaoRisco")
+    List<ContagemRiscoDTO> buscarPorEstado(@Param("estado") Estado estado);
+
+    // Advisory lock da transação: só uma instância recalcula por vez; false se outra já está recalculando
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('report_contador_risco.recalculo'))", nativeQuery = true)
+    boolean tentarBloquearRecalculo();
+
+    // Contagem e contadores lidos no mesmo statement (mesmo snapshot), sem lock nos contadores
+    @Query(value = "WITH contagem AS (" +
+            "SELECT m.municipio_id, m.estado, r.classificacao_risco, COUNT(*) AS quantidade " +
+            "FROM report r " +
+            "JOIN cidadao c ON c.cidadao_id = r.fk_cidadao_id " +
+            "JOIN endereco e ON e.endereco_id = c.fk_endereco_id " +
+            "JOIN municipio m ON m.municipio_id = e.fk_municipio_id " +
+            "WHERE r.classificacao_risco IS NOT NULL " +
+            "GROUP BY m.municipio_id, m.estado, r.classificacao_risco) " +
+            "SELECT COALESCE(n.municipio_id, a.fk_municipio_id) AS \"municipioId\", " +
+            "COALESCE(n.estado, a.estado) AS \"estado\", " +
+            "COALESCE(n.classificacao_risco, a.classificacao_risco) AS \"classificacaoRisco\", " +
+            "COALESCE(n.quantidade, 0) - COALESCE(a.quantidade, 0) AS \"diferenca\" " +
+            "FROM contagem n " +
+            "FULL JOIN report_contador_risco a " +
+            "ON a.fk_municipio_id = n.municipio_id AND a.classificacao_risco = n.classificacao_risco " +
+            "WHERE COALESCE(n.quantidade, 0) <> COALESCE(a.quantidade, 0)",
+            nativeQuery = true)
+    List<DiferencaContadorProjecao> calcularDiferencas();
+}
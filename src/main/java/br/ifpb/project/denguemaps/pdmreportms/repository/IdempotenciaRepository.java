@@ -0,0 +1,54 @@
+package br.ifpb.project.denguemaps.pdmreportms.repository;
+
+import br.ifpb.project.denguemaps.pdmreportms.entity.Idempotencia;
+import br.ifpb.project.denguemaps.pdmreportms.entity.IdempotenciaId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+
+public interface IdempotenciaRepository extends JpaRepository<Idempotencia, IdempotenciaId> {
+
+    // Reserva a chave na transação atual (1) ou retorna 0 se ela já foi usada dentro da validade.
+    // Se outra transação reservou a mesma chave e ainda não terminou, espera por ela.
+    // Uma chave vencida que a limpeza ainda não apagou é reaproveitada.
+    @Modifying
+    @Query(value = "INSERT INTO idempotencia (operacao, usuario, chave, requisicao_hash, created_at) " +
+            "VALUES (:operacao, :usuario, :chave, :requisicaoHash, now()) " +
+            "ON CONFLICT (operacao, usuario, chave) DO UPDATE SET " +
+            "requisicao_hash = EXCLUDED.requisicao_hash, status = NULL, resposta = NULL, created_at = EXCLUDED.created_at " +
+            "WHERE idempotencia.created_at < :venceAntes",
+            nativeQuery = true)
+    int reservar(
+            @Param("operacao") String operacao,
+            @Param("usuario") String usuario,
+            @Param("chave") String chave,
+            @Param("requisicaoHash") String requisicaoHash,
+            @Param("venceAntes") OffsetDateTime venceAntes
+    );
+
+    @Modifying
+    @Query(value = "UPDATE idempotencia SET status = :status, resposta = CAST(:resposta AS jsonb) " +
+            "WHERE operacao = :operacao AND usuario = :usuario AND chave = :chave",
+            nativeQuery = true)
+    void registrarResposta(
+            @Param("operacao") String operacao,
+            @Param("usuario") String usuario,
+            @Param("chave") String chave,
+            @Param("status") int status,
+            @Param("resposta") String resposta
+    );
+
+    @Modifying
+    @Query(value = "DELETE FROM idempotencia WHERE created_at < :venceAntes", nativeQuery = true)
+    int apagarVencidas(@Param("venceAntes") OffsetDateTime venceAntes);
+
+    // lock_timeout da transação atual, para limitar só a espera pela reserva
+    @Query(value = "SELECT current_setting('lock_timeout')", nativeQuery = true)
+    String lockTimeoutAtual();
+
+    @Query(value = "SELECT set_config('lock_timeout', :valor, true)", nativeQuery = true)
+    String definirLockTimeout(@Param("valor") String valor);
+}
@@ -2,19 +2,30 @@ package br.ifpb.project.denguemaps.pdmreportms.repository;
 
 import br.ifpb.project.denguemaps.pdmreportms.entity.Municipio;
 import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface MunicipioRepository extends JpaRepository<Municipio, UUID> {
+    // Resultados no cache de consultas do Hibernate (ver SegundoNivelCacheConfiguration)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Municipio> findByNomeAndEstado(String nome, Estado estado);
 
     @Query(value = "SELECT * FROM municipio m WHERE m.estado = :estado AND " +
             "((:id IS NOT NULL AND m.municipio_id = :id) OR (:nome IS NOT NULL AND m.nome = :nome))",
             nativeQuery = true)
+    // Em SQL nativo o Hibernate não sabe quais tabelas a consulta lê; sem declarar, o resultado
+    // em cache não seria invalidado quando municipio mudar
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "municipio")
+    })
     Optional<Municipio> buscarPorNomeOuIdEEstado(
             @Param("nome") String nome,
             @Param("id") UUID id,
@@ -1,9 +1,16 @@
 package br.ifpb.project.denguemaps.pdmreportms.repository;
 
+import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.DistribuicaoRespostaProjecao;
+import br.ifpb.project.denguemaps.pdmreportms.dto.versao.VersaoRecursoDTO;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Questionario;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,5 +18,45 @@ import java.util.UUID;
 public interface QuestionarioRepository extends JpaRepository<Questionario, UUID> {
     public List<Questionario> findAllByCidadaoId(UUID uuid);
 
-    public void deleteAllByCidadaoId(UUID uuid);
+    // DELETE em massa num único comando (as respostas normalizadas saem pelo ON DELETE CASCADE)
+    @Modifying
+    @Query("DELETE FROM Questionario q WHERE q.cidadao.id = :cidadaoId")
+    public int deleteAllByCidadaoId(@Param("cidadaoId") UUID uuid);
+
+    public long countByCidadaoId(UUID uuid);
+
+    @Query("SELECT q.id FROM Questionario q WHERE q.cidadao.id = :cidadaoId ORDER BY q.id")
+    public List<UUID> buscarIdsPorCidadaoId(@Param("cidadaoId") UUID cidadaoId, Limit limite);
+
+    @Query("SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.versao.VersaoRecursoDTO(count(q), max(q.updatedBy)) " +
+            "FROM Questionario q WHERE q.id = :id")
+    public VersaoRecursoDTO buscarVersaoPorId(@Param("id") UUID id);
+
+    // Distribuição das respostas por pergunta no município; GROUPING SETS devolve também o subtotal por pergunta
+    @Query(value = "SELECT qr.pergunta_chave AS perguntaChave, MAX(qr.pergunta) AS pergunta, qr.resposta AS resposta, " +
+            "COUNT(*) AS quantidade, COUNT(DISTINCT q.fk_cidadao_id) AS cidadaos, GROUPING(qr.resposta) AS total " +
+            "FROM questionario_resposta qr " +
+            "JOIN questionario q ON q.questionario_id = qr.fk_questionario_id " +
+            "JOIN cidadao c ON c.cidadao_id = q.fk_cidadao_id " +
+            "JOIN endereco e ON e.endereco_id = c.fk_endereco_id " +
+            "WHERE e.fk_municipio_id = :municipioId " +
+            "AND q.created_at >= :de AND q.created_at < :ate " +
+            "GROUP BY GROUPING SETS ((qr.pergunta_chave, qr.resposta), (qr.pergunta_chave)) " +
+            "ORDER BY qr.pergunta_chave, total DESC, quantidade DESC",
+            nativeQuery = true)
+    public List<DistribuicaoRespostaProjecao> agregarRespostas(
+            @Param("municipioId") UUID municipioId,
+            @Param("de") OffsetDateTime de,
+            @Param("ate") OffsetDateTime ate
+    );
+
+    @Query("SELECT q FROM Questionario q WHERE q.conjuntoPerguntas IS NULL AND q.id > :aposId ORDER BY q.id")
+    public List<Questionario> buscarSemConjuntoPerguntas(@Param("aposId") UUID aposId, Limit limite);
+
+    @Query("SELECT q FROM Questionario q WHERE q.normalizadoEm IS NULL AND q.id > :aposId ORDER BY q.id")
+    public List<Questionario> buscarSemRespostasNormalizadas(@Param("aposId") UUID aposId, Limit limite);
+
+    // Advisory lock da transação: só uma instância normaliza questionários antigos por vez
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('questionario.normalizacao'))", nativeQuery = true)
+    public boolean tentarBloquearNormalizacao();
 }
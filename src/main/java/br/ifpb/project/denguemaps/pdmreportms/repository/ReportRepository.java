@@ -1,39 +1,205 @@
 package br.ifpb.project.denguemaps.pdmreportms.repository;
 
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoCidadaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLocalizacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportResponseDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.versao.VersaoRecursoDTO;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Report;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ReportRepository extends JpaRepository<Report, UUID> {
-    public List<Report> findByCidadao_Id(UUID uuid);
-
-    public void deleteAllByCidadaoId(UUID uuid);
-
-    @Query(value = "SELECT * FROM report r WHERE " +
-            // 1. Busca por ID
-            "(:id IS NOT NULL AND r.report_id = :id) OR " +
-            // 2. Busca por Coordenadas - FORÇAR CAST do parâmetro para jsonb
-            "(:coordenadas IS NOT NULL AND r.coordenadas = CAST(:coordenadas AS jsonb)) OR " +
-            // 3. Busca por Classificação de Risco
-            "(:classificacaoRisco IS NOT NULL AND r.classificacao_risco = :classificacaoRisco) OR " +
-            // 4. Busca por ID do Cidadão
-            "(:cidadaoId IS NOT NULL AND r.fk_cidadao_id = :cidadaoId)",
-            nativeQuery = true) // <-- ESSENCIAL: Indica que é SQL nativo
-    List<Report> findByObjetoReport(
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface ReportRepository extends JpaRepository<Report, UUID>, JpaSpecificationExecutor<Report> {
+    // Quantidade de linhas trazidas por ida ao banco no modo streaming
+    String TAMANHO_FETCH = "500";
+
+    // Projeção direto no DTO: campos do report + nome do cidadão em uma única consulta (sem N+1).
+    // O JsonType expõe coordenadas como Object para o Hibernate, que então não acha o construtor com String
+    String PROJECAO_RESPONSE = "SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportResponseDTO(" +
+            "r.id, CAST(r.coordenadas AS String), r.classificacaoRisco, c.nome, r.createdAt, r.updatedBy) " +
+            "FROM Report r LEFT JOIN r.cidadao c ";
+
+    // Limites de created_at das listagens: com os dois sempre informados o Postgres lê só as partições do período
+    String NO_PERIODO = "r.createdAt >= :de AND r.createdAt < :ate ";
+    String NO_PERIODO_SQL = "r.created_at >= :de AND r.created_at < :ate ";
+
+    // Haversine em SQL, mesmo cálculo de GeoUtil.distanciaMetros
+    String DISTANCIA_METROS_SQL = "(2 * 6371008.8 * asin(sqrt(" +
+            "power(sin(radians(r.latitude - :lat) / 2), 2) + " +
+            "cos(radians(:lat)) * cos(radians(r.latitude)) * power(sin(radians(r.longitude - :lon) / 2), 2))))";
+
+    // DELETE em massa num único comando; o derivado carregaria e apagaria report por report
+    @Modifying
+    @Query("DELETE FROM Report r WHERE r.cidadao.id = :cidadaoId")
+    public int deleteAllByCidadaoId(@Param("cidadaoId") UUID uuid);
+
+    public long countByCidadaoId(UUID uuid);
+
+    // Insert com id já atribuído (ingestão assíncrona); o conflito torna o replay do WAL idempotente.
+    // O PK da tabela particionada inclui created_at, que no replay é a mesma data do aceite.
+    @Modifying
+    @Query(value = "INSERT INTO report (report_id, coordenadas, classificacao_risco, fk_cidadao_id, " +
+            "created_at, updated_by, latitude, longitude) " +
+            "VALUES (:id, CAST(:coordenadas AS jsonb), :classificacaoRisco, :cidadaoId, :criadoEm, :criadoEm, " +
+            "CAST(:latitude AS double precision), CAST(:longitude AS double precision)) " +
+            "ON CONFLICT (report_id, created_at) DO NOTHING",
+            nativeQuery = true)
+    int inserirSeAusente(
             @Param("id") UUID id,
             @Param("coordenadas") String coordenadas,
             @Param("classificacaoRisco") String classificacaoRisco,
-            @Param("cidadaoId") UUID cidadaoId
+            @Param("cidadaoId") UUID cidadaoId,
+            @Param("criadoEm") OffsetDateTime criadoEm,
+            @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude
+    );
+
+    @Query("SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoCidadaoDTO(" +
+            "r.cidadao.id, r.classificacaoRisco, COUNT(r)) " +
+            "FROM Report r WHERE r.cidadao.id = :cidadaoId AND r.classificacaoRisco IS NOT NULL " +
+            "GROUP BY r.cidadao.id, r.classificacaoRisco")
+    List<ContagemRiscoCidadaoDTO> contarPorRiscoDoCidadao(@Param("cidadaoId") UUID cidadaoId);
+
+    @Query("SELECT r.id FROM Report r WHERE r.cidadao.id = :cidadaoId")
+    List<UUID> buscarIdsPorCidadaoId(@Param("cidadaoId") UUID cidadaoId);
+
+    // Lote para o apagamento em partes: id e risco bastam para contadores e eventos
+    @Query("SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLocalizacaoDTO(" +
+            "r.id, r.latitude, r.longitude, r.classificacaoRisco) " +
+            "FROM Report r WHERE r.cidadao.id = :cidadaoId ORDER BY r.id")
+    List<ReportLocalizacaoDTO> buscarLocalizacoesPorCidadaoId(@Param("cidadaoId") UUID cidadaoId, Limit limite);
+
+    @Query(PROJECAO_RESPONSE + "WHERE " + NO_PERIODO)
+    List<ReportResponseDTO> buscarTodosResponse(@Param("de") OffsetDateTime de, @Param("ate") OffsetDateTime ate);
+
+    // Ids vindos de uma busca no mesmo período: o filtro evita procurar cada id em todas as partições
+    @Query(PROJECAO_RESPONSE + "WHERE r.id IN :ids AND " + NO_PERIODO)
+    List<ReportResponseDTO> buscarResponsePorIds(
+            @Param("ids") Collection<UUID> ids,
+            @Param("de") OffsetDateTime de,
+            @Param("ate") OffsetDateTime ate
+    );
+
+    @Query(PROJECAO_RESPONSE + "WHERE r.id = :id")
+    List<ReportResponseDTO> buscarResponsePorId(@Param("id") UUID id);
+
+    @Query(PROJECAO_RESPONSE + "WHERE c.id = :cidadaoId AND " + NO_PERIODO)
+    List<ReportResponseDTO> buscarResponsePorCidadaoId(
+            @Param("cidadaoId") UUID cidadaoId,
+            @Param("de") OffsetDateTime de,
+            @Param("ate") OffsetDateTime ate
     );
 
-    @Query("SELECT r FROM Report r " +
-            "JOIN r.cidadao c " +      // 1. Navega de Report para Cidadao
-            "JOIN c.endereco e " +     // 2. Navega de Cidadao para Endereco (Assumindo que Cidadao tem o campo 'endereco')
-            "WHERE e.municipio.id = :municipioId") // 3. Compara o ID do Município no Endereco
-    List<Report> buscarReportsPorMunicipioId(@Param("municipioId") UUID municipioId);
+    // Consultas de versão para GET condicional: só agregados, sem carregar reports
+    @Query("SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.versao.VersaoRecursoDTO(count(r), max(r.updatedBy)) " +
+            "FROM Report r WHERE r.id = :id")
+    VersaoRecursoDTO buscarVersaoPorId(@Param("id") UUID id);
+
+    @Query("SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.versao.VersaoRecursoDTO(count(r), max(r.updatedBy)) " +
+            "FROM Report r WHERE r.cidadao.id = :cidadaoId")
+    VersaoRecursoDTO buscarVersaoPorCidadaoId(@Param("cidadaoId") UUID cidadaoId);
+
+    @Query(PROJECAO_RESPONSE +
+            "JOIN c.endereco e " +     // Navega de Cidadao para Endereco
+            "WHERE e.municipio.id = :municipioId AND " + NO_PERIODO) // Compara o ID do Município no Endereco
+    List<ReportResponseDTO> buscarResponsePorMunicipioId(
+            @Param("municipioId") UUID municipioId,
+            @Param("de") OffsetDateTime de,
+            @Param("ate") OffsetDateTime ate
+    );
+
+    // Primeira página da paginação por cursor (keyset em created_at, report_id)
+    @Query(PROJECAO_RESPONSE + "WHERE " + NO_PERIODO + "ORDER BY r.createdAt, r.id")
+    List<ReportResponseDTO> buscarPrimeiraPagina(
+            @Param("de") OffsetDateTime de,
+            @Param("ate") OffsetDateTime ate,
+            Limit limite
+    );
+
+    // Páginas seguintes: continua a partir da última chave (created_at, report_id) entregue.
+    // A chave entra também como limite inferior simples para as partições anteriores serem descartadas.
+    @Query(PROJECAO_RESPONSE +
+            "WHERE r.createdAt >= :createdAt AND r.createdAt >= :de AND r.createdAt < :ate " +
+            "AND (r.createdAt > :createdAt OR r.id > :id) " +
+            "ORDER BY r.createdAt, r.id")
+    List<ReportResponseDTO> buscarPaginaApos(
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") UUID id,
+            @Param("de") OffsetDateTime de,
+            @Param("ate") OffsetDateTime ate,
+            Limit limite
+    );
+
+    // Busca espacial: usa o índice GiST idx_report_localizacao sobre point(longitude, latitude)
+    @Query(value = "SELECT r.report_id FROM report r " +
+            "WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL " +
+            "AND point(r.longitude, r.latitude) <@ box(point(:minLon, :minLat), point(:maxLon, :maxLat)) " +
+            "AND " + NO_PERIODO_SQL +
+            "LIMIT :limite",
+            nativeQuery = true)
+    List<UUID> buscarIdsNaCaixa(
+            @Param("minLat") double minLat,
+            @Param("minLon") double minLon,
+            @Param("maxLat") double maxLat,
+            @Param("maxLon") double maxLon,
+            @Param("de") OffsetDateTime de,
+            @Param("ate") OffsetDateTime ate,
+            @Param("limite") int limite
+    );
+
+    // Pré-filtra pela caixa envolvente (indexada) e só então aplica a distância haversine exata
+    @Query(value = "SELECT r.report_id FROM report r " +
+            "WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL " +
+            "AND point(r.longitude, r.latitude) <@ box(point(:minLon, :minLat), point(:maxLon, :maxLat)) " +
+            "AND " + DISTANCIA_METROS_SQL + " <= :metros " +
+            "AND " + NO_PERIODO_SQL +
+            "ORDER BY " + DISTANCIA_METROS_SQL + " " +
+            "LIMIT :limite",
+            nativeQuery = true)
+    List<UUID> buscarIdsNoRaio(
+            @Param("lat") double lat,
+            @Param("lon") double lon,
+            @Param("metros") double metros,
+            @Param("minLat") double minLat,
+            @Param("minLon") double minLon,
+            @Param("maxLat") double maxLat,
+            @Param("maxLon") double maxLon,
+            @Param("de") OffsetDateTime de,
+            @Param("ate") OffsetDateTime ate,
+            @Param("limite") int limite
+    );
+
+    // Leitura forward-only para o modo NDJSON; deve ser consumido dentro de uma transação e fechado.
+    // Como são DTOs, nada fica retido no contexto de persistência durante a leitura.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = TAMANHO_FETCH))
+    @Query(PROJECAO_RESPONSE + "WHERE " + NO_PERIODO + "ORDER BY r.createdAt, r.id")
+    Stream<ReportResponseDTO> transmitirTodos(@Param("de") OffsetDateTime de, @Param("ate") OffsetDateTime ate);
+
+    // Carga inicial do índice de clusters: só o necessário para posicionar cada report
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = TAMANHO_FETCH))
+    @Query("SELECT new br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLocalizacaoDTO(" +
+            "r.id, r.latitude, r.longitude, r.classificacaoRisco) " +
+            "FROM Report r WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    Stream<ReportLocalizacaoDTO> transmitirLocalizacoes();
+
+    // Manutenção das partições mensais (funções de V7__report_particionado.sql)
+    @Query(value = "SELECT report_criar_particoes(:inicio, :meses)", nativeQuery = true)
+    int criarParticoes(@Param("inicio") OffsetDateTime inicio, @Param("meses") int meses);
+
+    @Query(value = "SELECT report_desanexar_particoes(:limite)", nativeQuery = true)
+    int desanexarParticoes(@Param("limite") OffsetDateTime limite);
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package br.ifpb.project.denguemaps.pdmreportms.repository.specification;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportObjetoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Report;
+import br.ifpb.project.denguemaps.pdmreportms.enums.OperadorFiltro;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ReportSpecification {
+
+    private ReportSpecification() {
+    }
+
+    /**
+     * Monta a consulta só com os critérios informados no filtro, combinados com AND (padrão) ou OR.
+     * Cada critério é uma igualdade simples em coluna indexada (ver V2__report_indices_busca.sql).
+     * Sem critérios, todos os reports são retornados (paginados).
+     */
+    public static Specification<Report> porFiltro(ReportObjetoDTO filtro) {
+        return (root, query, cb) -> {
+            // Na consulta de dados traz o cidadão junto; na de contagem (Page) o fetch não é permitido
+            Class<?> tipoResultado = query.getResultType();
+            if (tipoResultado != Long.class && tipoResultado != long.class) {
+                root.fetch("cidadao", JoinType.LEFT);
+            }
+
+            List<Predicate> predicados = new ArrayList<>();
+            if (filtro.getId() != null) {
+                predicados.add(cb.equal(root.get("id"), filtro.getId()));
+            }
+            if (filtro.getCoordenadas() != null && !filtro.getCoordenadas().isBlank()) {
+                // Comparação jsonb = jsonb, o parâmetro é tipado pelo JsonType do atributo
+                predicados.add(cb.equal(root.get("coordenadas"), filtro.getCoordenadas()));
+            }
+            if (filtro.getClassificacaoRisco() != null && !filtro.getClassificacaoRisco().isBlank()) {
+                predicados.add(cb.equal(root.get("classificacaoRisco"), filtro.getClassificacaoRisco()));
+            }
+            if (filtro.getFkCidadaoID() != null) {
+                // Compara a FK direto, sem join
+                predicados.add(cb.equal(root.get("cidadao").get("id"), filtro.getFkCidadaoID()));
+            }
+
+            if (predicados.isEmpty()) {
+                return null;
+            }
+            Predicate[] criterios = predicados.toArray(new Predicate[0]);
+            return filtro.getOperador() == OperadorFiltro.OR ? cb.or(criterios) : cb.and(criterios);
+        };
+    }
+
+    /**
+     * created_at no intervalo [inicio, fim). Combinado com AND ao filtro, mesmo no modo OR,
+     * para a consulta ficar restrita às partições do período.
+     */
+    public static Specification<Report> noPeriodo(OffsetDateTime inicio, OffsetDateTime fim) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("createdAt"), inicio),
+                cb.lessThan(root.get("createdAt"), fim)
+        );
+    }
+}
@@ -0,0 +1,91 @@
+package br.ifpb.project.denguemaps.pdmreportms.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decoder JWT com cache do JWK set do Keycloak.
+ * As chaves ficam em cache pelo TTL configurado e são renovadas em segundo plano antes de vencer,
+ * então a rotação de chaves não bloqueia requisições. Se o issuer ficar fora do ar, o último
+ * JWK set válido continua em uso pela tolerância configurada e, por fim, cai para o arquivo
+ * local de chaves (jwt.jwk.arquivo-local), quando informado.
+ */
+@Configuration
+@Slf4j
+public class JwtDecoderConfiguration {
+
+    @Bean
+    public JwtDecoder jwtDecoder(
+            OAuth2ResourceServerProperties propriedades,
+            @Value("${jwt.jwk.cache.ttl:15m}") Duration ttl,
+            @Value("${jwt.jwk.cache.timeout-atualizacao:15s}") Duration timeoutAtualizacao,
+            @Value("${jwt.jwk.cache.antecedencia-atualizacao:30s}") Duration antecedenciaAtualizacao,
+            @Value("${jwt.jwk.cache.tolerancia-indisponibilidade:4h}") Duration toleranciaIndisponibilidade,
+            @Value("${jwt.jwk.arquivo-local:}") Resource arquivoLocal) throws IOException, ParseException {
+        OAuth2ResourceServerProperties.Jwt jwt = propriedades.getJwt();
+        if (!StringUtils.hasText(jwt.getJwkSetUri())) {
+            throw new IllegalStateException("spring.security.oauth2.resourceserver.jwt.jwk-set-uri não configurado");
+        }
+
+        JWKSourceBuilder<SecurityContext> construtor = JWKSourceBuilder
+                .<SecurityContext>create(URI.create(jwt.getJwkSetUri()).toURL())
+                .cache(ttl.toMillis(), timeoutAtualizacao.toMillis())
+                .refreshAheadCache(antecedenciaAtualizacao.toMillis(), true)
+                .outageTolerant(toleranciaIndisponibilidade.toMillis())
+                .retrying(true);
+        JWKSource<SecurityContext> chavesLocais = carregarChavesLocais(arquivoLocal);
+        if (chavesLocais != null) {
+            construtor.failover(chavesLocais);
+        }
+
+        Set<JWSAlgorithm> algoritmos = jwt.getJwsAlgorithms().stream()
+                .map(JWSAlgorithm::parse)
+                .collect(Collectors.toSet());
+        DefaultJWTProcessor<SecurityContext> processador = new DefaultJWTProcessor<>();
+        processador.setJWSKeySelector(new JWSVerificationKeySelector<>(algoritmos, construtor.build()));
+        // As claims são validadas pelo Spring (JwtValidators), não pelo Nimbus
+        processador.setJWTClaimsSetVerifier((claims, contexto) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processador);
+        decoder.setJwtValidator(StringUtils.hasText(jwt.getIssuerUri())
+                ? JwtValidators.createDefaultWithIssuer(jwt.getIssuerUri())
+                : JwtValidators.createDefault());
+        return decoder;
+    }
+
+    private JWKSource<SecurityContext> carregarChavesLocais(Resource arquivoLocal) throws IOException, ParseException {
+        if (arquivoLocal == null || !arquivoLocal.exists()) {
+            return null;
+        }
+        try (InputStream entrada = arquivoLocal.getInputStream()) {
+            JWKSet chaves = JWKSet.load(entrada);
+            log.info("JWK set local carregado com {} chaves como reserva do issuer", chaves.size());
+            return new ImmutableJWKSet<>(chaves);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package br.ifpb.project.denguemaps.pdmreportms.security;
 
 import br.ifpb.project.denguemaps.pdmreportms.security.converter.KeycloakRealmRoleConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -13,6 +14,9 @@ import org.springframework.security.web.SecurityFilterChain;
 @Configuration
 public class SecurityConfiguration {
 
+    @Value("${jwt.autoridades.cache.tamanho-maximo:" + KeycloakRealmRoleConverter.TAMANHO_CACHE_PADRAO + "}")
+    private long tamanhoCacheAutoridades;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -31,7 +35,7 @@ public class SecurityConfiguration {
 
     private JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter());
+        converter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter(tamanhoCacheAutoridades));
         return converter;
     }
 
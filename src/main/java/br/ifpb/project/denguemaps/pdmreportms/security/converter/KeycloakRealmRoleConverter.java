@@ -1,20 +1,81 @@
 package br.ifpb.project.denguemaps.pdmreportms.security.converter;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Converte as roles do Keycloak (realm_access e resource_access) em authorities "ROLE_*".
+ * O mesmo token chega em várias requisições até expirar, então o resultado fica em cache
+ * pelo jti (ou pelo próprio token, se não houver jti) até o exp do token.
+ * As authorities são internadas: cada role vira uma única instância compartilhada.
+ */
 public class KeycloakRealmRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+    public static final long TAMANHO_CACHE_PADRAO = 10_000;
+    // Roles distintas no realm são poucas; o limite só protege contra crescimento indevido
+    private static final long LIMITE_AUTORIDADES_INTERNADAS = 1_000;
+
+    private final Cache<String, AutoridadesToken> autoridadesPorToken;
+    private final Cache<String, GrantedAuthority> autoridadesInternadas = Caffeine.newBuilder()
+            .maximumSize(LIMITE_AUTORIDADES_INTERNADAS)
+            .build();
+
+    private record AutoridadesToken(Set<GrantedAuthority> autoridades, Instant expiraEm) {
+    }
+
+    public KeycloakRealmRoleConverter() {
+        this(TAMANHO_CACHE_PADRAO);
+    }
+
+    public KeycloakRealmRoleConverter(long tamanhoMaximoCache) {
+        this.autoridadesPorToken = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfter(new Expiry<String, AutoridadesToken>() {
+                    @Override
+                    public long expireAfterCreate(String chave, AutoridadesToken valor, long agora) {
+                        return Math.max(0, Duration.between(Instant.now(), valor.expiraEm()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String chave, AutoridadesToken valor, long agora, long duracaoAtual) {
+                        return expireAfterCreate(chave, valor, agora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String chave, AutoridadesToken valor, long agora, long duracaoAtual) {
+                        return duracaoAtual;
+                    }
+                })
+                .build();
+    }
 
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
+        Instant expiraEm = jwt.getExpiresAt();
+        if (expiraEm == null) {
+            // Sem exp não há quando invalidar: converte sem guardar
+            return extrairAutoridades(jwt);
+        }
+        String chave = jwt.getId() != null ? jwt.getId() : jwt.getTokenValue();
+        return autoridadesPorToken
+                .get(chave, c -> new AutoridadesToken(extrairAutoridades(jwt), expiraEm))
+                .autoridades();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<GrantedAuthority> extrairAutoridades(Jwt jwt) {
         Set<String> roles = new HashSet<>();
 
         Map<String, Object> realmAccess = jwt.getClaim("realm_access");
@@ -33,8 +94,7 @@ public class KeycloakRealmRoleConverter implements Converter<Jwt, Collection<Gra
         }
 
         return roles.stream()
-                .map(role -> "ROLE_" + role)
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toSet());
+                .map(role -> autoridadesInternadas.get(role, r -> new SimpleGrantedAuthority("ROLE_" + r)))
+                .collect(Collectors.toUnmodifiableSet());
     }
 }
@@ -0,0 +1,214 @@
+package br.ifpb.project.denguemaps.pdmreportms.service;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.CidadaoCache;
+import br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.ApagamentoCidadaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.entity.ApagamentoCidadao;
+import br.ifpb.project.denguemaps.pdmreportms.enums.StatusApagamento;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ApagamentoCidadaoRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Apagamento assíncrono dos reports e questionários de um cidadão (pedidos LGPD).
+ * Os dados saem em lotes de {@code apagamento-cidadao.tamanho-lote}, cada um em transação
+ * própria, para não segurar locks nem carregar milhares de entidades de uma vez.
+ * O pedido e o andamento ficam na tabela apagamento_cidadao (V12__apagamento_cidadao.sql),
+ * gravados a cada lote: a consulta funciona em qualquer instância, e um pedido que parou de avançar
+ * (instância caiu ou reiniciou) por mais que {@code apagamento-cidadao.retomar-apos} é retomado
+ * de onde parou por uma instância. Pedidos repetidos para um cidadão com apagamento ativo devolvem
+ * o mesmo pedido; os encerrados somem {@code apagamento-cidadao.retencao} após o término.
+ */
+@Service
+@Timed("servico.metodo")
+@Slf4j
+public class ApagamentoCidadaoService {
+    private static final List<StatusApagamento> ATIVOS = List.of(StatusApagamento.PENDENTE, StatusApagamento.EM_ANDAMENTO);
+
+    private final ApagamentoCidadaoRepository apagamentoCidadaoRepository;
+    private final ReportService reportService;
+    private final QuestionarioService questionarioService;
+    private final CidadaoCache cidadaoCache;
+    private final TaskExecutor taskExecutor;
+    private final int tamanhoLote;
+    private final Duration retencao;
+    private final Duration retomarApos;
+
+    public ApagamentoCidadaoService(
+            ApagamentoCidadaoRepository apagamentoCidadaoRepository,
+            ReportService reportService,
+            QuestionarioService questionarioService,
+            CidadaoCache cidadaoCache,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${apagamento-cidadao.tamanho-lote:500}") int tamanhoLote,
+            @Value("${apagamento-cidadao.retencao:24h}") Duration retencao,
+            @Value("${apagamento-cidadao.retomar-apos:10m}") Duration retomarApos) {
+        this.apagamentoCidadaoRepository = apagamentoCidadaoRepository;
+        this.reportService = reportService;
+        this.questionarioService = questionarioService;
+        this.cidadaoCache = cidadaoCache;
+        this.taskExecutor = taskExecutor;
+        this.tamanhoLote = tamanhoLote;
+        this.retencao = retencao;
+        this.retomarApos = retomarApos;
+    }
+
+    public ApagamentoCidadaoDTO solicitar(UUID cidadaoId) {
+        if (cidadaoId == null) {
+            throw new IllegalArgumentException("O ID do cidadão deve ser fornecido.");
+        }
+        Optional<ApagamentoCidadao> ativo = apagamentoCidadaoRepository.findFirstByCidadaoIdAndStatusIn(cidadaoId, ATIVOS);
+        if (ativo.isPresent()) {
+            return paraDTO(ativo.get());
+        }
+        ApagamentoCidadao novo = new ApagamentoCidadao();
+        novo.setCidadaoId(cidadaoId);
+        novo.setStatus(StatusApagamento.PENDENTE);
+        novo.setAtualizadoEm(OffsetDateTime.now());
+        try {
+            novo = apagamentoCidadaoRepository.saveAndFlush(novo);
+        } catch (DataIntegrityViolationException e) {
+            // Outro pedido para o mesmo cidadão foi aceito ao mesmo tempo (uk_apagamento_cidadao_ativo)
+            return apagamentoCidadaoRepository.findFirstByCidadaoIdAndStatusIn(cidadaoId, ATIVOS)
+                    .map(this::paraDTO)
+                    .orElseThrow(() -> e);
+        }
+        log.info("Apagamento {} dos dados do cidadão {} aceito", novo.getId(), cidadaoId);
+        // Lido antes de a tarefa começar a alterar a entidade em outra thread
+        ApagamentoCidadaoDTO aceito = paraDTO(novo);
+        ApagamentoCidadao apagamento = novo;
+        try {
+            taskExecutor.execute(() -> executar(apagamento));
+        } catch (RejectedExecutionException e) {
+            falhar(apagamento, "Sem capacidade para iniciar o apagamento agora; tente novamente.");
+            return paraDTO(apagamento);
+        }
+        return aceito;
+    }
+
+    public ApagamentoCidadaoDTO buscar(UUID id) {
+        return Optional.ofNullable(id)
+                .flatMap(apagamentoCidadaoRepository::findById)
+                .map(this::paraDTO)
+                .orElseThrow(() -> new IllegalArgumentException("Apagamento não encontrado"));
+    }
+
+    /**
+     * Retoma os pedidos ativos que pararam de avançar. Cada um é assumido por uma única instância
+     * (update condicional em atualizado_em); os lotes já apagados não se repetem.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${apagamento-cidadao.intervalo-retomada:1m}",
+            initialDelayString = "${apagamento-cidadao.intervalo-retomada:1m}")
+    public void retomarParados() {
+        try {
+            OffsetDateTime paradoAntes = OffsetDateTime.now().minus(retomarApos);
+            for (UUID id : apagamentoCidadaoRepository.buscarIdsParados(ATIVOS, paradoAntes)) {
+                if (apagamentoCidadaoRepository.reivindicar(id, ATIVOS, paradoAntes, OffsetDateTime.now()) == 0) {
+                    // Outra instância assumiu antes
+                    continue;
+                }
+                apagamentoCidadaoRepository.findById(id).ifPresent(apagamento -> {
+                    log.info("Apagamento {} do cidadão {} retomado", id, apagamento.getCidadaoId());
+                    try {
+                        taskExecutor.execute(() -> executar(apagamento));
+                    } catch (RejectedExecutionException e) {
+                        // Continua parado e volta a ser assumido depois de retomar-apos
+                        log.warn("Apagamento {} não retomado: executor sem capacidade", id);
+                    }
+                });
+            }
+        } catch (DataAccessException e) {
+            // Não derruba a subida; tenta de novo no próximo intervalo
+            log.warn("Falha ao procurar apagamentos parados: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${apagamento-cidadao.intervalo-limpeza:1h}",
+            initialDelayString = "${apagamento-cidadao.intervalo-limpeza:1h}")
+    public void apagarEncerrados() {
+        int apagados = apagamentoCidadaoRepository.apagarEncerrados(ATIVOS, OffsetDateTime.now().minus(retencao));
+        if (apagados > 0) {
+            log.info("Pedidos de apagamento encerrados removidos: {}", apagados);
+        }
+    }
+
+    private void executar(ApagamentoCidadao apagamento) {
+        UUID cidadaoId = apagamento.getCidadaoId();
+        try {
+            if (apagamento.getStatus() == StatusApagamento.PENDENTE) {
+                apagamento.setReportsTotal(reportService.contarReportsCidadao(cidadaoId));
+                apagamento.setQuestionariosTotal(questionarioService.contarQuestionariosCidadao(cidadaoId));
+                apagamento.setIniciadoEm(OffsetDateTime.now());
+                apagamento.setStatus(StatusApagamento.EM_ANDAMENTO);
+                gravar(apagamento);
+            }
+            int apagados;
+            while ((apagados = reportService.apagarLoteReportsCidadao(cidadaoId, tamanhoLote)) > 0) {
+                apagamento.setReportsApagados(apagamento.getReportsApagados() + apagados);
+                gravar(apagamento);
+            }
+            while ((apagados = questionarioService.apagarLoteQuestionariosCidadao(cidadaoId, tamanhoLote)) > 0) {
+                apagamento.setQuestionariosApagados(apagamento.getQuestionariosApagados() + apagados);
+                gravar(apagamento);
+            }
+            cidadaoCache.invalidar(cidadaoId);
+            apagamento.setConcluidoEm(OffsetDateTime.now());
+            apagamento.setStatus(StatusApagamento.CONCLUIDO);
+            gravar(apagamento);
+            log.info("Apagamento {}: dados do cidadão {} apagados, {} reports e {} questionários",
+                    apagamento.getId(), cidadaoId, apagamento.getReportsApagados(), apagamento.getQuestionariosApagados());
+        } catch (RuntimeException e) {
+            log.error("Apagamento {}: falha ao apagar os dados do cidadão {}", apagamento.getId(), cidadaoId, e);
+            falhar(apagamento, e.getMessage());
+        }
+    }
+
+    private void falhar(ApagamentoCidadao apagamento, String erro) {
+        apagamento.setErro(erro);
+        apagamento.setConcluidoEm(OffsetDateTime.now());
+        apagamento.setStatus(StatusApagamento.FALHOU);
+        try {
+            gravar(apagamento);
+        } catch (DataAccessException e) {
+            // Sem banco o pedido segue ativo e parado, e é retomado depois de retomar-apos
+            log.warn("Apagamento {}: falha não registrada: {}", apagamento.getId(), e.getMessage());
+        }
+    }
+
+    // Cada gravação também marca o pedido como vivo para as outras instâncias
+    private void gravar(ApagamentoCidadao apagamento) {
+        apagamento.setAtualizadoEm(OffsetDateTime.now());
+        apagamentoCidadaoRepository.save(apagamento);
+    }
+
+    private ApagamentoCidadaoDTO paraDTO(ApagamentoCidadao apagamento) {
+        return new ApagamentoCidadaoDTO(
+                apagamento.getId(),
+                apagamento.getCidadaoId(),
+                apagamento.getStatus(),
+                apagamento.getReportsTotal(),
+                apagamento.getReportsApagados(),
+                apagamento.getQuestionariosTotal(),
+                apagamento.getQuestionariosApagados(),
+                apagamento.getIniciadoEm(),
+                apagamento.getConcluidoEm(),
+                apagamento.getErro()
+        );
+    }
+}
@@ -0,0 +1,301 @@
+package br.ifpb.project.denguemaps.pdmreportms.service;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportClusterDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLocalizacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.event.ReportAlteradoEvent;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository;
+import br.ifpb.project.denguemaps.pdmreportms.util.GeoUtil;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória de clusters de reports por nível de zoom.
+ * Cada nível é uma grade Web Mercator; cada célula guarda contagem, soma das coordenadas
+ * (para o centróide) e contagem por classificação de risco. O índice é carregado na
+ * inicialização e atualizado incrementalmente pelos eventos de alteração de report.
+ * Cada instância tem o seu índice e só vê os eventos das próprias escritas: reports gravados
+ * por outras instâncias ou pela ingestão e partições desanexadas só entram na reconstrução
+ * periódica (cluster-report.intervalo-reconstrucao), que é o atraso máximo entre instâncias.
+ * A reconstrução lê o banco sem lock e só troca o índice no fim; durante a leitura as
+ * consultas seguem no índice antigo e a memória do índice fica dobrada.
+ */
+@Service
+@Timed("servico.metodo")
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterReportService {
+    public static final int ZOOM_MAXIMO = 16;
+    // Cada tile de 256px é dividido em 4x4 células (~64px por cluster na tela)
+    private static final int SUBDIVISAO_TILE = 2;
+    private static final double LATITUDE_MAXIMA_MERCATOR = 85.05112878;
+
+    private final ReportRepository reportRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+    // Protegidos pelo lock
+    private Indice indice = new Indice();
+    // Eventos recebidos enquanto o índice novo é lido do banco; nulo fora da reconstrução
+    private List<ReportAlteradoEvent> recebidosNaReconstrucao;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${cluster-report.intervalo-reconstrucao:10m}",
+            initialDelayString = "${cluster-report.intervalo-reconstrucao:10m}")
+    @Transactional(readOnly = true)
+    public void carregarIndice() {
+        if (!reconstrucao.tryLock()) {
+            // Já há uma reconstrução em andamento
+            return;
+        }
+        try {
+            lock.writeLock().lock();
+            try {
+                recebidosNaReconstrucao = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Indice novo = new Indice();
+            try (Stream<ReportLocalizacaoDTO> localizacoes = reportRepository.transmitirLocalizacoes()) {
+                localizacoes.forEach(novo::adicionar);
+            } catch (RuntimeException e) {
+                descartarReconstrucao();
+                throw e;
+            }
+            trocarIndice(novo);
+            log.info("Índice de clusters carregado com {} reports", novo.pontos.size());
+        } finally {
+            reconstrucao.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarReport(ReportAlteradoEvent evento) {
+        lock.writeLock().lock();
+        try {
+            indice.aplicar(evento);
+            if (recebidosNaReconstrucao != null) {
+                recebidosNaReconstrucao.add(evento);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clusters visíveis na caixa para o zoom informado.
+     * Zooms acima de {@link #ZOOM_MAXIMO} usam a grade mais fina disponível.
+     */
+    public List<ReportClusterDTO> buscarClusters(
+            int zoom,
+            double minLatitude, double minLongitude,
+            double maxLatitude, double maxLongitude) {
+        if (zoom < 0) {
+            throw new IllegalArgumentException("O zoom não pode ser negativo.");
+        }
+        if (!GeoUtil.latitudeValida(minLatitude) || !GeoUtil.latitudeValida(maxLatitude)
+                || !GeoUtil.longitudeValida(minLongitude) || !GeoUtil.longitudeValida(maxLongitude)) {
+            throw new IllegalArgumentException("Coordenadas da caixa fora do intervalo válido.");
+        }
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("O canto mínimo da caixa deve ser menor que o máximo.");
+        }
+        int nivel = Math.min(zoom, ZOOM_MAXIMO);
+        int xMin = celulaX(minLongitude, nivel);
+        int xMax = celulaX(maxLongitude, nivel);
+        // No Mercator o y cresce para o sul
+        int yMin = celulaY(maxLatitude, nivel);
+        int yMax = celulaY(minLatitude, nivel);
+
+        List<ReportClusterDTO> clusters = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Celula> celulas = indice.niveis.get(nivel);
+            long celulasNaCaixa = (long) (xMax - xMin + 1) * (yMax - yMin + 1);
+            if (celulasNaCaixa > celulas.size()) {
+                // Caixa maior que o conteúdo do nível: mais barato percorrer as células ocupadas
+                celulas.forEach((chave, celula) -> {
+                    int x = (int) (chave >>> 32);
+                    int y = chave.intValue();
+                    if (x >= xMin && x <= xMax && y >= yMin && y <= yMax) {
+                        clusters.add(celula.paraDTO());
+                    }
+                });
+            } else {
+                for (int x = xMin; x <= xMax; x++) {
+                    for (int y = yMin; y <= yMax; y++) {
+                        Celula celula = celulas.get(chave(x, y));
+                        if (celula != null) {
+                            clusters.add(celula.paraDTO());
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return clusters;
+    }
+
+    /**
+     * Reaplica no índice novo os eventos recebidos durante a leitura (remover e adicionar pelo
+     * id dá o mesmo resultado se o banco já os refletia) e o coloca no lugar do atual.
+     * Só é chamado com a leitura completa; um índice parcial nunca substitui o atual.
+     */
+    private void trocarIndice(Indice novo) {
+        lock.writeLock().lock();
+        try {
+            recebidosNaReconstrucao.forEach(novo::aplicar);
+            indice = novo;
+            recebidosNaReconstrucao = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Falha na leitura: o índice atual continua valendo (já recebeu os eventos diretamente)
+     * e os eventos guardados para a reconstrução são descartados.
+     */
+    private void descartarReconstrucao() {
+        lock.writeLock().lock();
+        try {
+            recebidosNaReconstrucao = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int celulaX(double longitude, int nivel) {
+        int n = 1 << (nivel + SUBDIVISAO_TILE);
+        double lon = Math.max(-180, Math.min(180, longitude));
+        return Math.min((int) Math.floor((lon + 180) / 360 * n), n - 1);
+    }
+
+    private static int celulaY(double latitude, int nivel) {
+        int n = 1 << (nivel + SUBDIVISAO_TILE);
+        double lat = Math.toRadians(Math.max(-LATITUDE_MAXIMA_MERCATOR, Math.min(LATITUDE_MAXIMA_MERCATOR, latitude)));
+        double y = (1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2 * n;
+        return Math.max(0, Math.min((int) Math.floor(y), n - 1));
+    }
+
+    private static long chave(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    // Não é thread-safe: o índice em uso só é alterado com o write lock do serviço
+    private static final class Indice {
+        private final Map<UUID, Ponto> pontos = new HashMap<>();
+        private final List<Map<Long, Celula>> niveis = new ArrayList<>(ZOOM_MAXIMO + 1);
+
+        Indice() {
+            for (int nivel = 0; nivel <= ZOOM_MAXIMO; nivel++) {
+                niveis.add(new HashMap<>());
+            }
+        }
+
+        void aplicar(ReportAlteradoEvent evento) {
+            remover(evento.reportId());
+            if (evento.tipo() != ReportAlteradoEvent.Tipo.REMOVIDO) {
+                adicionar(evento.reportId(), evento.latitude(), evento.longitude(), evento.classificacaoRisco());
+            }
+        }
+
+        void adicionar(ReportLocalizacaoDTO localizacao) {
+            adicionar(localizacao.getId(), localizacao.getLatitude(), localizacao.getLongitude(),
+                    localizacao.getClassificacaoRisco());
+        }
+
+        void adicionar(UUID id, Double latitude, Double longitude, String risco) {
+            if (latitude == null || longitude == null) {
+                return;
+            }
+            Ponto ponto = new Ponto(latitude, longitude, risco);
+            pontos.put(id, ponto);
+            for (int nivel = 0; nivel <= ZOOM_MAXIMO; nivel++) {
+                niveis.get(nivel)
+                        .computeIfAbsent(chave(celulaX(longitude, nivel), celulaY(latitude, nivel)), c -> new Celula())
+                        .adicionar(ponto);
+            }
+        }
+
+        void remover(UUID id) {
+            Ponto ponto = pontos.remove(id);
+            if (ponto == null) {
+                return;
+            }
+            for (int nivel = 0; nivel <= ZOOM_MAXIMO; nivel++) {
+                long chave = chave(celulaX(ponto.longitude(), nivel), celulaY(ponto.latitude(), nivel));
+                Map<Long, Celula> celulas = niveis.get(nivel);
+                Celula celula = celulas.get(chave);
+                if (celula != null && celula.remover(ponto)) {
+                    celulas.remove(chave);
+                }
+            }
+        }
+    }
+
+    private record Ponto(double latitude, double longitude, String risco) {
+    }
+
+    private static final class Celula {
+        private long quantidade;
+        private double somaLatitude;
+        private double somaLongitude;
+        private final Map<String, Long> porRisco = new HashMap<>();
+
+        void adicionar(Ponto ponto) {
+            quantidade++;
+            somaLatitude += ponto.latitude();
+            somaLongitude += ponto.longitude();
+            if (ponto.risco() != null) {
+                porRisco.merge(ponto.risco(), 1L, Long::sum);
+            }
+        }
+
+        // Retorna true quando a célula ficou vazia
+        boolean remover(Ponto ponto) {
+            quantidade--;
+            somaLatitude -= ponto.latitude();
+            somaLongitude -= ponto.longitude();
+            if (ponto.risco() != null) {
+                porRisco.computeIfPresent(ponto.risco(), (risco, total) -> total > 1 ? total - 1 : null);
+            }
+            return quantidade <= 0;
+        }
+
+        ReportClusterDTO paraDTO() {
+            String predominante = null;
+            long maior = 0;
+            for (Map.Entry<String, Long> entrada : porRisco.entrySet()) {
+                // Empate resolvido pela ordem alfabética para a resposta ser estável
+                if (entrada.getValue() > maior
+                        || (entrada.getValue() == maior && entrada.getKey().compareTo(predominante) < 0)) {
+                    predominante = entrada.getKey();
+                    maior = entrada.getValue();
+                }
+            }
+            return new ReportClusterDTO(
+                    somaLatitude / quantidade,
+                    somaLongitude / quantidade,
+                    quantidade,
+                    predominante
+            );
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package br.ifpb.project.denguemaps.pdmreportms.service;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.MunicipioResolver;
+import br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.CidadaoMunicipioDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoCidadaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.DiferencaContadorProjecao;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Municipio;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.repository.CidadaoRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ContadorRiscoRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém a tabela report_contador_risco (reports por município e classificação de risco),
+ * para o dashboard responder sem contar reports.
+ * As alterações rodam na transação da escrita do report, então contador e report
+ * são confirmados ou desfeitos juntos. O município é o do endereço do cidadão autor.
+ */
+@Service
+@Timed("servico.metodo")
+@RequiredArgsConstructor
+@Slf4j
+public class ContadorRiscoService {
+    // Ordem fixa dos upserts para transações concorrentes não travarem umas às outras
+    private static final Comparator<Chave> ORDEM_CHAVES = Comparator
+            .comparing(Chave::municipioId)
+            .thenComparing(Chave::classificacaoRisco);
+
+    private final ContadorRiscoRepository contadorRiscoRepository;
+    private final CidadaoRepository cidadaoRepository;
+    private final ReportRepository reportRepository;
+    private final MunicipioResolver municipioResolver;
+
+    private record Chave(UUID municipioId, Estado estado, String classificacaoRisco) {
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarAlteracao(UUID cidadaoId, String classificacaoRisco, long delta) {
+        registrarAlteracoes(List.of(new ContagemRiscoCidadaoDTO(cidadaoId, classificacaoRisco, delta)));
+    }
+
+    /**
+     * Aplica as variações (positivas ou negativas) agrupando por município e risco,
+     * com uma única consulta para descobrir o município de todos os cidadãos envolvidos.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarAlteracoes(Collection<ContagemRiscoCidadaoDTO> variacoes) {
+        List<ContagemRiscoCidadaoDTO> relevantes = variacoes.stream()
+                .filter(v -> v.getCidadaoId() != null && v.getClassificacaoRisco() != null && v.getQuantidade() != 0)
+                .toList();
+        if (relevantes.isEmpty()) {
+            return;
+        }
+        Map<UUID, CidadaoMunicipioDTO> municipios = cidadaoRepository.buscarMunicipios(
+                        relevantes.stream().map(ContagemRiscoCidadaoDTO::getCidadaoId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(CidadaoMunicipioDTO::getCidadaoId, Function.identity()));
+
+        Map<Chave, Long> deltas = new TreeMap<>(ORDEM_CHAVES);
+        for (ContagemRiscoCidadaoDTO variacao : relevantes) {
+            CidadaoMunicipioDTO municipio = municipios.get(variacao.getCidadaoId());
+            if (municipio == null) {
+                // Cidadão sem endereço/município: não entra nos contadores
+                continue;
+            }
+            Chave chave = new Chave(municipio.getMunicipioId(), municipio.getEstado(), variacao.getClassificacaoRisco());
+            deltas.merge(chave, variacao.getQuantidade(), Long::sum);
+        }
+        deltas.forEach((chave, delta) -> {
+            if (delta != 0) {
+                contadorRiscoRepository.somar(chave.municipioId(), chave.estado().name(), chave.classificacaoRisco(), delta);
+            }
+        });
+    }
+
+    /**
+     * Desconta todos os reports do cidadão; deve ser chamado antes de apagá-los.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarRemocaoCidadao(UUID cidadaoId) {
+        List<ContagemRiscoCidadaoDTO> contagens = reportRepository.contarPorRiscoDoCidadao(cidadaoId);
+        registrarAlteracoes(contagens.stream()
+                .map(c -> new ContagemRiscoCidadaoDTO(c.getCidadaoId(), c.getClassificacaoRisco(), -c.getQuantidade()))
+                .toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ContagemRiscoDTO> buscarPorMunicipio(String nome, UUID id, Estado estado) {
+        if (id == null && (nome == null || nome.isBlank())) {
+            throw new IllegalArgumentException("É necessário fornecer o ID do Município ou o Nome do Município.");
+        }
+        Municipio municipio = municipioResolver.resolver(nome, id, estado)
+                .orElseThrow(() -> new IllegalArgumentException("Município não encontrado para os critérios fornecidos (ID e/ou Nome)."));
+        return contadorRiscoRepository.buscarPorMunicipio(municipio.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ContagemRiscoDTO> buscarPorEstado(Estado estado) {
+        Objects.requireNonNull(estado, "O Estado deve ser fornecido.");
+        return contadorRiscoRepository.buscarPorEstado(estado);
+    }
+
+    /**
+     * Recalcula todos os contadores a partir dos reports, corrigindo divergências
+     * (ex: cidadão que mudou de município depois de reportar).
+     * A recontagem não trava os contadores: ela sai do mesmo snapshot que os valores atuais,
+     * e só a diferença é somada no fim, então as escritas confirmadas durante a recontagem
+     * (já somadas por registrarAlteracoes) não se perdem e só esperam pelos upserts finais.
+     * O advisory lock deixa uma única instância recalculando por vez.
+     */
+    @Scheduled(cron = "${contador-risco.recalculo.cron:0 0 3 * * *}")
+    @Transactional
+    public void recalcular() {
+        if (!contadorRiscoRepository.tentarBloquearRecalculo()) {
+            log.info("Recálculo dos contadores de risco já em andamento em outra instância");
+            return;
+        }
+        Map<Chave, Long> diferencas = new TreeMap<>(ORDEM_CHAVES);
+        for (DiferencaContadorProjecao diferenca : contadorRiscoRepository.calcularDiferencas()) {
+            diferencas.put(new Chave(diferenca.getMunicipioId(), Estado.valueOf(diferenca.getEstado()),
+                    diferenca.getClassificacaoRisco()), diferenca.getDiferenca());
+        }
+        diferencas.forEach((chave, delta) ->
+                contadorRiscoRepository.somar(chave.municipioId(), chave.estado().name(), chave.classificacaoRisco(), delta));
+        log.info("Contadores de risco recalculados: {} combinações município/risco corrigidas", diferencas.size());
+    }
+}
@@ -0,0 +1,46 @@
+package br.ifpb.project.denguemaps.pdmreportms.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor exclusivo da drenagem do feed SSE ({@link FeedReportService}). O envio para um
+ * cliente lento bloqueia a thread; fora daqui ele tomaria o applicationTaskExecutor, parando
+ * os outros assinantes e os jobs @Async (apagamento de cidadão, normalização de respostas).
+ * Com spring.task.execution.mode=force o applicationTaskExecutor continua sendo criado apesar deste bean.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FeedReportConfiguration {
+    public static final String EXECUTOR = "feedReportExecutor";
+
+    // Cada assinante ocupa no máximo uma tarefa (uma thread ou um lugar na fila). Com a fila
+    // cheia a nova drenagem é recusada e a conexão encerrada; o cliente reconecta com Last-Event-ID
+    @Bean(EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor feedReportExecutor(
+            @Value("${feed-report.drenagem.threads:32}") int threads,
+            @Value("${feed-report.drenagem.fila:1000}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("feed-report-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Virtual threads: um envio bloqueado não prende thread de plataforma, então não há pool;
+    // o número de tarefas já é limitado pelo de assinantes
+    @Bean(EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor feedReportExecutorVirtual() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("feed-report-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -0,0 +1,296 @@
+package br.ifpb.project.denguemaps.pdmreportms.service;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.MunicipioResolver;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportEventoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportResponseDTO;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Municipio;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.event.ReportAlteradoEvent;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feed SSE das alterações de report (GET /api/report/eventos), para os mapas não
+ * precisarem recarregar /api/report/all periodicamente.
+ * Cada evento recebe um id crescente e fica num histórico limitado; o cliente que reconecta
+ * com Last-Event-ID recebe o que perdeu, ou um evento RECARREGAR se o id já saiu do histórico.
+ * Cada assinante tem um buffer próprio e limitado, esvaziado numa thread do executor do feed
+ * ({@link FeedReportConfiguration}): um cliente lento perde os eventos mais antigos (e recebe
+ * DESCARTADOS com a quantidade) sem atrasar quem grava o report nem os outros clientes.
+ * O ouvinte roda depois do commit, na thread de quem gravou, e não consulta o banco: nome e
+ * município do autor chegam no evento.
+ * O feed é por instância: só vê os reports gravados pela própria instância (incluindo a ingestão
+ * dela). Com várias réplicas atrás do balanceador, um assinante não recebe as escritas que foram
+ * para outra réplica e precisa recarregar /api/report/all para vê-las.
+ */
+@Service
+@Timed("servico.metodo")
+@Slf4j
+public class FeedReportService {
+    public static final String EVENTO_RECARREGAR = "RECARREGAR";
+    public static final String EVENTO_DESCARTADOS = "DESCARTADOS";
+
+    private final MunicipioResolver municipioResolver;
+    private final TaskExecutor taskExecutor;
+    private final int tamanhoHistorico;
+    private final int tamanhoBufferAssinante;
+    private final Duration timeout;
+    private final Counter descartados;
+
+    // Ids começam no relógio da inicialização para continuarem crescendo após um restart
+    private final AtomicLong sequencia = new AtomicLong(System.currentTimeMillis() * 1000);
+    // Guardado pelo próprio monitor; a publicação também ocorre sob ele para o replay não duplicar eventos
+    private final Deque<EventoFeed> historico = new ArrayDeque<>();
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    private record EventoFeed(long id, UUID municipioId, Estado estado, ReportEventoDTO dados) {
+        SseEmitter.SseEventBuilder paraSse() {
+            return SseEmitter.event()
+                    .id(String.valueOf(id))
+                    .name(dados.getTipo().name())
+                    .data(dados, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    public FeedReportService(
+            MunicipioResolver municipioResolver,
+            @Qualifier(FeedReportConfiguration.EXECUTOR) TaskExecutor taskExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${feed-report.historico:1000}") int tamanhoHistorico,
+            @Value("${feed-report.buffer-assinante:256}") int tamanhoBufferAssinante,
+            @Value("${feed-report.timeout:30m}") Duration timeout) {
+        this.municipioResolver = municipioResolver;
+        this.taskExecutor = taskExecutor;
+        this.tamanhoHistorico = tamanhoHistorico;
+        this.tamanhoBufferAssinante = tamanhoBufferAssinante;
+        this.timeout = timeout;
+        this.descartados = Counter.builder("feed.report.descartados")
+                .description("Eventos descartados por assinantes lentos")
+                .register(meterRegistry);
+        Gauge.builder("feed.report.assinantes", assinantes, Set::size)
+                .description("Conexões SSE abertas no feed de reports")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre uma assinatura. Sem filtros recebe tudo; com {@code estado} e/ou município
+     * (id, ou nome + estado) só os reports de cidadãos daquele local.
+     */
+    public SseEmitter assinar(UUID municipioId, String nomeMunicipio, Estado estado, String ultimoEventoId) {
+        UUID filtroMunicipio = null;
+        if (municipioId != null || (nomeMunicipio != null && !nomeMunicipio.isBlank())) {
+            Municipio municipio = municipioResolver.resolver(nomeMunicipio, municipioId, estado)
+                    .orElseThrow(() -> new IllegalArgumentException("Município não encontrado para os critérios fornecidos (ID e/ou Nome)."));
+            filtroMunicipio = municipio.getId();
+        }
+        SseEmitter emitter = criarEmitter();
+        Assinante assinante = new Assinante(emitter, filtroMunicipio, estado);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(erro -> assinantes.remove(assinante));
+
+        synchronized (historico) {
+            if (ultimoEventoId != null && !ultimoEventoId.isBlank()) {
+                reenviarPerdidos(assinante, ultimoEventoId.trim());
+            }
+            assinantes.add(assinante);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarReport(ReportAlteradoEvent evento) {
+        ReportEventoDTO dados = new ReportEventoDTO(
+                evento.tipo(),
+                evento.reportId(),
+                evento.municipioId(),
+                evento.estado(),
+                evento.tipo() == ReportAlteradoEvent.Tipo.REMOVIDO ? null : paraResponse(evento)
+        );
+        synchronized (historico) {
+            EventoFeed eventoFeed = new EventoFeed(sequencia.incrementAndGet(), dados.getMunicipioId(), dados.getEstado(), dados);
+            historico.addLast(eventoFeed);
+            while (historico.size() > tamanhoHistorico) {
+                historico.pollFirst();
+            }
+            for (Assinante assinante : assinantes) {
+                if (assinante.aceita(eventoFeed)) {
+                    assinante.enfileirar(eventoFeed);
+                }
+            }
+        }
+    }
+
+    // Mantém a conexão viva atrás de proxies e detecta clientes que já foram embora
+    @Scheduled(fixedDelayString = "${feed-report.heartbeat:15s}")
+    public void enviarHeartbeat() {
+        assinantes.forEach(Assinante::sinalizarHeartbeat);
+    }
+
+    protected SseEmitter criarEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    // Chamado com o monitor do histórico adquirido
+    private void reenviarPerdidos(Assinante assinante, String ultimoEventoId) {
+        long ultimo;
+        try {
+            ultimo = Long.parseLong(ultimoEventoId);
+        } catch (NumberFormatException e) {
+            assinante.pedirRecarga();
+            return;
+        }
+        long primeiroDisponivel = historico.isEmpty() ? sequencia.get() + 1 : historico.peekFirst().id();
+        if (ultimo < primeiroDisponivel - 1 || ultimo > sequencia.get()) {
+            // Perdeu eventos que não estão mais no histórico (ou o id é de antes de um restart)
+            assinante.pedirRecarga();
+            return;
+        }
+        for (EventoFeed evento : historico) {
+            if (evento.id() > ultimo && assinante.aceita(evento)) {
+                assinante.enfileirar(evento);
+            }
+        }
+    }
+
+    private ReportResponseDTO paraResponse(ReportAlteradoEvent evento) {
+        return new ReportResponseDTO(
+                evento.reportId(),
+                evento.coordenadas(),
+                evento.classificacaoRisco(),
+                evento.nomeCidadao(),
+                evento.createdAt(),
+                evento.updatedBy()
+        );
+    }
+
+    private final class Assinante {
+        private final SseEmitter emitter;
+        private final UUID municipioId;
+        private final Estado estado;
+        // Guardados pelo monitor do assinante
+        private final Deque<EventoFeed> buffer = new ArrayDeque<>();
+        private long descartadosPendentes;
+        private boolean recargaPendente;
+        private boolean heartbeatPendente;
+        private boolean drenando;
+
+        private Assinante(SseEmitter emitter, UUID municipioId, Estado estado) {
+            this.emitter = emitter;
+            this.municipioId = municipioId;
+            this.estado = estado;
+        }
+
+        boolean aceita(EventoFeed evento) {
+            return (municipioId == null || municipioId.equals(evento.municipioId()))
+                    && (estado == null || estado == evento.estado());
+        }
+
+        void enfileirar(EventoFeed evento) {
+            synchronized (this) {
+                if (buffer.size() >= tamanhoBufferAssinante) {
+                    buffer.pollFirst();
+                    descartadosPendentes++;
+                    descartados.increment();
+                }
+                buffer.addLast(evento);
+            }
+            agendarDrenagem();
+        }
+
+        void pedirRecarga() {
+            synchronized (this) {
+                recargaPendente = true;
+            }
+            agendarDrenagem();
+        }
+
+        void sinalizarHeartbeat() {
+            synchronized (this) {
+                heartbeatPendente = true;
+            }
+            agendarDrenagem();
+        }
+
+        private void agendarDrenagem() {
+            synchronized (this) {
+                if (drenando) {
+                    return;
+                }
+                drenando = true;
+            }
+            try {
+                taskExecutor.execute(this::drenar);
+            } catch (RejectedExecutionException e) {
+                remover(e);
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void drenar() {
+            while (true) {
+                EventoFeed evento;
+                long perdidos;
+                boolean recarga;
+                boolean heartbeat;
+                synchronized (this) {
+                    recarga = recargaPendente;
+                    perdidos = descartadosPendentes;
+                    evento = buffer.pollFirst();
+                    heartbeat = heartbeatPendente && evento == null && !recarga && perdidos == 0;
+                    recargaPendente = false;
+                    descartadosPendentes = 0;
+                    heartbeatPendente = false;
+                    if (evento == null && !recarga && perdidos == 0 && !heartbeat) {
+                        drenando = false;
+                        return;
+                    }
+                }
+                try {
+                    if (recarga) {
+                        emitter.send(SseEmitter.event().name(EVENTO_RECARREGAR).data(""));
+                    }
+                    if (perdidos > 0) {
+                        emitter.send(SseEmitter.event().name(EVENTO_DESCARTADOS).data(perdidos));
+                    }
+                    if (evento != null) {
+                        emitter.send(evento.paraSse());
+                    }
+                    if (heartbeat) {
+                        emitter.send(SseEmitter.event().comment(""));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectou ou o emitter já foi encerrado; o container encerra a requisição
+                    remover(e);
+                    return;
+                }
+            }
+        }
+
+        private void remover(Exception causa) {
+            assinantes.remove(this);
+            log.debug("Assinante do feed de reports removido: {}", causa.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.ifpb.project.denguemaps.pdmreportms.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Ajusta os questionários gravados antes da normalização: move as perguntas inline para
+ * conjuntos deduplicados e preenche questionario_resposta.
+ * Roda em segundo plano após a inicialização, em lotes com transação própria; os
+ * questionários novos já são gravados assim pelo {@link QuestionarioService}.
+ * Cada lote toma um advisory lock no banco: se outra instância já está normalizando, esta
+ * para no primeiro lote. Os processados ficam marcados em normalizado_em, inclusive os que
+ * não geram nenhuma resposta, e não voltam na próxima subida.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NormalizacaoRespostasInicial {
+    private static final int TAMANHO_LOTE = 200;
+
+    private final QuestionarioService questionarioService;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalizarPendentes() {
+        UUID ultimoId = new UUID(0, 0);
+        int lotes = 0;
+        while ((ultimoId = questionarioService.deduplicarLotePerguntas(ultimoId, TAMANHO_LOTE)) != null) {
+            lotes++;
+        }
+        if (lotes > 0) {
+            log.info("Perguntas de questionários antigos movidas para conjuntos em {} lote(s)", lotes);
+        }
+
+        ultimoId = new UUID(0, 0);
+        lotes = 0;
+        while ((ultimoId = questionarioService.normalizarLoteRespostas(ultimoId, TAMANHO_LOTE)) != null) {
+            lotes++;
+        }
+        if (lotes > 0) {
+            log.info("Respostas normalizadas para questionários antigos em {} lote(s)", lotes);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package br.ifpb.project.denguemaps.pdmreportms.service;
+
+import br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Mantém as partições mensais de report (V7__report_particionado.sql): cria com antecedência
+ * as dos próximos meses, para os inserts nunca caírem na partição padrão, e desanexa as que
+ * passaram da retenção. Uma partição desanexada sai das consultas e dos contadores
+ * (no próximo recálculo), mas continua no banco como tabela própria.
+ * Roda em todas as instâncias; as funções do banco tomam um advisory lock
+ * (V8__report_particoes_concorrencia.sql), e quem não o consegue retorna 0 sem mexer em nada.
+ * Um mês que não consegue o lock de report_padrao a tempo (ou não passa no ATTACH) é desfeito
+ * e fica para a próxima execução (V10__report_particoes_lock_padrao.sql); a subida não falha por isso.
+ */
+@Service
+@Timed("servico.metodo")
+@Slf4j
+public class ParticaoReportService {
+    private final ReportRepository reportRepository;
+    private final int mesesFuturos;
+    private final int retencaoMeses;
+
+    public ParticaoReportService(
+            ReportRepository reportRepository,
+            @Value("${particao-report.meses-futuros:3}") int mesesFuturos,
+            @Value("${particao-report.retencao-meses:0}") int retencaoMeses) {
+        this.reportRepository = reportRepository;
+        this.mesesFuturos = mesesFuturos;
+        this.retencaoMeses = retencaoMeses;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${particao-report.manutencao.cron:0 30 2 * * *}")
+    @Transactional
+    public void manterParticoes() {
+        OffsetDateTime inicioMes = OffsetDateTime.now(ZoneOffset.UTC)
+                .with(TemporalAdjusters.firstDayOfMonth())
+                .truncatedTo(ChronoUnit.DAYS);
+        int criadas = reportRepository.criarParticoes(inicioMes, mesesFuturos + 1);
+        int desanexadas = 0;
+        if (retencaoMeses > 0) {
+            desanexadas = reportRepository.desanexarParticoes(inicioMes.minusMonths(retencaoMeses));
+        }
+        if (criadas > 0 || desanexadas > 0) {
+            log.info("Partições de report: {} criadas, {} desanexadas", criadas, desanexadas);
+        }
+    }
+}
@@ -1,26 +1,46 @@
 package br.ifpb.project.denguemaps.pdmreportms.service;
 
 
+import br.ifpb.project.denguemaps.pdmreportms.cache.CidadaoCache;
+import br.ifpb.project.denguemaps.pdmreportms.cache.ConjuntoPerguntasCache;
+import br.ifpb.project.denguemaps.pdmreportms.cache.MunicipioResolver;
+import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.AgregacaoPerguntaDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.DistribuicaoRespostaDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.DistribuicaoRespostaProjecao;
 import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.QuestionarioAtualizarDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.QuestionarioCriarDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.QuestionarioResponseDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.versao.VersaoRecursoDTO;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Cidadao;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Municipio;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Questionario;
-import br.ifpb.project.denguemaps.pdmreportms.repository.CidadaoRepository;
+import br.ifpb.project.denguemaps.pdmreportms.entity.RespostaQuestionario;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
 import br.ifpb.project.denguemaps.pdmreportms.repository.QuestionarioRepository;
+import br.ifpb.project.denguemaps.pdmreportms.util.PeriodoUtil;
+import br.ifpb.project.denguemaps.pdmreportms.util.RespostaQuestionarioUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("servico.metodo")
 @RequiredArgsConstructor
 public class QuestionarioService {
     private final QuestionarioRepository questionarioRepository;
-    private final CidadaoRepository cidadaoRepository;
+    private final CidadaoCache cidadaoCache;
+    private final MunicipioResolver municipioResolver;
+    private final ConjuntoPerguntasCache conjuntoPerguntasCache;
 
     public QuestionarioResponseDTO registrarQuestionarioComRetorno(
             QuestionarioCriarDTO questionarioCriarDTO){
@@ -47,24 +67,114 @@ public class QuestionarioService {
     }
 
     public QuestionarioResponseDTO buscarQuestionarioEspecifico(UUID uuid){
+        return buscarQuestionarioEspecifico(uuid, true);
+    }
+
+    public QuestionarioResponseDTO buscarQuestionarioEspecifico(UUID uuid, boolean incluirPerguntas){
         Questionario questionario = questionarioRepository.findById(uuid)
                 .orElseThrow(() -> new IllegalArgumentException("Questionario não encontrado"));
-        return retornarResponseDTO(questionario);
+        return retornarResponseDTO(questionario, incluirPerguntas);
+    }
+
+    public VersaoRecursoDTO buscarVersaoQuestionario(UUID uuid){
+        return questionarioRepository.buscarVersaoPorId(uuid);
     }
 
     public List<QuestionarioResponseDTO> buscarQuestionarioCidadaoEspecifico(UUID idCidadao){
+        return buscarQuestionarioCidadaoEspecifico(idCidadao, true);
+    }
+
+    public List<QuestionarioResponseDTO> buscarQuestionarioCidadaoEspecifico(UUID idCidadao, boolean incluirPerguntas){
         List<Questionario> Listaquestionario = questionarioRepository.findAllByCidadaoId(idCidadao);
-        return mapearReportsResponseDTO(Listaquestionario);
+        return mapearReportsResponseDTO(Listaquestionario, incluirPerguntas);
     }
 
     public List<QuestionarioResponseDTO> buscarTodoQuestionario(){
+        return buscarTodoQuestionario(true);
+    }
+
+    public List<QuestionarioResponseDTO> buscarTodoQuestionario(boolean incluirPerguntas){
         List<Questionario> listaQuestionario = questionarioRepository.findAll();
-        return mapearReportsResponseDTO(listaQuestionario);
+        return mapearReportsResponseDTO(listaQuestionario, incluirPerguntas);
+    }
+
+    public String buscarConjuntoPerguntas(String hash){
+        return conjuntoPerguntasCache.buscarPerguntas(hash)
+                .orElseThrow(() -> new IllegalArgumentException("Conjunto de perguntas não encontrado"));
     }
 
 
 
+    /**
+     * Distribuição das respostas de cada pergunta entre os questionários dos cidadãos do município,
+     * calculada no banco sobre a tabela questionario_resposta. O intervalo é [de, ate);
+     * sem datas, considera todos os questionários até agora.
+     */
+    @Transactional(readOnly = true)
+    public List<AgregacaoPerguntaDTO> agregarRespostasPorMunicipio(
+            String nome, UUID id, Estado estado, OffsetDateTime de, OffsetDateTime ate){
+        if (id == null && (nome == null || nome.isBlank())) {
+            throw new IllegalArgumentException("É necessário fornecer o ID do Município ou o Nome do Município.");
+        }
+        PeriodoUtil.Periodo periodo = PeriodoUtil.resolver(de, ate);
+        Municipio municipio = municipioResolver.resolver(nome, id, estado)
+                .orElseThrow(() -> new IllegalArgumentException("Município não encontrado para os critérios fornecidos (ID e/ou Nome)."));
+        return montarAgregacao(questionarioRepository.agregarRespostas(municipio.getId(), periodo.inicio(), periodo.fim()));
+    }
+
+    /**
+     * Normaliza as respostas de até {@code tamanho} questionários antigos (ainda sem
+     * normalizadoEm) com id maior que {@code aposId}. Retorna o último id processado,
+     * ou null quando não há mais pendentes ou outra instância está normalizando.
+     */
+    @Transactional
+    public UUID normalizarLoteRespostas(UUID aposId, int tamanho){
+        if (!questionarioRepository.tentarBloquearNormalizacao()) {
+            return null;
+        }
+        List<Questionario> pendentes = questionarioRepository.buscarSemRespostasNormalizadas(aposId, Limit.of(tamanho));
+        pendentes.forEach(questionario -> aplicarRespostasNormalizadas(questionario, perguntasDe(questionario)));
+        return pendentes.isEmpty() ? null : pendentes.get(pendentes.size() - 1).getId();
+    }
+
+    /**
+     * Move as perguntas inline de até {@code tamanho} questionários antigos para conjuntos
+     * deduplicados, com id maior que {@code aposId}. Retorna o último id processado,
+     * ou null quando não há mais pendentes ou outra instância está normalizando.
+     */
+    @Transactional
+    public UUID deduplicarLotePerguntas(UUID aposId, int tamanho){
+        if (!questionarioRepository.tentarBloquearNormalizacao()) {
+            return null;
+        }
+        List<Questionario> pendentes = questionarioRepository.buscarSemConjuntoPerguntas(aposId, Limit.of(tamanho));
+        pendentes.forEach(questionario -> {
+            questionario.setConjuntoPerguntas(conjuntoPerguntasCache.registrar(questionario.getPerguntas()));
+            questionario.setPerguntas(null);
+        });
+        return pendentes.isEmpty() ? null : pendentes.get(pendentes.size() - 1).getId();
+    }
+
+    /**
+     * Apaga até {@code tamanho} questionários do cidadão numa transação curta.
+     * Retorna quantos foram apagados (0 quando não resta nenhum).
+     */
+    @Transactional
+    public int apagarLoteQuestionariosCidadao(UUID idCidadao, int tamanho){
+        List<UUID> ids = questionarioRepository.buscarIdsPorCidadaoId(idCidadao, Limit.of(tamanho));
+        if (!ids.isEmpty()) {
+            questionarioRepository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
+    }
+
+    @Transactional(readOnly = true)
+    public long contarQuestionariosCidadao(UUID idCidadao){
+        return questionarioRepository.countByCidadaoId(idCidadao);
+    }
+
     // Metodos auxiliares:
+    @Transactional
     public void deletarTodoQuestionarioCidadaoEspecifico(UUID idCidadao){
         questionarioRepository.deleteAllByCidadaoId(idCidadao);
     }
@@ -83,16 +193,23 @@ public class QuestionarioService {
                 .orElseThrow(() -> new IllegalArgumentException("Questionario não encontrado"));
     }
 
-    private List<QuestionarioResponseDTO> mapearReportsResponseDTO(List<Questionario> questionario) {
+    private List<QuestionarioResponseDTO> mapearReportsResponseDTO(List<Questionario> questionario, boolean incluirPerguntas) {
         return questionario.stream()
-                .map(this::retornarResponseDTO)
+                .map(q -> retornarResponseDTO(q, incluirPerguntas))
                 .collect(Collectors.toList());
     }
 
     private QuestionarioResponseDTO retornarResponseDTO(Questionario questionario){
+        return retornarResponseDTO(questionario, true);
+    }
+
+    // Sem incluirPerguntas, questionários com conjunto devolvem só o hash (GET /conjunto-perguntas)
+    private QuestionarioResponseDTO retornarResponseDTO(Questionario questionario, boolean incluirPerguntas){
+        String hash = questionario.getConjuntoPerguntas() != null ? questionario.getConjuntoPerguntas().getHash() : null;
         QuestionarioResponseDTO questionarioResponseDTO = new QuestionarioResponseDTO();
         questionarioResponseDTO.setId(questionario.getId());
-        questionarioResponseDTO.setPerguntas(questionario.getPerguntas());
+        questionarioResponseDTO.setPerguntas(incluirPerguntas || hash == null ? perguntasDe(questionario) : null);
+        questionarioResponseDTO.setConjuntoPerguntasHash(hash);
         questionarioResponseDTO.setRespostas(questionario.getRespostas());
         questionarioResponseDTO.setCreatedAt(questionario.getCreatedAt());
         questionarioResponseDTO.setUpdatedBy(questionario.getUpdatedBy());
@@ -103,21 +220,81 @@ public class QuestionarioService {
             Questionario questionario,
             QuestionarioAtualizarDTO questionarioAtualizarDTO,
             String token){
-        questionario.setPerguntas(questionarioAtualizarDTO.getPerguntas());
+        String perguntas = aplicarConjuntoPerguntas(questionario,
+                questionarioAtualizarDTO.getPerguntas(), questionarioAtualizarDTO.getConjuntoPerguntasHash());
         questionario.setRespostas(questionarioAtualizarDTO.getRespostas());
+        aplicarRespostasNormalizadas(questionario, perguntas);
         questionario.setCidadao(buscarCidadao(questionarioAtualizarDTO.getFkCidadaoId()));
     }
 
     private void aplicarCriacaoEntidadeQuestionarioSemRetorno(
             Questionario questionario,
             QuestionarioCriarDTO questionarioCriarDTO){
-        questionario.setPerguntas(questionarioCriarDTO.getPerguntas());
+        String perguntas = aplicarConjuntoPerguntas(questionario,
+                questionarioCriarDTO.getPerguntas(), questionarioCriarDTO.getConjuntoPerguntasHash());
         questionario.setRespostas(questionarioCriarDTO.getRespostas());
+        aplicarRespostasNormalizadas(questionario, perguntas);
         questionario.setCidadao(buscarCidadao(questionarioCriarDTO.getFkCidadaoId()));
     }
 
+    /**
+     * Aponta o questionário para o conjunto de perguntas (registrando-o se as perguntas vierem
+     * completas) e limpa a cópia inline. Retorna o JSON das perguntas.
+     */
+    private String aplicarConjuntoPerguntas(Questionario questionario, String perguntas, String hash){
+        if (perguntas != null && !perguntas.isBlank()) {
+            questionario.setConjuntoPerguntas(conjuntoPerguntasCache.registrar(perguntas));
+        } else if (hash != null && !hash.isBlank()) {
+            questionario.setConjuntoPerguntas(conjuntoPerguntasCache.referenciar(hash));
+            perguntas = buscarConjuntoPerguntas(hash);
+        } else {
+            throw new IllegalArgumentException("É necessário fornecer as perguntas ou o hash do conjunto de perguntas.");
+        }
+        questionario.setPerguntas(null);
+        return perguntas;
+    }
+
+    private String perguntasDe(Questionario questionario){
+        if (questionario.getPerguntas() != null || questionario.getConjuntoPerguntas() == null) {
+            return questionario.getPerguntas();
+        }
+        return conjuntoPerguntasCache.buscarPerguntas(questionario.getConjuntoPerguntas().getHash()).orElse(null);
+    }
+
+    private void aplicarRespostasNormalizadas(Questionario questionario, String perguntas){
+        List<RespostaQuestionario> respostas = RespostaQuestionarioUtil.normalizar(
+                perguntas, questionario.getRespostas());
+        if (questionario.getRespostasNormalizadas() == null) {
+            questionario.setRespostasNormalizadas(new ArrayList<>(respostas));
+        } else {
+            questionario.getRespostasNormalizadas().clear();
+            questionario.getRespostasNormalizadas().addAll(respostas);
+        }
+        // Marca mesmo quando nada foi extraído, para não voltar à fila da normalização inicial
+        questionario.setNormalizadoEm(OffsetDateTime.now());
+    }
+
+    private List<AgregacaoPerguntaDTO> montarAgregacao(List<DistribuicaoRespostaProjecao> linhas){
+        // As linhas vêm ordenadas por pergunta com o subtotal antes das respostas
+        Map<String, AgregacaoPerguntaDTO> porPergunta = new LinkedHashMap<>();
+        for (DistribuicaoRespostaProjecao linha : linhas) {
+            AgregacaoPerguntaDTO agregacao = porPergunta.computeIfAbsent(linha.getPerguntaChave(),
+                    chave -> new AgregacaoPerguntaDTO(chave, linha.getPergunta(), 0, new ArrayList<>()));
+            if (linha.getTotal() != null && linha.getTotal() == 1) {
+                agregacao.setPergunta(linha.getPergunta());
+                agregacao.setTotalCidadaos(linha.getCidadaos());
+                continue;
+            }
+            agregacao.getRespostas().add(new DistribuicaoRespostaDTO(
+                    linha.getResposta(), linha.getQuantidade(), linha.getCidadaos(), 0));
+        }
+        porPergunta.values().forEach(agregacao -> agregacao.getRespostas().forEach(resposta ->
+                resposta.setPercentualCidadaos(agregacao.getTotalCidadaos() == 0 ? 0
+                        : 100.0 * resposta.getCidadaos() / agregacao.getTotalCidadaos())));
+        return new ArrayList<>(porPergunta.values());
+    }
+
     private Cidadao buscarCidadao(UUID idCidadao){
-        return cidadaoRepository.findById(idCidadao)
-                .orElseThrow(() -> new IllegalArgumentException("Cidadao não encontrado"));
+        return cidadaoCache.referenciar(idCidadao);
     }
 }
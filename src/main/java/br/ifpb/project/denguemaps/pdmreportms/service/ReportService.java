@@ -1,118 +1,420 @@
 package br.ifpb.project.denguemaps.pdmreportms.service;
 
 
+import br.ifpb.project.denguemaps.pdmreportms.cache.CidadaoCache;
+import br.ifpb.project.denguemaps.pdmreportms.cache.MunicipioResolver;
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoCidadaoDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportCriacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportIngestaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLocalizacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLoteResultadoDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportObjetoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportPaginaDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportResponseDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportAtualizarDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.versao.VersaoRecursoDTO;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Cidadao;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Municipio;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Report;
 import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.event.ReportAlteradoEvent;
 import br.ifpb.project.denguemaps.pdmreportms.repository.CidadaoRepository;
-import br.ifpb.project.denguemaps.pdmreportms.repository.MunicipioRepository;
 import br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.specification.ReportSpecification;
+import br.ifpb.project.denguemaps.pdmreportms.util.GeoUtil;
+import br.ifpb.project.denguemaps.pdmreportms.util.PeriodoUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
-import java.util.Collections;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("servico.metodo")
 @RequiredArgsConstructor
 @Slf4j
 public class ReportService {
+    public static final int TAMANHO_PAGINA_PADRAO = 50;
+    private static final int TAMANHO_PAGINA_MAXIMO = 500;
+    private static final String SEPARADOR_CURSOR = "|";
+    public static final int LIMITE_BUSCA_ESPACIAL_PADRAO = 1000;
+    private static final int LIMITE_BUSCA_ESPACIAL_MAXIMO = 5000;
+    private static final double RAIO_MAXIMO_METROS = 50_000;
+    public static final int TAMANHO_LOTE_MAXIMO = 500;
+
     private final ReportRepository reportRepository;
-    private final MunicipioRepository municipioRepository;
+    private final MunicipioResolver municipioResolver;
     private final CidadaoRepository cidadaoRepository;
+    private final CidadaoCache cidadaoCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ContadorRiscoService contadorRiscoService;
 
     
+    @Transactional
     public ReportResponseDTO cadastrarReport(ReportCriacaoDTO reportCriacaoDTO) {
         Report report = formatarReportRetornar(reportCriacaoDTO);
         report.setCreatedAt(OffsetDateTime.now());
         report.setUpdatedBy(OffsetDateTime.now());
-        return retornarResponse(
-                salvarEntidadeRetornar(report)
-        );
+        Report salvo = salvarEntidadeRetornar(report);
+        contadorRiscoService.registrarAlteracao(idCidadao(salvo), salvo.getClassificacaoRisco(), 1);
+        eventPublisher.publishEvent(ReportAlteradoEvent.criado(salvo, autor(idCidadao(salvo))));
+        return retornarResponse(salvo);
     }
 
 
+    /**
+     * Cadastra vários reports de uma vez (sincronização offline dos agentes).
+     * Os cidadãos são resolvidos em uma única consulta e os inserts vão em lote JDBC
+     * na mesma transação. Itens inválidos são reportados individualmente e não
+     * impedem a gravação dos demais.
+     */
+    @Transactional
+    public List<ReportLoteResultadoDTO> cadastrarReportsEmLote(List<ReportCriacaoDTO> reportsCriacaoDTO) {
+        if (reportsCriacaoDTO == null || reportsCriacaoDTO.isEmpty()) {
+            throw new IllegalArgumentException("O lote deve conter ao menos um report.");
+        }
+        if (reportsCriacaoDTO.size() > TAMANHO_LOTE_MAXIMO) {
+            throw new IllegalArgumentException("O lote deve conter no máximo " + TAMANHO_LOTE_MAXIMO + " reports.");
+        }
+        Set<UUID> idsCidadao = reportsCriacaoDTO.stream()
+                .filter(Objects::nonNull)
+                .map(ReportCriacaoDTO::getFkCidadaoID)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Cidadao> cidadaos = cidadaoRepository.findAllById(idsCidadao).stream()
+                .collect(Collectors.toMap(Cidadao::getId, cidadao -> cidadao));
+
+        ReportLoteResultadoDTO[] resultados = new ReportLoteResultadoDTO[reportsCriacaoDTO.size()];
+        List<Report> novos = new ArrayList<>();
+        List<Integer> indicesNovos = new ArrayList<>();
+        OffsetDateTime agora = OffsetDateTime.now();
+        for (int i = 0; i < reportsCriacaoDTO.size(); i++) {
+            ReportCriacaoDTO dto = reportsCriacaoDTO.get(i);
+            String erro = validarItemLote(dto, cidadaos.keySet());
+            if (erro != null) {
+                resultados[i] = ReportLoteResultadoDTO.falha(i, erro);
+                continue;
+            }
+            Report report = new Report();
+            report.setCidadao(cidadaos.get(dto.getFkCidadaoID()));
+            report.setCoordenadas(dto.getCoordenadas());
+            aplicarLocalizacao(report);
+            report.setClassificacaoRisco(dto.getClassificacaoRisco());
+            report.setCreatedAt(agora);
+            report.setUpdatedBy(agora);
+            novos.add(report);
+            indicesNovos.add(i);
+        }
+
+        List<Report> salvos = reportRepository.saveAll(novos);
+        contadorRiscoService.registrarAlteracoes(salvos.stream()
+                .map(salvo -> new ContagemRiscoCidadaoDTO(idCidadao(salvo), salvo.getClassificacaoRisco(), 1))
+                .toList());
+        Map<UUID, CidadaoCache.CidadaoResumo> autores = autores(salvos);
+        for (int i = 0; i < salvos.size(); i++) {
+            Report salvo = salvos.get(i);
+            eventPublisher.publishEvent(ReportAlteradoEvent.criado(salvo, autores.get(idCidadao(salvo))));
+            int indice = indicesNovos.get(i);
+            resultados[indice] = ReportLoteResultadoDTO.sucesso(indice, retornarResponse(salvo));
+        }
+        return List.of(resultados);
+    }
+
+    /**
+     * Mesmas regras do cadastro em lote, checadas antes de aceitar um report na ingestão
+     * assíncrona (o cidadão é validado pelo cache).
+     */
+    public void validarReportCriacao(ReportCriacaoDTO reportCriacaoDTO) {
+        UUID idCidadao = reportCriacaoDTO != null ? reportCriacaoDTO.getFkCidadaoID() : null;
+        Set<UUID> existentes = cidadaoCache.buscar(idCidadao).map(c -> Set.of(c.id())).orElse(Set.of());
+        String erro = validarItemLote(reportCriacaoDTO, existentes);
+        if (erro != null) {
+            throw new IllegalArgumentException(erro);
+        }
+    }
+
+    /**
+     * Grava numa transação os reports aceitos pela ingestão assíncrona, com o id e a data
+     * atribuídos no aceite. Ids já existentes (replay do WAL após uma queda) são ignorados,
+     * assim como itens que deixaram de ser válidos (ex: cidadão removido nesse meio tempo).
+     * Retorna os ids efetivamente inseridos.
+     */
+    @Transactional
+    public List<UUID> gravarReportsIngeridos(List<ReportIngestaoDTO> ingeridos) {
+        Set<UUID> idsCidadao = ingeridos.stream()
+                .map(ReportIngestaoDTO::getReport)
+                .filter(Objects::nonNull)
+                .map(ReportCriacaoDTO::getFkCidadaoID)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Cidadao> cidadaos = cidadaoRepository.findAllById(idsCidadao).stream()
+                .collect(Collectors.toMap(Cidadao::getId, cidadao -> cidadao));
+
+        List<Report> inseridos = new ArrayList<>();
+        for (ReportIngestaoDTO ingerido : ingeridos) {
+            ReportCriacaoDTO dto = ingerido.getReport();
+            String erro = validarItemLote(dto, cidadaos.keySet());
+            if (erro != null) {
+                log.warn("Report {} da ingestão descartado: {}", ingerido.getId(), erro);
+                continue;
+            }
+            Report report = new Report();
+            report.setId(ingerido.getId());
+            report.setCidadao(cidadaos.get(dto.getFkCidadaoID()));
+            report.setCoordenadas(dto.getCoordenadas());
+            aplicarLocalizacao(report);
+            report.setClassificacaoRisco(dto.getClassificacaoRisco());
+            report.setCreatedAt(ingerido.getRecebidoEm());
+            report.setUpdatedBy(ingerido.getRecebidoEm());
+            int linhas = reportRepository.inserirSeAusente(
+                    report.getId(),
+                    report.getCoordenadas(),
+                    report.getClassificacaoRisco(),
+                    dto.getFkCidadaoID(),
+                    report.getCreatedAt(),
+                    report.getLatitude(),
+                    report.getLongitude());
+            if (linhas > 0) {
+                inseridos.add(report);
+            }
+        }
+        contadorRiscoService.registrarAlteracoes(inseridos.stream()
+                .map(report -> new ContagemRiscoCidadaoDTO(idCidadao(report), report.getClassificacaoRisco(), 1))
+                .toList());
+        Map<UUID, CidadaoCache.CidadaoResumo> autores = autores(inseridos);
+        inseridos.forEach(report -> eventPublisher.publishEvent(
+                ReportAlteradoEvent.criado(report, autores.get(idCidadao(report)))));
+        return inseridos.stream().map(Report::getId).toList();
+    }
+
+    @Transactional
     public ReportResponseDTO atualizarReport(ReportAtualizarDTO reportAtualizarDTO){
         Report report = buscarReport(reportAtualizarDTO.getId());
+        UUID cidadaoAnterior = idCidadao(report);
+        String riscoAnterior = report.getClassificacaoRisco();
         atualizarReport(report, reportAtualizarDTO);
-        return retornarResponse(salvarEntidadeRetornar(report));
+        Report salvo = salvarEntidadeRetornar(report);
+        if (!Objects.equals(cidadaoAnterior, idCidadao(salvo))
+                || !Objects.equals(riscoAnterior, salvo.getClassificacaoRisco())) {
+            contadorRiscoService.registrarAlteracoes(List.of(
+                    new ContagemRiscoCidadaoDTO(cidadaoAnterior, riscoAnterior, -1),
+                    new ContagemRiscoCidadaoDTO(idCidadao(salvo), salvo.getClassificacaoRisco(), 1)));
+        }
+        eventPublisher.publishEvent(ReportAlteradoEvent.atualizado(salvo, autor(idCidadao(salvo))));
+        return retornarResponse(salvo);
     }
 
+    /**
+     * Nas listagens, {@code de} e {@code ate} limitam created_at ao intervalo [de, ate);
+     * sem eles, todos os reports até agora (ver {@link PeriodoUtil#resolver}).
+     */
     @Transactional(readOnly = true)
-    public List<ReportResponseDTO> buscarTodoReport() {
-        List<Report> reports = reportRepository.findAll();
-        return mapearReportsResponseDTO(reports);
+    public List<ReportResponseDTO> buscarTodoReport(OffsetDateTime de, OffsetDateTime ate) {
+        PeriodoUtil.Periodo periodo = PeriodoUtil.resolver(de, ate);
+        return reportRepository.buscarTodosResponse(periodo.inicio(), periodo.fim());
     }
 
+    /**
+     * Busca uma página de reports ordenada por (createdAt, id).
+     * O cursor é a chave do último report da página anterior, então cada página
+     * custa o mesmo independente da profundidade (sem OFFSET).
+     */
     @Transactional(readOnly = true)
-    public List<ReportResponseDTO> buscarReportEspecifico(UUID uuid){
-        List<Report> reports = reportRepository.findAllById(Collections.singleton(uuid));
-        return mapearReportsResponseDTO(reports);
+    public ReportPaginaDTO buscarPaginaReport(String cursor, int tamanho, OffsetDateTime de, OffsetDateTime ate) {
+        int tamanhoPagina = Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO);
+        PeriodoUtil.Periodo periodo = PeriodoUtil.resolver(de, ate);
+        // Busca um registro a mais para saber se existe próxima página
+        Limit limite = Limit.of(tamanhoPagina + 1);
+        List<ReportResponseDTO> reports = (cursor == null || cursor.isBlank())
+                ? reportRepository.buscarPrimeiraPagina(periodo.inicio(), periodo.fim(), limite)
+                : buscarPaginaAposCursor(cursor, periodo, limite);
+
+        if (reports.size() <= tamanhoPagina) {
+            return new ReportPaginaDTO(reports, null);
+        }
+        List<ReportResponseDTO> pagina = reports.subList(0, tamanhoPagina);
+        return new ReportPaginaDTO(pagina, codificarCursor(pagina.get(pagina.size() - 1)));
     }
 
+    /**
+     * Percorre todos os reports com um cursor JDBC forward-only, entregando um DTO por vez.
+     * Como a consulta projeta direto em DTO, o uso de memória não cresce com o tamanho da tabela.
+     */
     @Transactional(readOnly = true)
-    public List<ReportResponseDTO> buscarReportObjeto(ReportObjetoDTO reportObjetoDTO){
-        List<Report> Listreport = reportRepository.findByObjetoReport(
-                reportObjetoDTO.getId(),
-                reportObjetoDTO.getCoordenadas(),
-                reportObjetoDTO.getClassificacaoRisco(),
-                reportObjetoDTO.getFkCidadaoID()
-        );
+    public void transmitirTodoReport(OffsetDateTime de, OffsetDateTime ate, Consumer<ReportResponseDTO> consumidor) {
+        PeriodoUtil.Periodo periodo = PeriodoUtil.resolver(de, ate);
+        try (Stream<ReportResponseDTO> reports = reportRepository.transmitirTodos(periodo.inicio(), periodo.fim())) {
+            reports.forEach(consumidor);
+        }
+    }
 
-        return mapearReportsResponseDTO(Listreport);
+    /**
+     * Reports cujas coordenadas caem dentro da caixa (viewport do mapa).
+     */
+    @Transactional(readOnly = true)
+    public List<ReportResponseDTO> buscarReportsNaCaixa(
+            double minLatitude, double minLongitude,
+            double maxLatitude, double maxLongitude,
+            OffsetDateTime de, OffsetDateTime ate,
+            int limite) {
+        if (!GeoUtil.latitudeValida(minLatitude) || !GeoUtil.latitudeValida(maxLatitude)
+                || !GeoUtil.longitudeValida(minLongitude) || !GeoUtil.longitudeValida(maxLongitude)) {
+            throw new IllegalArgumentException("Coordenadas da caixa fora do intervalo válido.");
+        }
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("O canto mínimo da caixa deve ser menor que o máximo.");
+        }
+        PeriodoUtil.Periodo periodo = PeriodoUtil.resolver(de, ate);
+        List<UUID> ids = reportRepository.buscarIdsNaCaixa(
+                minLatitude, minLongitude, maxLatitude, maxLongitude,
+                periodo.inicio(), periodo.fim(), limitarBuscaEspacial(limite));
+        return buscarResponseNaOrdem(ids, periodo);
+    }
 
+    /**
+     * Reports a até {@code metros} do ponto informado, do mais próximo ao mais distante.
+     */
+    @Transactional(readOnly = true)
+    public List<ReportResponseDTO> buscarReportsNoRaio(
+            double latitude, double longitude, double metros,
+            OffsetDateTime de, OffsetDateTime ate,
+            int limite) {
+        if (!GeoUtil.latitudeValida(latitude) || !GeoUtil.longitudeValida(longitude)) {
+            throw new IllegalArgumentException("Coordenadas do ponto fora do intervalo válido.");
+        }
+        if (metros <= 0 || metros > RAIO_MAXIMO_METROS) {
+            throw new IllegalArgumentException("O raio deve estar entre 0 e " + (int) RAIO_MAXIMO_METROS + " metros.");
+        }
+        PeriodoUtil.Periodo periodo = PeriodoUtil.resolver(de, ate);
+        GeoUtil.Caixa caixa = GeoUtil.caixaEnvolvente(latitude, longitude, metros);
+        List<UUID> ids = reportRepository.buscarIdsNoRaio(
+                latitude, longitude, metros,
+                caixa.minLatitude(), caixa.minLongitude(), caixa.maxLatitude(), caixa.maxLongitude(),
+                periodo.inicio(), periodo.fim(),
+                limitarBuscaEspacial(limite));
+        return buscarResponseNaOrdem(ids, periodo);
     }
 
+    @Transactional(readOnly = true)
+    public List<ReportResponseDTO> buscarReportEspecifico(UUID uuid){
+        return reportRepository.buscarResponsePorId(uuid);
+    }
+
+    @Transactional(readOnly = true)
+    public VersaoRecursoDTO buscarVersaoReport(UUID uuid){
+        return reportRepository.buscarVersaoPorId(uuid);
+    }
 
     @Transactional(readOnly = true)
-    public List<ReportResponseDTO> buscarReportsPorMunicipio(String nome, UUID id, Estado estado) {
+    public Page<ReportResponseDTO> buscarReportObjeto(
+            ReportObjetoDTO reportObjetoDTO, int pagina, int tamanho, OffsetDateTime de, OffsetDateTime ate){
+        PeriodoUtil.Periodo periodo = PeriodoUtil.resolver(de, ate);
+        Pageable paginacao = PageRequest.of(
+                Math.max(pagina, 0),
+                Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO),
+                // Mesma direção nas duas colunas: o índice (created_at, report_id) serve lido de trás para frente
+                Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"))
+        );
+        Specification<Report> filtro = ReportSpecification.porFiltro(reportObjetoDTO)
+                .and(ReportSpecification.noPeriodo(periodo.inicio(), periodo.fim()));
+        return reportRepository.findAll(filtro, paginacao)
+                .map(this::retornarResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReportResponseDTO> buscarReportsPorMunicipio(
+            String nome, UUID id, Estado estado, OffsetDateTime de, OffsetDateTime ate) {
         if (id == null && (nome == null || nome.isBlank())) {
             throw new IllegalArgumentException("É necessário fornecer o ID do Município ou o Nome do Município.");
         }
-        Optional<Municipio> municipioOpt = Optional.empty();
-        if (id != null) {
-            municipioOpt = municipioRepository.buscarPorNomeOuIdEEstado(null, id, estado.name());
-        }
-        if (municipioOpt.isEmpty() && nome != null && !nome.isBlank()) {
-            municipioOpt = municipioRepository.buscarPorNomeOuIdEEstado(nome, null, estado.name());
-        }
+        Optional<Municipio> municipioOpt = municipioResolver.resolver(nome, id, estado);
         if (municipioOpt.isEmpty()) {
             throw new IllegalArgumentException("Município não encontrado para os critérios fornecidos (ID e/ou Nome).");
         }
+        PeriodoUtil.Periodo periodo = PeriodoUtil.resolver(de, ate);
         UUID municipioId = municipioOpt.get().getId();
-        List<Report> reports = reportRepository.buscarReportsPorMunicipioId(municipioId);
-        if (reports.isEmpty()) {
-            return Collections.emptyList();
-        }
-        return reports.stream()
-                .map(this::retornarResponse)
-                .collect(Collectors.toList());
+        return reportRepository.buscarResponsePorMunicipioId(municipioId, periodo.inicio(), periodo.fim());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReportResponseDTO> buscarReportCidadaoEspecifico(UUID uuid, OffsetDateTime de, OffsetDateTime ate){
+        PeriodoUtil.Periodo periodo = PeriodoUtil.resolver(de, ate);
+        return reportRepository.buscarResponsePorCidadaoId(uuid, periodo.inicio(), periodo.fim());
     }
 
     @Transactional(readOnly = true)
-    public List<ReportResponseDTO> buscarReportCidadaoEspecifico(UUID uuid){
-        List<Report> reports = reportRepository.findByCidadao_Id(uuid);
-        return mapearReportsResponseDTO(reports);
+    public VersaoRecursoDTO buscarVersaoReportsCidadao(UUID uuidCidadao){
+        return reportRepository.buscarVersaoPorCidadaoId(uuidCidadao);
     }
 
+    @Transactional
     public void deletarReportEspecifico(UUID uuid){
+        Optional<Report> report = reportRepository.findById(uuid);
+        report.ifPresent(r ->
+                contadorRiscoService.registrarAlteracao(idCidadao(r), r.getClassificacaoRisco(), -1));
         deletarEntidadeNaoRetornar(uuid);
+        UUID cidadaoId = report.map(this::idCidadao).orElse(null);
+        eventPublisher.publishEvent(ReportAlteradoEvent.removido(uuid, cidadaoId, autor(cidadaoId)));
     }
 
     @Transactional
     public void deletarTodoReportCidadao(UUID uuidCidadao){
+        List<UUID> idsRemovidos = reportRepository.buscarIdsPorCidadaoId(uuidCidadao);
+        contadorRiscoService.registrarRemocaoCidadao(uuidCidadao);
         reportRepository.deleteAllByCidadaoId(uuidCidadao);
+        CidadaoCache.CidadaoResumo autor = autor(uuidCidadao);
+        idsRemovidos.forEach(id -> eventPublisher.publishEvent(ReportAlteradoEvent.removido(id, uuidCidadao, autor)));
+    }
+
+    /**
+     * Apaga até {@code tamanho} reports do cidadão numa transação curta, descontando os
+     * contadores e publicando a remoção de cada um. Retorna quantos foram apagados
+     * (0 quando não resta nenhum). Usado pelo ApagamentoCidadaoService.
+     */
+    @Transactional
+    public int apagarLoteReportsCidadao(UUID uuidCidadao, int tamanho){
+        List<ReportLocalizacaoDTO> lote = reportRepository.buscarLocalizacoesPorCidadaoId(uuidCidadao, Limit.of(tamanho));
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        contadorRiscoService.registrarAlteracoes(lote.stream()
+                .map(report -> new ContagemRiscoCidadaoDTO(uuidCidadao, report.getClassificacaoRisco(), -1))
+                .toList());
+        List<UUID> ids = lote.stream().map(ReportLocalizacaoDTO::getId).toList();
+        reportRepository.deleteAllByIdInBatch(ids);
+        CidadaoCache.CidadaoResumo autor = autor(uuidCidadao);
+        ids.forEach(id -> eventPublisher.publishEvent(ReportAlteradoEvent.removido(id, uuidCidadao, autor)));
+        return ids.size();
+    }
+
+    @Transactional(readOnly = true)
+    public long contarReportsCidadao(UUID uuidCidadao){
+        return reportRepository.countByCidadaoId(uuidCidadao);
     }
     // Metodos auxiliares:
     private Report salvarEntidadeRetornar(Report report){
@@ -126,20 +428,82 @@ public class ReportService {
         Report report = new Report();
         report.setCidadao(buscarCidadao(reportCriacaoDTO.getFkCidadaoID()));
         report.setCoordenadas(reportCriacaoDTO.getCoordenadas());
+        aplicarLocalizacao(report);
         report.setClassificacaoRisco(reportCriacaoDTO.getClassificacaoRisco());
         return report;
     }
 
     private void atualizarReport(Report report, ReportAtualizarDTO reportAtualizarDTO){
         report.setCoordenadas(reportAtualizarDTO.getCoordenadas());
+        aplicarLocalizacao(report);
         report.setClassificacaoRisco(reportAtualizarDTO.getClassificacaoRisco());
         report.setUpdatedBy(OffsetDateTime.now());
         report.setCidadao(buscarCidadao(reportAtualizarDTO.getFkCidadaoID()));
     }
 
+    private UUID idCidadao(Report report) {
+        return report.getCidadao() != null ? report.getCidadao().getId() : null;
+    }
+
+    // Autor do report como vai no evento; resolvido antes do commit, em geral num hit do cache
+    private CidadaoCache.CidadaoResumo autor(UUID idCidadao) {
+        return cidadaoCache.buscar(idCidadao).orElse(null);
+    }
+
+    // Autores de um lote em no máximo uma consulta
+    private Map<UUID, CidadaoCache.CidadaoResumo> autores(List<Report> reports) {
+        if (reports.isEmpty()) {
+            return Map.of();
+        }
+        return cidadaoCache.buscarTodos(reports.stream().map(this::idCidadao).collect(Collectors.toSet()));
+    }
+
+    private void aplicarLocalizacao(Report report) {
+        Optional<GeoUtil.Coordenada> coordenada = GeoUtil.extrairCoordenada(report.getCoordenadas());
+        if (coordenada.isEmpty()) {
+            log.warn("Report sem latitude/longitude reconhecível; não aparecerá nas buscas espaciais");
+        }
+        report.setLatitude(coordenada.map(GeoUtil.Coordenada::latitude).orElse(null));
+        report.setLongitude(coordenada.map(GeoUtil.Coordenada::longitude).orElse(null));
+    }
+
+    private String validarItemLote(ReportCriacaoDTO dto, Set<UUID> cidadaosExistentes) {
+        if (dto == null) {
+            return "Report vazio";
+        }
+        if (dto.getCoordenadas() == null || dto.getCoordenadas().isBlank()) {
+            return "Coordenadas não informadas";
+        }
+        if (dto.getClassificacaoRisco() == null || dto.getClassificacaoRisco().isBlank()) {
+            return "Classificação de risco não informada";
+        }
+        if (dto.getFkCidadaoID() == null || !cidadaosExistentes.contains(dto.getFkCidadaoID())) {
+            return "Cidadao não encontrado";
+        }
+        return null;
+    }
+
+    private int limitarBuscaEspacial(int limite) {
+        return Math.min(Math.max(limite, 1), LIMITE_BUSCA_ESPACIAL_MAXIMO);
+    }
+
+    // Carrega os DTOs dos ids encontrados preservando a ordem devolvida pela consulta espacial
+    private List<ReportResponseDTO> buscarResponseNaOrdem(List<UUID> ids, PeriodoUtil.Periodo periodo) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Integer> posicao = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            posicao.put(ids.get(i), i);
+        }
+        List<ReportResponseDTO> reports = new ArrayList<>(reportRepository.buscarResponsePorIds(ids, periodo.inicio(), periodo.fim()));
+        reports.sort(Comparator.comparing(report -> posicao.get(report.getId())));
+        return reports;
+    }
+
     private ReportResponseDTO retornarResponse(Report report){
         ReportResponseDTO reportResponseDTO = new ReportResponseDTO();
-        reportResponseDTO.setNomeCidadao(report.getCidadao().getNome());
+        reportResponseDTO.setNomeCidadao(nomeCidadao(report.getCidadao()));
         reportResponseDTO.setId(report.getId());
         reportResponseDTO.setClassificacaoRisco(report.getClassificacaoRisco());
         reportResponseDTO.setCoordenadas(report.getCoordenadas());
@@ -149,17 +513,51 @@ public class ReportService {
     }
 
     private Cidadao buscarCidadao(UUID uuid){
-        return cidadaoRepository.findById(uuid)
-                .orElseThrow(() -> new IllegalArgumentException("Cidadao não encontrado"));
+        return cidadaoCache.referenciar(uuid);
+    }
+
+    // Nos caminhos de escrita o cidadão é só uma referência: o nome vem do cache em vez de inicializar o proxy
+    private String nomeCidadao(Cidadao cidadao){
+        if (cidadao == null) {
+            return null;
+        }
+        if (Hibernate.isInitialized(cidadao)) {
+            return cidadao.getNome();
+        }
+        return cidadaoCache.buscar(cidadao.getId())
+                .map(CidadaoCache.CidadaoResumo::nome)
+                .orElse(null);
     }
 
     private Report buscarReport(UUID uuid){
         return reportRepository.findById(uuid).orElseThrow(() -> new IllegalArgumentException("Report não encontrado"));
     }
 
-    private List<ReportResponseDTO> mapearReportsResponseDTO(List<Report> reports) {
-        return reports.stream()
-                .map(this::retornarResponse)
-                .collect(Collectors.toList());
+    private List<ReportResponseDTO> buscarPaginaAposCursor(String cursor, PeriodoUtil.Periodo periodo, Limit limite) {
+        String decodificado;
+        try {
+            decodificado = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        int separador = decodificado.indexOf(SEPARADOR_CURSOR);
+        if (separador < 0) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        OffsetDateTime createdAt;
+        UUID id;
+        try {
+            createdAt = OffsetDateTime.parse(decodificado.substring(0, separador));
+            id = UUID.fromString(decodificado.substring(separador + 1));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return reportRepository.buscarPaginaApos(createdAt, id, periodo.inicio(), periodo.fim(), limite);
+    }
+
+    private String codificarCursor(ReportResponseDTO report) {
+        String chave = report.getCreatedAt() + SEPARADOR_CURSOR + report.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(chave.getBytes(StandardCharsets.UTF_8));
     }
 }
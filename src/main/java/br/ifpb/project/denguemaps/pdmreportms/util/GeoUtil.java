@@ -0,0 +1,100 @@
+package br.ifpb.project.denguemaps.pdmreportms.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Funções geográficas usadas nas buscas espaciais de reports.
+ * Distâncias são calculadas sobre a esfera (haversine), suficiente para a escala de um município.
+ */
+public final class GeoUtil {
+    public static final double RAIO_TERRA_METROS = 6_371_008.8;
+    private static final double METROS_POR_GRAU_LATITUDE = 111_320.0;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private GeoUtil() {
+    }
+
+    public record Coordenada(double latitude, double longitude) {
+    }
+
+    public record Caixa(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        public boolean contem(double latitude, double longitude) {
+            return latitude >= minLatitude && latitude <= maxLatitude
+                    && longitude >= minLongitude && longitude <= maxLongitude;
+        }
+    }
+
+    /**
+     * Extrai latitude/longitude do jsonb de coordenadas do report.
+     * Aceita as chaves "lat"/"latitude" e "lon"/"lng"/"longitude".
+     * Retorna vazio quando o JSON não tem uma coordenada válida.
+     */
+    public static Optional<Coordenada> extrairCoordenada(String coordenadasJson) {
+        if (coordenadasJson == null || coordenadasJson.isBlank()) {
+            return Optional.empty();
+        }
+        JsonNode raiz;
+        try {
+            raiz = MAPPER.readTree(coordenadasJson);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        JsonNode latitude = primeiroNumero(raiz, "lat", "latitude");
+        JsonNode longitude = primeiroNumero(raiz, "lon", "lng", "longitude");
+        if (latitude == null || longitude == null) {
+            return Optional.empty();
+        }
+        double lat = latitude.asDouble();
+        double lon = longitude.asDouble();
+        if (!latitudeValida(lat) || !longitudeValida(lon)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Coordenada(lat, lon));
+    }
+
+    public static double distanciaMetros(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * RAIO_TERRA_METROS * Math.asin(Math.sqrt(a));
+    }
+
+    /**
+     * Caixa que envolve o círculo de raio {@code metros} em torno do ponto.
+     * Serve de pré-filtro indexável antes do cálculo exato da distância.
+     */
+    public static Caixa caixaEnvolvente(double latitude, double longitude, double metros) {
+        double deltaLat = metros / METROS_POR_GRAU_LATITUDE;
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 1e-6);
+        double deltaLon = metros / (METROS_POR_GRAU_LATITUDE * cosLat);
+        return new Caixa(
+                Math.max(latitude - deltaLat, -90),
+                Math.max(longitude - deltaLon, -180),
+                Math.min(latitude + deltaLat, 90),
+                Math.min(longitude + deltaLon, 180)
+        );
+    }
+
+    public static boolean latitudeValida(double latitude) {
+        return latitude >= -90 && latitude <= 90;
+    }
+
+    public static boolean longitudeValida(double longitude) {
+        return longitude >= -180 && longitude <= 180;
+    }
+
+    private static JsonNode primeiroNumero(JsonNode raiz, String... chaves) {
+        for (String chave : chaves) {
+            JsonNode valor = raiz.get(chave);
+            if (valor != null && valor.isNumber()) {
+                return valor;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+package br.ifpb.project.denguemaps.pdmreportms.util;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.versao.VersaoRecursoDTO;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+public final class GetCondicionalUtil {
+    // Sem isso o Spring Security responde no-store e o cliente nunca revalida
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private GetCondicionalUtil() {
+    }
+
+    /**
+     * Compara a versão atual com If-None-Match/If-Modified-Since e grava ETag e Last-Modified na resposta.
+     * Retorna true quando o cliente já tem a versão atual: o 304 já foi preparado e o controller
+     * deve retornar null sem carregar o recurso. Recurso inexistente segue o fluxo normal.
+     */
+    public static boolean naoModificado(ServletWebRequest requisicao, VersaoRecursoDTO versao) {
+        if (versao == null || !versao.existe()) {
+            return false;
+        }
+        HttpServletResponse resposta = requisicao.getResponse();
+        if (resposta != null) {
+            resposta.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return requisicao.checkNotModified(versao.etag(), versao.ultimaAlteracaoMillis());
+    }
+}
@@ -0,0 +1,51 @@
+package br.ifpb.project.denguemaps.pdmreportms.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class JsonCanonicoUtil {
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .build();
+
+    private JsonCanonicoUtil() {
+    }
+
+    /**
+     * Forma canônica do JSON: chaves de objeto ordenadas e sem espaços.
+     * Ex: {"q2": "B", "q1": "A"} -> {"q1":"A","q2":"B"}.
+     */
+    public static String canonizar(String json) {
+        if (json == null || json.isBlank()) {
+            throw new IllegalArgumentException("JSON vazio.");
+        }
+        try {
+            return MAPPER.writeValueAsString(MAPPER.readValue(json, Object.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * SHA-256 (hex minúsculo) da forma canônica: JSONs que diferem só na ordem das chaves
+     * ou na formatação têm o mesmo hash.
+     */
+    public static String hash(String jsonCanonico) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jsonCanonico.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Todo JRE é obrigado a oferecer SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
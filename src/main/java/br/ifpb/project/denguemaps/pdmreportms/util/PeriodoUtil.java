@@ -0,0 +1,30 @@
+package br.ifpb.project.denguemaps.pdmreportms.util;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+public final class PeriodoUtil {
+    public static final OffsetDateTime INICIO_PADRAO = Instant.EPOCH.atOffset(ZoneOffset.UTC);
+
+    private PeriodoUtil() {
+    }
+
+    // Intervalo [inicio, fim) das consultas por created_at
+    public record Periodo(OffsetDateTime inicio, OffsetDateTime fim) {
+    }
+
+    /**
+     * Completa o intervalo informado: sem {@code de}, desde o início; sem {@code ate}, até agora.
+     * As consultas sempre recebem os dois limites, o que permite ao Postgres descartar as
+     * partições de report fora do intervalo.
+     */
+    public static Periodo resolver(OffsetDateTime de, OffsetDateTime ate) {
+        OffsetDateTime inicio = de != null ? de : INICIO_PADRAO;
+        OffsetDateTime fim = ate != null ? ate : OffsetDateTime.now();
+        if (!inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("A data inicial deve ser anterior à data final.");
+        }
+        return new Periodo(inicio, fim);
+    }
+}
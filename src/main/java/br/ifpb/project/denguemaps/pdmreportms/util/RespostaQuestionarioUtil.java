@@ -0,0 +1,140 @@
+package br.ifpb.project.denguemaps.pdmreportms.util;
+
+import br.ifpb.project.denguemaps.pdmreportms.entity.RespostaQuestionario;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+public final class RespostaQuestionarioUtil {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] CAMPOS_TEXTO_PERGUNTA = {"texto", "pergunta", "descricao"};
+    private static final String[] CAMPOS_CHAVE = {"id", "perguntaId", "chave"};
+    private static final String[] CAMPOS_RESPOSTA = {"resposta", "valor"};
+
+    private RespostaQuestionarioUtil() {
+    }
+
+    /**
+     * Extrai as respostas dos jsonb de perguntas e respostas do questionário.
+     * Formatos aceitos:
+     * - objetos chaveados pelo id da pergunta: {"q1": "Há água parada?"} / {"q1": "Sim"};
+     * - listas alinhadas pela posição: ["Há água parada?"] / ["Sim"];
+     * - respostas como lista de objetos: [{"id": "q1", "pergunta": "Há água parada?", "resposta": "Sim"}].
+     * Respostas em lista (múltipla escolha) viram uma linha por opção. Nulos são ignorados
+     * e JSON inválido resulta em lista vazia.
+     */
+    public static List<RespostaQuestionario> normalizar(String perguntasJson, String respostasJson) {
+        List<RespostaQuestionario> respostas = new ArrayList<>();
+        if (respostasJson == null || respostasJson.isBlank()) {
+            return respostas;
+        }
+        try {
+            Map<String, String> perguntas = lerPerguntas(perguntasJson);
+            List<String> chavesNaOrdem = new ArrayList<>(perguntas.keySet());
+            JsonNode raiz = MAPPER.readTree(respostasJson);
+            if (raiz.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> campos = raiz.fields();
+                while (campos.hasNext()) {
+                    Map.Entry<String, JsonNode> campo = campos.next();
+                    adicionar(respostas, campo.getKey(), perguntas, campo.getValue());
+                }
+            } else if (raiz.isArray()) {
+                for (int i = 0; i < raiz.size(); i++) {
+                    JsonNode item = raiz.get(i);
+                    String chave = i < chavesNaOrdem.size() ? chavesNaOrdem.get(i) : String.valueOf(i);
+                    JsonNode valor = item;
+                    if (item.isObject() && temAlgumCampo(item, CAMPOS_RESPOSTA)) {
+                        // {"id": "q1", "pergunta": "...", "resposta": "..."}: id e texto são opcionais
+                        String chaveItem = primeiroTexto(item, CAMPOS_CHAVE);
+                        chave = chaveItem != null ? chaveItem : chave;
+                        String textoItem = primeiroTexto(item, CAMPOS_TEXTO_PERGUNTA);
+                        if (textoItem != null) {
+                            perguntas.putIfAbsent(chave, textoItem.trim());
+                        }
+                        valor = primeiroCampo(item, CAMPOS_RESPOSTA);
+                    }
+                    adicionar(respostas, chave, perguntas, valor);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Respostas do questionário em JSON inválido; não serão agregadas: {}", e.getOriginalMessage());
+            respostas.clear();
+        }
+        return respostas;
+    }
+
+    // Chave da pergunta -> texto, na ordem em que aparecem
+    private static Map<String, String> lerPerguntas(String perguntasJson) throws JsonProcessingException {
+        Map<String, String> perguntas = new LinkedHashMap<>();
+        if (perguntasJson == null || perguntasJson.isBlank()) {
+            return perguntas;
+        }
+        JsonNode raiz = MAPPER.readTree(perguntasJson);
+        if (raiz.isObject()) {
+            raiz.fields().forEachRemaining(campo -> perguntas.put(campo.getKey(), textoPergunta(campo.getValue())));
+        } else if (raiz.isArray()) {
+            for (int i = 0; i < raiz.size(); i++) {
+                JsonNode item = raiz.get(i);
+                String chave = item.isObject() ? primeiroTexto(item, CAMPOS_CHAVE) : null;
+                perguntas.put(chave != null ? chave : String.valueOf(i), textoPergunta(item));
+            }
+        }
+        return perguntas;
+    }
+
+    private static void adicionar(List<RespostaQuestionario> respostas, String chave, Map<String, String> perguntas, JsonNode valor) {
+        if (valor == null || valor.isNull() || valor.isMissingNode()) {
+            return;
+        }
+        if (valor.isArray()) {
+            valor.forEach(opcao -> adicionar(respostas, chave, perguntas, opcao));
+            return;
+        }
+        String texto = valor.isValueNode() ? valor.asText() : valor.toString();
+        String resposta = TextoUtil.normalizar(texto);
+        if (resposta == null || resposta.isEmpty()) {
+            return;
+        }
+        String pergunta = perguntas.get(chave);
+        respostas.add(new RespostaQuestionario(chave, pergunta != null ? pergunta : chave, resposta));
+    }
+
+    private static String textoPergunta(JsonNode no) {
+        if (no.isObject()) {
+            String texto = primeiroTexto(no, CAMPOS_TEXTO_PERGUNTA);
+            return texto != null ? texto.trim() : no.toString();
+        }
+        return no.asText().trim();
+    }
+
+    private static JsonNode primeiroCampo(JsonNode no, String[] campos) {
+        for (String campo : campos) {
+            if (no.hasNonNull(campo)) {
+                return no.get(campo);
+            }
+        }
+        return null;
+    }
+
+    private static boolean temAlgumCampo(JsonNode no, String[] campos) {
+        for (String campo : campos) {
+            if (no.has(campo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String primeiroTexto(JsonNode no, String[] campos) {
+        JsonNode campo = primeiroCampo(no, campos);
+        return campo != null && campo.isValueNode() ? campo.asText() : null;
+    }
+}
@@ -0,0 +1,25 @@
+package br.ifpb.project.denguemaps.pdmreportms.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class TextoUtil {
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private TextoUtil() {
+    }
+
+    /**
+     * Forma canônica para comparação de nomes: sem acentos, minúscula e com espaços colapsados.
+     * Ex: "  São   José de Piranhas" -> "sao jose de piranhas".
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
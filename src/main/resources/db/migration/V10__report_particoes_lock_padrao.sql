@@ -0,0 +1,88 @@
+-- report_criar_particoes movia as linhas do mês para fora de report_padrao antes do ATTACH, sem
+-- bloquear inserts: um report gravado nesse intervalo caía de novo na partição padrão e o ATTACH
+-- falhava com check_violation. O ATTACH também precisa de ACCESS EXCLUSIVE em report_padrao e,
+-- atrás de uma leitura longa, estourava o lock_timeout (lock_not_available). Os dois erros
+-- subiam até ParticaoReportService e derrubavam a subida do pod.
+-- Agora report_padrao é bloqueada para escrita (SHARE ROW EXCLUSIVE: leituras seguem, inserts
+-- esperam) antes de mover as linhas, e os dois erros são tratados mês a mês: o mês é desfeito,
+-- fica um WARNING no log do banco e a manutenção tenta de novo na próxima execução.
+-- report_desanexar_particoes ganha o mesmo tratamento para lock_not_available no DETACH.
+
+CREATE OR REPLACE FUNCTION report_criar_particoes(inicio timestamptz, meses integer) RETURNS integer
+LANGUAGE plpgsql AS $$
+DECLARE
+    mes timestamp := date_trunc('month', inicio AT TIME ZONE 'UTC');
+    proximo timestamp;
+    nome text;
+    criadas integer := 0;
+BEGIN
+    IF NOT pg_try_advisory_xact_lock(hashtext('report_particoes')) THEN
+        RETURN 0;
+    END IF;
+    -- Sem esperar indefinidamente por consultas longas; o job tenta de novo na próxima execução
+    PERFORM set_config('lock_timeout', '5s', true);
+    FOR i IN 1 .. meses LOOP
+        proximo := mes + interval '1 month';
+        nome := 'report_p' || to_char(mes, 'YYYY_MM');
+        IF to_regclass(nome) IS NULL THEN
+            BEGIN
+                EXECUTE format('CREATE TABLE %I (LIKE report INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE)', nome);
+                -- Nenhum insert entra na partição padrão entre mover as linhas e anexar a nova
+                LOCK TABLE report_padrao IN SHARE ROW EXCLUSIVE MODE;
+                EXECUTE format('WITH movidos AS (DELETE FROM report_padrao WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                               'INSERT INTO %I SELECT * FROM movidos',
+                               mes AT TIME ZONE 'UTC', proximo AT TIME ZONE 'UTC', nome);
+                EXECUTE format('ALTER TABLE report ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               nome, mes AT TIME ZONE 'UTC', proximo AT TIME ZONE 'UTC');
+                criadas := criadas + 1;
+            EXCEPTION
+                WHEN invalid_object_definition THEN
+                    -- Sobreposição com outra partição: o mês já está coberto
+                    NULL;
+                WHEN duplicate_table THEN
+                    -- Criada em paralelo fora desta função: fica para quem a criou anexar
+                    NULL;
+                WHEN lock_not_available THEN
+                    -- Leitura longa em report_padrao; os meses seguintes esbarrariam no mesmo lock
+                    RAISE WARNING 'Partição % não criada: report_padrao ocupada (%)', nome, SQLERRM;
+                    EXIT;
+                WHEN check_violation THEN
+                    -- Linha do mês em report_padrao fora do alcance do DELETE (não deveria ocorrer com o lock)
+                    RAISE WARNING 'Partição % não anexada: %', nome, SQLERRM;
+            END;
+        END IF;
+        mes := proximo;
+    END LOOP;
+    RETURN criadas;
+END $$;
+
+CREATE OR REPLACE FUNCTION report_desanexar_particoes(limite timestamptz) RETURNS integer
+LANGUAGE plpgsql AS $$
+DECLARE
+    particao record;
+    desanexadas integer := 0;
+BEGIN
+    -- Mesmo lock de report_criar_particoes; na mesma transação ele é reentrante
+    IF NOT pg_try_advisory_xact_lock(hashtext('report_particoes')) THEN
+        RETURN 0;
+    END IF;
+    PERFORM set_config('lock_timeout', '5s', true);
+    FOR particao IN
+        SELECT c.relname
+          FROM pg_inherits h JOIN pg_class c ON c.oid = h.inhrelid
+         WHERE h.inhparent = 'report'::regclass
+           AND c.relname ~ '^report_p[0-9]{4}_[0-9]{2}$'
+           AND (to_date(substr(c.relname, 9), 'YYYY_MM') + interval '1 month') AT TIME ZONE 'UTC' <= limite
+         ORDER BY c.relname
+    LOOP
+        BEGIN
+            EXECUTE format('ALTER TABLE report DETACH PARTITION %I', particao.relname);
+            desanexadas := desanexadas + 1;
+        EXCEPTION
+            WHEN lock_not_available THEN
+                RAISE WARNING 'Partição % não desanexada: report ocupada (%)', particao.relname, SQLERRM;
+                EXIT;
+        END;
+    END LOOP;
+    RETURN desanexadas;
+END $$;
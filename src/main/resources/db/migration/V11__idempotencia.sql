@@ -0,0 +1,19 @@
+-- Chaves Idempotency-Key (IdempotenciaCache). O cache em memória era por instância e limitado:
+-- uma repetição que caía em outra réplica, ou depois de a chave sair do cache, gravava de novo.
+-- A linha é inserida na mesma transação da criação e recebe a resposta antes do commit: a chave
+-- só fica registrada se a criação foi confirmada, e uma repetição simultânea (em qualquer
+-- instância) espera no índice único até a original terminar.
+CREATE TABLE IF NOT EXISTS idempotencia (
+    operacao        VARCHAR(64)              NOT NULL,
+    usuario         VARCHAR(255)             NOT NULL,
+    chave           VARCHAR(255)             NOT NULL,
+    -- SHA-256 da requisição, para recusar a mesma chave com outro conteúdo
+    requisicao_hash VARCHAR(64)              NOT NULL,
+    status          INTEGER,
+    resposta        JSONB,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    PRIMARY KEY (operacao, usuario, chave)
+);
+
+-- Limpeza das chaves vencidas (cache.idempotencia.ttl)
+CREATE INDEX IF NOT EXISTS idx_idempotencia_created_at ON idempotencia (created_at);
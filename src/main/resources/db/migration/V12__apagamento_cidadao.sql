@@ -0,0 +1,25 @@
+-- Pedidos de apagamento dos dados de um cidadão (ApagamentoCidadaoService). Ficavam só na
+-- memória da instância que os recebeu: um restart perdia o andamento e deixava o apagamento pela
+-- metade, e o GET de acompanhamento só funcionava na mesma réplica.
+-- atualizado_em avança a cada lote apagado; um pedido ativo parado há mais que
+-- apagamento-cidadao.retomar-apos é retomado por qualquer instância.
+CREATE TABLE IF NOT EXISTS apagamento_cidadao (
+    apagamento_id          UUID PRIMARY KEY,
+    fk_cidadao_id          UUID                     NOT NULL,
+    status                 VARCHAR(20)              NOT NULL,
+    reports_total          BIGINT                   NOT NULL DEFAULT 0,
+    reports_apagados       BIGINT                   NOT NULL DEFAULT 0,
+    questionarios_total    BIGINT                   NOT NULL DEFAULT 0,
+    questionarios_apagados BIGINT                   NOT NULL DEFAULT 0,
+    iniciado_em            TIMESTAMP WITH TIME ZONE,
+    concluido_em           TIMESTAMP WITH TIME ZONE,
+    erro                   TEXT,
+    atualizado_em          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- No máximo um pedido ativo por cidadão, entre todas as instâncias
+CREATE UNIQUE INDEX IF NOT EXISTS uk_apagamento_cidadao_ativo
+    ON apagamento_cidadao (fk_cidadao_id) WHERE status IN ('PENDENTE', 'EM_ANDAMENTO');
+
+-- Busca dos pedidos parados e limpeza dos encerrados
+CREATE INDEX IF NOT EXISTS idx_apagamento_cidadao_atualizado_em ON apagamento_cidadao (atualizado_em);
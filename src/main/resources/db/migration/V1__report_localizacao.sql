@@ -0,0 +1,18 @@
+-- Coordenadas tipadas do report, extraídas do jsonb "coordenadas" para permitir busca espacial.
+ALTER TABLE report ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE report ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+UPDATE report r SET
+    latitude = COALESCE(
+        CASE WHEN jsonb_typeof(r.coordenadas -> 'lat') = 'number' THEN (r.coordenadas ->> 'lat')::double precision END,
+        CASE WHEN jsonb_typeof(r.coordenadas -> 'latitude') = 'number' THEN (r.coordenadas ->> 'latitude')::double precision END),
+    longitude = COALESCE(
+        CASE WHEN jsonb_typeof(r.coordenadas -> 'lon') = 'number' THEN (r.coordenadas ->> 'lon')::double precision END,
+        CASE WHEN jsonb_typeof(r.coordenadas -> 'lng') = 'number' THEN (r.coordenadas ->> 'lng')::double precision END,
+        CASE WHEN jsonb_typeof(r.coordenadas -> 'longitude') = 'number' THEN (r.coordenadas ->> 'longitude')::double precision END)
+WHERE r.latitude IS NULL OR r.longitude IS NULL;
+
+-- Índice GiST sobre point(longitude, latitude): atende "<@ box" (bbox) e o pré-filtro da busca por raio
+CREATE INDEX IF NOT EXISTS idx_report_localizacao
+    ON report USING gist (point(longitude, latitude))
+    WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
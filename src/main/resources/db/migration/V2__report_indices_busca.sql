@@ -0,0 +1,7 @@
+-- Índices para a busca por filtro (ReportSpecification): cada critério é uma igualdade simples.
+-- No modo OR o planner combina os índices com BitmapOr em vez de varrer a tabela.
+CREATE INDEX IF NOT EXISTS idx_report_classificacao_risco ON report (classificacao_risco);
+CREATE INDEX IF NOT EXISTS idx_report_fk_cidadao_id ON report (fk_cidadao_id);
+CREATE INDEX IF NOT EXISTS idx_report_coordenadas ON report USING hash (coordenadas);
+-- Ordenação padrão das listagens paginadas
+CREATE INDEX IF NOT EXISTS idx_report_created_at_id ON report (created_at, report_id);
@@ -0,0 +1,22 @@
+-- Contadores de reports por município e classificação de risco (ContadorRiscoService).
+-- O estado é copiado do município para que o agregado por Estado não precise de join.
+CREATE TABLE IF NOT EXISTS report_contador_risco (
+    fk_municipio_id     UUID         NOT NULL REFERENCES municipio (municipio_id),
+    classificacao_risco VARCHAR(255) NOT NULL,
+    estado              VARCHAR(2)   NOT NULL,
+    quantidade          BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (fk_municipio_id, classificacao_risco)
+);
+
+CREATE INDEX IF NOT EXISTS idx_report_contador_risco_estado ON report_contador_risco (estado);
+
+-- Carga inicial a partir dos reports existentes
+INSERT INTO report_contador_risco (fk_municipio_id, classificacao_risco, estado, quantidade)
+SELECT m.municipio_id, r.classificacao_risco, m.estado, COUNT(*)
+FROM report r
+JOIN cidadao c ON c.cidadao_id = r.fk_cidadao_id
+JOIN endereco e ON e.endereco_id = c.fk_endereco_id
+JOIN municipio m ON m.municipio_id = e.fk_municipio_id
+WHERE r.classificacao_risco IS NOT NULL
+GROUP BY m.municipio_id, m.estado, r.classificacao_risco
+ON CONFLICT DO NOTHING;
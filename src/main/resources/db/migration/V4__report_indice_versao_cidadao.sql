@@ -0,0 +1,4 @@
+-- Consulta de versão do GET condicional (count + max(updated_by) por cidadão) respondida só pelo índice.
+-- Substitui o índice simples de fk_cidadao_id, que continua coberto pelo prefixo.
+CREATE INDEX IF NOT EXISTS idx_report_fk_cidadao_id_updated_by ON report (fk_cidadao_id, updated_by);
+DROP INDEX IF EXISTS idx_report_fk_cidadao_id;
@@ -0,0 +1,23 @@
+-- Respostas dos questionários extraídas do jsonb (uma linha por resposta/opção),
+-- preenchidas pelo serviço ao salvar, para agregação por pergunta no banco.
+CREATE TABLE IF NOT EXISTS questionario_resposta (
+    fk_questionario_id UUID NOT NULL REFERENCES questionario (questionario_id) ON DELETE CASCADE,
+    ordem INTEGER NOT NULL,
+    pergunta_chave TEXT NOT NULL,
+    pergunta TEXT NOT NULL,
+    resposta TEXT NOT NULL,
+    PRIMARY KEY (fk_questionario_id, ordem)
+);
+
+CREATE INDEX IF NOT EXISTS idx_questionario_resposta_pergunta_resposta
+    ON questionario_resposta (pergunta_chave, resposta);
+
+-- Filtro da agregação: questionários do cidadão no intervalo de datas
+CREATE INDEX IF NOT EXISTS idx_questionario_fk_cidadao_id_created_at
+    ON questionario (fk_cidadao_id, created_at);
+
+-- Junção endereço -> município usada pela agregação e pelos contadores de risco
+CREATE INDEX IF NOT EXISTS idx_endereco_fk_municipio_id ON endereco (fk_municipio_id);
+
+-- Os questionários já existentes são normalizados pela aplicação na inicialização
+-- (NormalizacaoRespostasInicial), pois o formato do jsonb varia entre clientes.
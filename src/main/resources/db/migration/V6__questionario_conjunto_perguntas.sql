@@ -0,0 +1,20 @@
+-- Conjuntos de perguntas deduplicados pelo SHA-256 do JSON canônico: os questionários
+-- novos gravam só a referência e deixam a coluna perguntas nula.
+CREATE TABLE IF NOT EXISTS questionario_conjunto_perguntas (
+    hash VARCHAR(64) PRIMARY KEY,
+    perguntas JSONB NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+ALTER TABLE questionario ADD COLUMN IF NOT EXISTS fk_conjunto_perguntas_hash VARCHAR(64)
+    REFERENCES questionario_conjunto_perguntas (hash);
+
+ALTER TABLE questionario ALTER COLUMN perguntas DROP NOT NULL;
+
+-- Todo questionário continua com perguntas: inline (legado) ou pelo conjunto
+ALTER TABLE questionario ADD CONSTRAINT ck_questionario_perguntas
+    CHECK (perguntas IS NOT NULL OR fk_conjunto_perguntas_hash IS NOT NULL);
+
+-- Os questionários já existentes são movidos para conjuntos pela aplicação na inicialização
+-- (NormalizacaoRespostasInicial), com o mesmo hash calculado para os novos. O espaço do
+-- jsonb antigo só volta para o sistema operacional após um VACUUM FULL/pg_repack da tabela.
@@ -0,0 +1,135 @@
+-- Particiona report por created_at em intervalos mensais (UTC), para consultas por período
+-- lerem só as partições do intervalo. Em tabela particionada o PK precisa conter a chave de
+-- partição, então passa a ser (report_id, created_at).
+-- Os dados existentes não são copiados: a tabela atual vira a partição report_historico,
+-- que cobre tudo até o fim do mês corrente. Os meses seguintes ganham partições próprias,
+-- criadas com antecedência por ParticaoReportService, que também desanexa as antigas.
+-- report_padrao recebe o que cair fora das partições existentes (ex: job parado) e é
+-- redistribuída quando a partição do mês é criada.
+
+DO $$
+DECLARE
+    referencias text;
+    pk text;
+    indice record;
+    fk record;
+BEGIN
+    SELECT string_agg(conrelid::regclass || '.' || conname, ', ')
+      INTO referencias
+      FROM pg_constraint
+     WHERE contype = 'f' AND confrelid = 'report'::regclass;
+    IF referencias IS NOT NULL THEN
+        RAISE EXCEPTION 'report não pode ser particionada: chaves estrangeiras apontam para ela (%)', referencias;
+    END IF;
+
+    ALTER TABLE report RENAME TO report_historico;
+
+    SELECT conname INTO pk FROM pg_constraint WHERE contype = 'p' AND conrelid = 'report_historico'::regclass;
+    IF pk IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE report_historico DROP CONSTRAINT %I', pk);
+    END IF;
+
+    -- Os índices das migrações anteriores são recriados na tabela particionada com os mesmos nomes;
+    -- na anexação os da partição são reaproveitados por terem a mesma definição
+    FOR indice IN
+        SELECT c.relname
+          FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+         WHERE i.indrelid = 'report_historico'::regclass AND c.relname LIKE 'idx\_report\_%'
+    LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I',
+                       indice.relname, replace(indice.relname, 'idx_report_', 'idx_report_historico_'));
+    END LOOP;
+
+    CREATE TABLE report (LIKE report_historico INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE)
+        PARTITION BY RANGE (created_at);
+    ALTER TABLE report ADD CONSTRAINT report_pkey PRIMARY KEY (report_id, created_at);
+
+    FOR fk IN
+        SELECT conname, pg_get_constraintdef(oid) AS definicao
+          FROM pg_constraint
+         WHERE contype = 'f' AND conrelid = 'report_historico'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE report ADD CONSTRAINT %I %s', fk.conname, fk.definicao);
+    END LOOP;
+END $$;
+
+CREATE INDEX idx_report_localizacao
+    ON report USING gist (point(longitude, latitude))
+    WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
+CREATE INDEX idx_report_classificacao_risco ON report (classificacao_risco);
+CREATE INDEX idx_report_coordenadas ON report USING hash (coordenadas);
+CREATE INDEX idx_report_created_at_id ON report (created_at, report_id);
+CREATE INDEX idx_report_fk_cidadao_id_updated_by ON report (fk_cidadao_id, updated_by);
+
+-- Cria as partições mensais de [mês de inicio, + meses) que ainda não existem.
+-- Meses já cobertos por outra partição (report_historico) são ignorados.
+CREATE OR REPLACE FUNCTION report_criar_particoes(inicio timestamptz, meses integer) RETURNS integer
+LANGUAGE plpgsql AS $$
+DECLARE
+    mes timestamp := date_trunc('month', inicio AT TIME ZONE 'UTC');
+    proximo timestamp;
+    nome text;
+    criadas integer := 0;
+BEGIN
+    -- Sem esperar indefinidamente por consultas longas; o job tenta de novo na próxima execução
+    PERFORM set_config('lock_timeout', '5s', true);
+    FOR i IN 1 .. meses LOOP
+        proximo := mes + interval '1 month';
+        nome := 'report_p' || to_char(mes, 'YYYY_MM');
+        IF to_regclass(nome) IS NULL THEN
+            BEGIN
+                EXECUTE format('CREATE TABLE %I (LIKE report INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE)', nome);
+                EXECUTE format('WITH movidos AS (DELETE FROM report_padrao WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                               'INSERT INTO %I SELECT * FROM movidos',
+                               mes AT TIME ZONE 'UTC', proximo AT TIME ZONE 'UTC', nome);
+                EXECUTE format('ALTER TABLE report ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               nome, mes AT TIME ZONE 'UTC', proximo AT TIME ZONE 'UTC');
+                criadas := criadas + 1;
+            EXCEPTION WHEN invalid_object_definition THEN
+                -- Sobreposição com outra partição: o mês já está coberto
+                NULL;
+            END;
+        END IF;
+        mes := proximo;
+    END LOOP;
+    RETURN criadas;
+END $$;
+
+-- Desanexa as partições mensais que terminam até limite. Viram tabelas comuns com o mesmo
+-- nome (para arquivar ou apagar); report_historico não é tocada.
+CREATE OR REPLACE FUNCTION report_desanexar_particoes(limite timestamptz) RETURNS integer
+LANGUAGE plpgsql AS $$
+DECLARE
+    particao record;
+    desanexadas integer := 0;
+BEGIN
+    PERFORM set_config('lock_timeout', '5s', true);
+    FOR particao IN
+        SELECT c.relname
+          FROM pg_inherits h JOIN pg_class c ON c.oid = h.inhrelid
+         WHERE h.inhparent = 'report'::regclass
+           AND c.relname ~ '^report_p[0-9]{4}_[0-9]{2}$'
+           AND (to_date(substr(c.relname, 9), 'YYYY_MM') + interval '1 month') AT TIME ZONE 'UTC' <= limite
+         ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE report DETACH PARTITION %I', particao.relname);
+        desanexadas := desanexadas + 1;
+    END LOOP;
+    RETURN desanexadas;
+END $$;
+
+DO $$
+DECLARE
+    limite timestamp;
+BEGIN
+    SELECT greatest(date_trunc('month', now() AT TIME ZONE 'UTC'),
+                    date_trunc('month', max(created_at) AT TIME ZONE 'UTC')) + interval '1 month'
+      INTO limite
+      FROM report_historico;
+    EXECUTE format('ALTER TABLE report ATTACH PARTITION report_historico FOR VALUES FROM (MINVALUE) TO (%L)',
+                   limite AT TIME ZONE 'UTC');
+END $$;
+
+CREATE TABLE report_padrao PARTITION OF report DEFAULT;
+
+SELECT report_criar_particoes(now(), 4);
@@ -0,0 +1,69 @@
+-- ParticaoReportService roda em todas as instâncias ao subir e no cron. Duas transações
+-- podiam passar juntas por to_regclass(nome) IS NULL e a segunda falhava com duplicate_table,
+-- derrubando a subida do pod. As funções de V7 passam a tomar um advisory lock da transação:
+-- quem não consegue retorna 0, porque outra instância já está fazendo a mesma manutenção.
+-- duplicate_table também é ignorado, caso a tabela tenha sido criada por fora das funções.
+
+CREATE OR REPLACE FUNCTION report_criar_particoes(inicio timestamptz, meses integer) RETURNS integer
+LANGUAGE plpgsql AS $$
+DECLARE
+    mes timestamp := date_trunc('month', inicio AT TIME ZONE 'UTC');
+    proximo timestamp;
+    nome text;
+    criadas integer := 0;
+BEGIN
+    IF NOT pg_try_advisory_xact_lock(hashtext('report_particoes')) THEN
+        RETURN 0;
+    END IF;
+    -- Sem esperar indefinidamente por consultas longas; o job tenta de novo na próxima execução
+    PERFORM set_config('lock_timeout', '5s', true);
+    FOR i IN 1 .. meses LOOP
+        proximo := mes + interval '1 month';
+        nome := 'report_p' || to_char(mes, 'YYYY_MM');
+        IF to_regclass(nome) IS NULL THEN
+            BEGIN
+                EXECUTE format('CREATE TABLE %I (LIKE report INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE)', nome);
+                EXECUTE format('WITH movidos AS (DELETE FROM report_padrao WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                               'INSERT INTO %I SELECT * FROM movidos',
+                               mes AT TIME ZONE 'UTC', proximo AT TIME ZONE 'UTC', nome);
+                EXECUTE format('ALTER TABLE report ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               nome, mes AT TIME ZONE 'UTC', proximo AT TIME ZONE 'UTC');
+                criadas := criadas + 1;
+            EXCEPTION
+                WHEN invalid_object_definition THEN
+                    -- Sobreposição com outra partição: o mês já está coberto
+                    NULL;
+                WHEN duplicate_table THEN
+                    -- Criada em paralelo fora desta função: fica para quem a criou anexar
+                    NULL;
+            END;
+        END IF;
+        mes := proximo;
+    END LOOP;
+    RETURN criadas;
+END $$;
+
+CREATE OR REPLACE FUNCTION report_desanexar_particoes(limite timestamptz) RETURNS integer
+LANGUAGE plpgsql AS $$
+DECLARE
+    particao record;
+    desanexadas integer := 0;
+BEGIN
+    -- Mesmo lock de report_criar_particoes; na mesma transação ele é reentrante
+    IF NOT pg_try_advisory_xact_lock(hashtext('report_particoes')) THEN
+        RETURN 0;
+    END IF;
+    PERFORM set_config('lock_timeout', '5s', true);
+    FOR particao IN
+        SELECT c.relname
+          FROM pg_inherits h JOIN pg_class c ON c.oid = h.inhrelid
+         WHERE h.inhparent = 'report'::regclass
+           AND c.relname ~ '^report_p[0-9]{4}_[0-9]{2}$'
+           AND (to_date(substr(c.relname, 9), 'YYYY_MM') + interval '1 month') AT TIME ZONE 'UTC' <= limite
+         ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE report DETACH PARTITION %I', particao.relname);
+        desanexadas := desanexadas + 1;
+    END LOOP;
+    RETURN desanexadas;
+END $$;
@@ -0,0 +1,13 @@
+-- Marca explícita dos questionários já normalizados. NormalizacaoRespostasInicial procurava
+-- questionários sem linhas em questionario_resposta, mas os que não geram nenhuma resposta
+-- (JSON inválido, valores nulos) nunca saíam dessa lista e eram reprocessados a cada subida.
+ALTER TABLE questionario ADD COLUMN IF NOT EXISTS normalizado_em TIMESTAMP WITH TIME ZONE;
+
+UPDATE questionario q
+   SET normalizado_em = now()
+ WHERE q.normalizado_em IS NULL
+   AND EXISTS (SELECT 1 FROM questionario_resposta qr WHERE qr.fk_questionario_id = q.questionario_id);
+
+-- Só os pendentes entram no índice, então a verificação na subida continua barata
+CREATE INDEX IF NOT EXISTS idx_questionario_pendente_normalizacao
+    ON questionario (questionario_id) WHERE normalizado_em IS NULL;
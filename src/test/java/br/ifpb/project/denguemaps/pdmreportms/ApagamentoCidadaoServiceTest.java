@@ -0,0 +1,179 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.CidadaoCache;
+import br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.ApagamentoCidadaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.entity.ApagamentoCidadao;
+import br.ifpb.project.denguemaps.pdmreportms.enums.StatusApagamento;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ApagamentoCidadaoRepository;
+import br.ifpb.project.denguemaps.pdmreportms.service.ApagamentoCidadaoService;
+import br.ifpb.project.denguemaps.pdmreportms.service.QuestionarioService;
+import br.ifpb.project.denguemaps.pdmreportms.service.ReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ApagamentoCidadaoServiceTest {
+
+    @Mock
+    private ApagamentoCidadaoRepository apagamentoCidadaoRepository;
+    @Mock
+    private ReportService reportService;
+    @Mock
+    private QuestionarioService questionarioService;
+    @Mock
+    private CidadaoCache cidadaoCache;
+
+    private final UUID CIDADAO_ID = UUID.randomUUID();
+
+    // Tabela apagamento_cidadao simulada
+    private final Map<UUID, ApagamentoCidadao> tabela = new HashMap<>();
+
+    @BeforeEach
+    void setup() {
+        when(apagamentoCidadaoRepository.save(any())).thenAnswer(invocation -> gravar(invocation.getArgument(0)));
+        when(apagamentoCidadaoRepository.saveAndFlush(any())).thenAnswer(invocation -> gravar(invocation.getArgument(0)));
+        when(apagamentoCidadaoRepository.findById(any()))
+                .thenAnswer(invocation -> Optional.ofNullable(tabela.get(invocation.<UUID>getArgument(0))));
+        when(apagamentoCidadaoRepository.findFirstByCidadaoIdAndStatusIn(any(), anyCollection()))
+                .thenAnswer(invocation -> tabela.values().stream()
+                        .filter(a -> a.getCidadaoId().equals(invocation.getArgument(0)))
+                        .filter(a -> invocation.<Collection<StatusApagamento>>getArgument(1).contains(a.getStatus()))
+                        .findFirst());
+    }
+
+    private ApagamentoCidadao gravar(ApagamentoCidadao apagamento) {
+        if (apagamento.getId() == null) {
+            apagamento.setId(UUID.randomUUID());
+        }
+        tabela.put(apagamento.getId(), apagamento);
+        return apagamento;
+    }
+
+    private ApagamentoCidadaoService criarServico(TaskExecutor executor) {
+        return new ApagamentoCidadaoService(apagamentoCidadaoRepository,
+                reportService, questionarioService, cidadaoCache, executor, 2, Duration.ofHours(1), Duration.ofMinutes(10));
+    }
+
+    @Test
+    void solicitar_shouldPurgeInChunksAndReportProgress() {
+        // Arrange
+        ApagamentoCidadaoService servico = criarServico(new SyncTaskExecutor());
+        when(reportService.contarReportsCidadao(CIDADAO_ID)).thenReturn(3L);
+        when(questionarioService.contarQuestionariosCidadao(CIDADAO_ID)).thenReturn(1L);
+        when(reportService.apagarLoteReportsCidadao(CIDADAO_ID, 2)).thenReturn(2, 1, 0);
+        when(questionarioService.apagarLoteQuestionariosCidadao(CIDADAO_ID, 2)).thenReturn(1, 0);
+
+        // Act
+        ApagamentoCidadaoDTO pedido = servico.solicitar(CIDADAO_ID);
+        ApagamentoCidadaoDTO resultado = servico.buscar(pedido.getId());
+
+        // Assert
+        assertEquals(StatusApagamento.CONCLUIDO, resultado.getStatus());
+        assertEquals(3, resultado.getReportsTotal());
+        assertEquals(3, resultado.getReportsApagados());
+        assertEquals(1, resultado.getQuestionariosApagados());
+        assertNotNull(resultado.getConcluidoEm());
+        verify(reportService, times(3)).apagarLoteReportsCidadao(CIDADAO_ID, 2);
+        verify(cidadaoCache, times(1)).invalidar(CIDADAO_ID);
+    }
+
+    @Test
+    void solicitar_shouldReturnSameRequest_whenAlreadyRunningForCidadao() {
+        // Arrange: executor que nunca roda a tarefa, mantendo o pedido pendente
+        ApagamentoCidadaoService servico = criarServico(tarefa -> { });
+
+        // Act
+        ApagamentoCidadaoDTO primeiro = servico.solicitar(CIDADAO_ID);
+        ApagamentoCidadaoDTO segundo = servico.solicitar(CIDADAO_ID);
+
+        // Assert
+        assertEquals(StatusApagamento.PENDENTE, primeiro.getStatus());
+        assertEquals(primeiro.getId(), segundo.getId());
+    }
+
+    @Test
+    void solicitar_shouldMarkFailed_whenChunkThrows() {
+        // Arrange
+        ApagamentoCidadaoService servico = criarServico(new SyncTaskExecutor());
+        when(reportService.apagarLoteReportsCidadao(CIDADAO_ID, 2)).thenThrow(new IllegalStateException("banco fora"));
+
+        // Act
+        ApagamentoCidadaoDTO resultado = servico.buscar(servico.solicitar(CIDADAO_ID).getId());
+
+        // Assert
+        assertEquals(StatusApagamento.FALHOU, resultado.getStatus());
+        assertEquals("banco fora", resultado.getErro());
+        verify(cidadaoCache, never()).invalidar(any());
+        // Um novo pedido pode ser feito depois da falha
+        assertNotEquals(resultado.getId(), servico.solicitar(CIDADAO_ID).getId());
+    }
+
+    @Test
+    void retomarParados_shouldContinueStalledRequestFromPersistedProgress() {
+        // Arrange: pedido em andamento numa instância que caiu depois do primeiro lote
+        ApagamentoCidadao parado = gravar(new ApagamentoCidadao(null, CIDADAO_ID, StatusApagamento.EM_ANDAMENTO,
+                3, 2, 1, 0, OffsetDateTime.now().minusHours(1), null, null, OffsetDateTime.now().minusMinutes(30)));
+        when(apagamentoCidadaoRepository.buscarIdsParados(anyCollection(), any())).thenReturn(List.of(parado.getId()));
+        when(apagamentoCidadaoRepository.reivindicar(eq(parado.getId()), anyCollection(), any(), any())).thenReturn(1);
+        when(reportService.apagarLoteReportsCidadao(CIDADAO_ID, 2)).thenReturn(1, 0);
+        when(questionarioService.apagarLoteQuestionariosCidadao(CIDADAO_ID, 2)).thenReturn(1, 0);
+        ApagamentoCidadaoService servico = criarServico(new SyncTaskExecutor());
+
+        // Act
+        servico.retomarParados();
+        ApagamentoCidadaoDTO resultado = servico.buscar(parado.getId());
+
+        // Assert: os totais não são recontados e o andamento soma ao já gravado
+        assertEquals(StatusApagamento.CONCLUIDO, resultado.getStatus());
+        assertEquals(3, resultado.getReportsTotal());
+        assertEquals(3, resultado.getReportsApagados());
+        assertEquals(1, resultado.getQuestionariosApagados());
+        verify(reportService, never()).contarReportsCidadao(any());
+        verify(cidadaoCache, times(1)).invalidar(CIDADAO_ID);
+    }
+
+    @Test
+    void retomarParados_shouldSkipRequest_whenAnotherInstanceClaimedIt() {
+        // Arrange
+        ApagamentoCidadao parado = gravar(new ApagamentoCidadao(null, CIDADAO_ID, StatusApagamento.EM_ANDAMENTO,
+                3, 2, 1, 0, OffsetDateTime.now().minusHours(1), null, null, OffsetDateTime.now().minusMinutes(30)));
+        when(apagamentoCidadaoRepository.buscarIdsParados(anyCollection(), any())).thenReturn(List.of(parado.getId()));
+        when(apagamentoCidadaoRepository.reivindicar(eq(parado.getId()), anyCollection(), any(), any())).thenReturn(0);
+
+        // Act
+        criarServico(new SyncTaskExecutor()).retomarParados();
+
+        // Assert
+        assertEquals(StatusApagamento.EM_ANDAMENTO, tabela.get(parado.getId()).getStatus());
+        verifyNoInteractions(reportService, questionarioService);
+    }
+
+    @Test
+    void buscar_shouldThrowIllegalArgumentException_whenUnknown() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> criarServico(new SyncTaskExecutor()).buscar(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,80 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.ingestao.ArquivoWal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArquivoWalTest {
+
+    @TempDir
+    Path diretorio;
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> conteudos(List<ArquivoWal.Registro> registros) {
+        return registros.stream().map(r -> new String(r.conteudo(), StandardCharsets.UTF_8)).toList();
+    }
+
+    @Test
+    void pendentes_shouldSurviveReopenAndSkipConfirmedRecords() throws Exception {
+        // Arrange
+        try (ArquivoWal wal = new ArquivoWal(diretorio, false)) {
+            long primeiro = wal.anexar(bytes("{\"a\":1}"));
+            wal.anexar(bytes("{\"b\":2}"));
+            wal.confirmar(primeiro);
+        }
+
+        // Act
+        try (ArquivoWal reaberto = new ArquivoWal(diretorio, false)) {
+            // Assert
+            assertEquals(List.of("{\"b\":2}"), conteudos(reaberto.pendentes()));
+        }
+    }
+
+    @Test
+    void confirmar_shouldTruncateWhenEverythingIsConfirmed() throws Exception {
+        try (ArquivoWal wal = new ArquivoWal(diretorio, false)) {
+            // Arrange
+            wal.anexar(bytes("{\"a\":1}"));
+            long ultimo = wal.anexar(bytes("{\"b\":2}"));
+
+            // Act
+            wal.confirmar(ultimo);
+
+            // Assert
+            assertEquals(0, wal.tamanho());
+            assertTrue(wal.pendentes().isEmpty());
+            long novo = wal.anexar(bytes("{\"c\":3}"));
+            assertEquals(List.of("{\"c\":3}"), conteudos(wal.pendentes()));
+            assertEquals(novo, wal.tamanho());
+        }
+    }
+
+    @Test
+    void abrir_shouldDiscardIncompleteLastRecord() throws Exception {
+        // Arrange
+        try (ArquivoWal wal = new ArquivoWal(diretorio, false)) {
+            wal.anexar(bytes("{\"a\":1}"));
+        }
+        Files.write(diretorio.resolve(ArquivoWal.NOME_ARQUIVO), bytes("{\"b\":"), StandardOpenOption.APPEND);
+
+        // Act
+        try (ArquivoWal reaberto = new ArquivoWal(diretorio, false)) {
+            // Assert
+            assertEquals(List.of("{\"a\":1}"), conteudos(reaberto.pendentes()));
+            long fim = reaberto.anexar(bytes("{\"c\":3}"));
+            assertEquals(List.of("{\"a\":1}", "{\"c\":3}"), conteudos(reaberto.pendentes()));
+            assertEquals(fim, reaberto.tamanho());
+        }
+    }
+}
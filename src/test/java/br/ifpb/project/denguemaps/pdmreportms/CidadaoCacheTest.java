@@ -0,0 +1,113 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.CidadaoCache;
+import br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.CidadaoResumoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Cidadao;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.repository.CidadaoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CidadaoCacheTest {
+
+    @Mock
+    private CidadaoRepository cidadaoRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CidadaoCache cidadaoCache;
+
+    private final UUID CIDADAO_ID = UUID.randomUUID();
+    private final UUID MUNICIPIO_ID = UUID.randomUUID();
+    private Cidadao mockCidadao;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        cidadaoCache = new CidadaoCache(cidadaoRepository, meterRegistry, 100, Duration.ofMinutes(10));
+
+        mockCidadao = new Cidadao();
+        mockCidadao.setId(CIDADAO_ID);
+        mockCidadao.setNome("Maria Teste");
+
+        when(cidadaoRepository.buscarResumos(Set.of(CIDADAO_ID)))
+                .thenReturn(List.of(new CidadaoResumoDTO(CIDADAO_ID, "Maria Teste", MUNICIPIO_ID, Estado.PB)));
+        when(cidadaoRepository.getReferenceById(CIDADAO_ID)).thenReturn(mockCidadao);
+    }
+
+    @Test
+    void referenciar_shouldHitDatabaseOnlyOnce_forRepeatedLookups() {
+        // Act
+        cidadaoCache.referenciar(CIDADAO_ID);
+        cidadaoCache.referenciar(CIDADAO_ID);
+        cidadaoCache.referenciar(CIDADAO_ID);
+
+        // Assert
+        verify(cidadaoRepository, times(1)).buscarResumos(Set.of(CIDADAO_ID));
+        verify(cidadaoRepository, times(3)).getReferenceById(CIDADAO_ID);
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "cidadao").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "cidadao").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void referenciar_shouldThrowAndNotCache_whenCidadaoNotFound() {
+        // Arrange
+        UUID nonExistingCidadaoId = UUID.randomUUID();
+        when(cidadaoRepository.buscarResumos(Set.of(nonExistingCidadaoId))).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> cidadaoCache.referenciar(nonExistingCidadaoId));
+        assertThrows(IllegalArgumentException.class, () -> cidadaoCache.referenciar(nonExistingCidadaoId));
+
+        verify(cidadaoRepository, times(2)).buscarResumos(Set.of(nonExistingCidadaoId));
+        verify(cidadaoRepository, never()).getReferenceById(any());
+    }
+
+    @Test
+    void invalidar_shouldForceReload() {
+        // Act
+        cidadaoCache.buscar(CIDADAO_ID);
+        cidadaoCache.invalidar(CIDADAO_ID);
+        Optional<CidadaoCache.CidadaoResumo> resumo = cidadaoCache.buscar(CIDADAO_ID);
+
+        // Assert
+        assertEquals("Maria Teste", resumo.orElseThrow().nome());
+        assertEquals(MUNICIPIO_ID, resumo.orElseThrow().municipioId());
+        verify(cidadaoRepository, times(2)).buscarResumos(Set.of(CIDADAO_ID));
+    }
+
+    @Test
+    void buscarTodos_shouldLoadOnlyMissingCidadaos_inOneQuery() {
+        // Arrange
+        UUID outroId = UUID.randomUUID();
+        UUID inexistenteId = UUID.randomUUID();
+        cidadaoCache.buscar(CIDADAO_ID);
+        when(cidadaoRepository.buscarResumos(Set.of(outroId, inexistenteId)))
+                .thenReturn(List.of(new CidadaoResumoDTO(outroId, "Jose Teste", null, null)));
+
+        // Act
+        Map<UUID, CidadaoCache.CidadaoResumo> resumos = cidadaoCache.buscarTodos(List.of(CIDADAO_ID, outroId, inexistenteId));
+
+        // Assert
+        assertEquals(Set.of(CIDADAO_ID, outroId), resumos.keySet());
+        assertNull(resumos.get(outroId).municipioId());
+        verify(cidadaoRepository, times(1)).buscarResumos(Set.of(outroId, inexistenteId));
+    }
+}
@@ -0,0 +1,155 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportClusterDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLocalizacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.event.ReportAlteradoEvent;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository;
+import br.ifpb.project.denguemaps.pdmreportms.service.ClusterReportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterReportServiceTest {
+
+    @Mock
+    private ReportRepository reportRepository;
+
+    @InjectMocks
+    private ClusterReportService clusterReportService;
+
+    // Dois reports próximos em João Pessoa e um em Campina Grande
+    private final UUID REPORT_JP_1 = UUID.randomUUID();
+    private final UUID REPORT_JP_2 = UUID.randomUUID();
+    private final UUID REPORT_CG = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        when(reportRepository.transmitirLocalizacoes()).thenReturn(Stream.of(
+                new ReportLocalizacaoDTO(REPORT_JP_1, -7.1150, -34.8610, "ALTO"),
+                new ReportLocalizacaoDTO(REPORT_JP_2, -7.1160, -34.8620, "ALTO"),
+                new ReportLocalizacaoDTO(REPORT_CG, -7.2300, -35.8800, "BAIXO")
+        ));
+        clusterReportService.carregarIndice();
+    }
+
+    @Test
+    void buscarClusters_shouldGroupAllReports_atLowZoom() {
+        // Act
+        List<ReportClusterDTO> clusters = clusterReportService.buscarClusters(4, -10, -40, -5, -30);
+
+        // Assert
+        assertEquals(1, clusters.size());
+        assertEquals(3, clusters.get(0).getQuantidade());
+        assertEquals("ALTO", clusters.get(0).getRiscoPredominante());
+    }
+
+    @Test
+    void buscarClusters_shouldSeparateCities_atHighZoom() {
+        // Act
+        List<ReportClusterDTO> clusters = clusterReportService.buscarClusters(12, -10, -40, -5, -30);
+
+        // Assert
+        assertEquals(2, clusters.size());
+        ReportClusterDTO joaoPessoa = clusters.stream().filter(c -> c.getQuantidade() == 2).findFirst().orElseThrow();
+        assertEquals(-7.1155, joaoPessoa.getLatitude(), 1e-9);
+        assertEquals(-34.8615, joaoPessoa.getLongitude(), 1e-9);
+    }
+
+    @Test
+    void aoAlterarReport_shouldUpdateIndexIncrementally() {
+        // Act: remove um report de JP e move o de CG para JP com outro risco
+        clusterReportService.aoAlterarReport(ReportAlteradoEvent.removido(REPORT_JP_1, null, null));
+        clusterReportService.aoAlterarReport(new ReportAlteradoEvent(
+                ReportAlteradoEvent.Tipo.ATUALIZADO, REPORT_CG, -7.1170, -34.8630, "MEDIO",
+                null, null, null, null, null, null, null));
+        List<ReportClusterDTO> clusters = clusterReportService.buscarClusters(12, -10, -40, -5, -30);
+
+        // Assert
+        assertEquals(1, clusters.size());
+        assertEquals(2, clusters.get(0).getQuantidade());
+        assertEquals("ALTO", clusters.get(0).getRiscoPredominante(), "Empate resolvido em ordem alfabética.");
+    }
+
+    @Test
+    void buscarClusters_shouldIgnoreReportsOutsideViewport() {
+        // Act: caixa só em volta de Campina Grande
+        List<ReportClusterDTO> clusters = clusterReportService.buscarClusters(10, -7.3, -36.0, -7.2, -35.8);
+
+        // Assert
+        assertEquals(1, clusters.size());
+        assertEquals("BAIXO", clusters.get(0).getRiscoPredominante());
+    }
+
+    @Test
+    void carregarIndice_shouldReplaceIndexWithDatabaseState() {
+        // Arrange: outra instância removeu o report de CG e criou um em JP
+        when(reportRepository.transmitirLocalizacoes()).thenReturn(Stream.of(
+                new ReportLocalizacaoDTO(REPORT_JP_1, -7.1150, -34.8610, "ALTO"),
+                new ReportLocalizacaoDTO(REPORT_JP_2, -7.1160, -34.8620, "ALTO"),
+                new ReportLocalizacaoDTO(UUID.randomUUID(), -7.1170, -34.8630, "BAIXO")
+        ));
+
+        // Act
+        clusterReportService.carregarIndice();
+        List<ReportClusterDTO> clusters = clusterReportService.buscarClusters(12, -10, -40, -5, -30);
+
+        // Assert
+        assertEquals(1, clusters.size());
+        assertEquals(3, clusters.get(0).getQuantidade());
+    }
+
+    @Test
+    void carregarIndice_shouldKeepEventsReceivedWhileReading() {
+        // Arrange: o report de CG é removido localmente enquanto o banco ainda é lido
+        when(reportRepository.transmitirLocalizacoes()).thenReturn(Stream.of(
+                new ReportLocalizacaoDTO(REPORT_JP_1, -7.1150, -34.8610, "ALTO"),
+                new ReportLocalizacaoDTO(REPORT_CG, -7.2300, -35.8800, "BAIXO")
+        ).peek(l -> {
+            if (l.getId().equals(REPORT_CG)) {
+                clusterReportService.aoAlterarReport(ReportAlteradoEvent.removido(REPORT_CG, null, null));
+            }
+        }));
+
+        // Act
+        clusterReportService.carregarIndice();
+        List<ReportClusterDTO> clusters = clusterReportService.buscarClusters(4, -10, -40, -5, -30);
+
+        // Assert
+        assertEquals(1, clusters.size());
+        assertEquals(1, clusters.get(0).getQuantidade());
+    }
+
+    @Test
+    void carregarIndice_shouldKeepPreviousIndex_whenReadingFails() {
+        // Arrange: a leitura cai no meio, depois de entregar só o report de CG
+        when(reportRepository.transmitirLocalizacoes()).thenReturn(Stream.of(
+                new ReportLocalizacaoDTO(REPORT_CG, -7.2300, -35.8800, "BAIXO"),
+                new ReportLocalizacaoDTO(REPORT_JP_1, -7.1150, -34.8610, "ALTO")
+        ).peek(l -> {
+            if (l.getId().equals(REPORT_JP_1)) {
+                throw new QueryTimeoutException("statement timeout");
+            }
+        }));
+
+        // Act
+        assertThrows(QueryTimeoutException.class, () -> clusterReportService.carregarIndice());
+        clusterReportService.aoAlterarReport(ReportAlteradoEvent.removido(REPORT_JP_2, null, null));
+        List<ReportClusterDTO> clusters = clusterReportService.buscarClusters(12, -10, -40, -5, -30);
+
+        // Assert: índice anterior, com o evento posterior aplicado
+        assertEquals(2, clusters.size());
+        assertTrue(clusters.stream().allMatch(c -> c.getQuantidade() == 1));
+    }
+}
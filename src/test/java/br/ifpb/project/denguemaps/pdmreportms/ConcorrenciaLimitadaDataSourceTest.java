@@ -0,0 +1,72 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.datasource.ConcorrenciaLimitadaDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ConcorrenciaLimitadaDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    private ConcorrenciaLimitadaDataSource dataSource;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConcorrenciaLimitadaDataSource(pool, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void getConnection_shouldFailAfterWait_whenLimitReached() throws SQLException {
+        // Arrange
+        Connection conexao = dataSource.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertEquals(1, dataSource.getEmUso());
+        conexao.close();
+    }
+
+    @Test
+    void close_shouldReleasePermitOnlyOnce() throws SQLException {
+        // Arrange
+        Connection conexao = dataSource.getConnection();
+
+        // Act
+        conexao.close();
+        conexao.close();
+
+        // Assert
+        assertEquals(0, dataSource.getEmUso());
+        Connection outra = dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        outra.close();
+    }
+
+    @Test
+    void getConnection_shouldReleasePermit_whenPoolFails() throws SQLException {
+        // Arrange
+        when(pool.getConnection()).thenThrow(new SQLException("pool indisponível"));
+
+        // Act & Assert
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(0, dataSource.getEmUso());
+    }
+}
@@ -0,0 +1,159 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.MunicipioResolver;
+import br.ifpb.project.denguemaps.pdmreportms.dto.cidadao.CidadaoMunicipioDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoCidadaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.DiferencaContadorProjecao;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.repository.CidadaoRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ContadorRiscoRepository;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository;
+import br.ifpb.project.denguemaps.pdmreportms.service.ContadorRiscoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ContadorRiscoServiceTest {
+
+    @Mock
+    private ContadorRiscoRepository contadorRiscoRepository;
+    @Mock
+    private CidadaoRepository cidadaoRepository;
+    @Mock
+    private ReportRepository reportRepository;
+    @Mock
+    private MunicipioResolver municipioResolver;
+
+    @InjectMocks
+    private ContadorRiscoService contadorRiscoService;
+
+    private final UUID CIDADAO_A = UUID.randomUUID();
+    private final UUID CIDADAO_B = UUID.randomUUID();
+    private final UUID CIDADAO_SEM_ENDERECO = UUID.randomUUID();
+    private final UUID MUNICIPIO_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        when(cidadaoRepository.buscarMunicipios(anyCollection())).thenReturn(List.of(
+                new CidadaoMunicipioDTO(CIDADAO_A, MUNICIPIO_ID, Estado.PB),
+                new CidadaoMunicipioDTO(CIDADAO_B, MUNICIPIO_ID, Estado.PB)
+        ));
+    }
+
+    @Test
+    void registrarAlteracoes_shouldAggregateByMunicipioWithSingleLookup() {
+        // Act
+        contadorRiscoService.registrarAlteracoes(List.of(
+                new ContagemRiscoCidadaoDTO(CIDADAO_A, "ALTO", 1),
+                new ContagemRiscoCidadaoDTO(CIDADAO_B, "ALTO", 1),
+                new ContagemRiscoCidadaoDTO(CIDADAO_A, "BAIXO", 1),
+                new ContagemRiscoCidadaoDTO(CIDADAO_SEM_ENDERECO, "ALTO", 1),
+                new ContagemRiscoCidadaoDTO(CIDADAO_A, null, 1)
+        ));
+
+        // Assert
+        verify(cidadaoRepository, times(1)).buscarMunicipios(anyCollection());
+        verify(contadorRiscoRepository, times(1)).somar(MUNICIPIO_ID, "PB", "ALTO", 2);
+        verify(contadorRiscoRepository, times(1)).somar(MUNICIPIO_ID, "PB", "BAIXO", 1);
+        verifyNoMoreInteractions(contadorRiscoRepository);
+    }
+
+    @Test
+    void registrarAlteracoes_shouldSkipWhenVariationsCancelOut() {
+        // Act
+        contadorRiscoService.registrarAlteracoes(List.of(
+                new ContagemRiscoCidadaoDTO(CIDADAO_A, "ALTO", -1),
+                new ContagemRiscoCidadaoDTO(CIDADAO_B, "ALTO", 1)
+        ));
+
+        // Assert
+        verify(contadorRiscoRepository, never()).somar(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void registrarRemocaoCidadao_shouldApplyNegativeCounts() {
+        // Arrange
+        when(reportRepository.contarPorRiscoDoCidadao(CIDADAO_A)).thenReturn(List.of(
+                new ContagemRiscoCidadaoDTO(CIDADAO_A, "ALTO", 3)
+        ));
+
+        // Act
+        contadorRiscoService.registrarRemocaoCidadao(CIDADAO_A);
+
+        // Assert
+        verify(contadorRiscoRepository, times(1)).somar(MUNICIPIO_ID, "PB", "ALTO", -3);
+    }
+
+    @Test
+    void buscarPorMunicipio_shouldThrowIllegalArgumentException_whenMunicipioNotFound() {
+        // Arrange
+        when(municipioResolver.resolver("Inexistente", null, Estado.PB)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> contadorRiscoService.buscarPorMunicipio("Inexistente", null, Estado.PB)
+        );
+        assertTrue(exception.getMessage().contains("não encontrado"));
+        verify(contadorRiscoRepository, never()).buscarPorMunicipio(any());
+    }
+
+    @Test
+    void recalcular_shouldApplyOnlyDifferencesInKeyOrder() {
+        // Arrange
+        UUID outroMunicipio = new UUID(0, 1);
+        UUID primeiroMunicipio = new UUID(0, 0);
+        when(contadorRiscoRepository.tentarBloquearRecalculo()).thenReturn(true);
+        when(contadorRiscoRepository.calcularDiferencas()).thenReturn(List.of(
+                new Diferenca(outroMunicipio, "ALTO", -2L),
+                new Diferenca(primeiroMunicipio, "MEDIO", 1L),
+                new Diferenca(primeiroMunicipio, "BAIXO", 4L)
+        ));
+
+        // Act
+        contadorRiscoService.recalcular();
+
+        // Assert
+        InOrder ordem = inOrder(contadorRiscoRepository);
+        ordem.verify(contadorRiscoRepository).somar(primeiroMunicipio, "PB", "BAIXO", 4);
+        ordem.verify(contadorRiscoRepository).somar(primeiroMunicipio, "PB", "MEDIO", 1);
+        ordem.verify(contadorRiscoRepository).somar(outroMunicipio, "PB", "ALTO", -2L);
+        verify(contadorRiscoRepository, times(3)).somar(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    void recalcular_shouldSkip_whenAnotherInstanceHoldsTheLock() {
+        // Arrange
+        when(contadorRiscoRepository.tentarBloquearRecalculo()).thenReturn(false);
+
+        // Act
+        contadorRiscoService.recalcular();
+
+        // Assert
+        verify(contadorRiscoRepository, never()).calcularDiferencas();
+        verify(contadorRiscoRepository, never()).somar(any(), any(), any(), anyLong());
+    }
+
+    private record Diferenca(UUID getMunicipioId, String getClassificacaoRisco, Long getDiferenca)
+            implements DiferencaContadorProjecao {
+        @Override
+        public String getEstado() {
+            return "PB";
+        }
+    }
+}
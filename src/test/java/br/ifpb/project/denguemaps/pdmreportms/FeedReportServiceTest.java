@@ -0,0 +1,222 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.CidadaoCache;
+import br.ifpb.project.denguemaps.pdmreportms.cache.MunicipioResolver;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.event.ReportAlteradoEvent;
+import br.ifpb.project.denguemaps.pdmreportms.service.FeedReportConfiguration;
+import br.ifpb.project.denguemaps.pdmreportms.service.FeedReportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FeedReportServiceTest {
+
+    @Mock
+    private MunicipioResolver municipioResolver;
+
+    private final UUID CIDADAO_PB = UUID.randomUUID();
+    private final UUID CIDADAO_PE = UUID.randomUUID();
+    private final UUID MUNICIPIO_PB = UUID.randomUUID();
+    private final UUID MUNICIPIO_PE = UUID.randomUUID();
+    private final CidadaoCache.CidadaoResumo AUTOR_PB = new CidadaoCache.CidadaoResumo(CIDADAO_PB, "Joao", MUNICIPIO_PB, Estado.PB);
+    private final CidadaoCache.CidadaoResumo AUTOR_PE = new CidadaoCache.CidadaoResumo(CIDADAO_PE, "Ana", MUNICIPIO_PE, Estado.PE);
+
+    private final List<EmitterCapturador> emitters = new ArrayList<>();
+
+    // Guarda os eventos enviados em vez de escrever numa resposta HTTP
+    private static class EmitterCapturador extends SseEmitter {
+        private final List<String> enviados = new CopyOnWriteArrayList<>();
+        // Quando presente, o envio espera por ela, como numa conexão com cliente lento
+        private volatile CountDownLatch liberarEnvio;
+        private volatile boolean encerradoComErro;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (liberarEnvio != null) {
+                try {
+                    liberarEnvio.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            enviados.add(builder.build().stream()
+                    .map(parte -> String.valueOf(parte.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            encerradoComErro = true;
+        }
+    }
+
+    private FeedReportService criarServico(TaskExecutor executor, int historico, int buffer) {
+        return new FeedReportService(municipioResolver, executor,
+                new SimpleMeterRegistry(), historico, buffer, Duration.ofMinutes(1)) {
+            @Override
+            protected SseEmitter criarEmitter() {
+                EmitterCapturador emitter = new EmitterCapturador();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private ReportAlteradoEvent criado(CidadaoCache.CidadaoResumo autor) {
+        return new ReportAlteradoEvent(ReportAlteradoEvent.Tipo.CRIADO, UUID.randomUUID(), -7.1, -34.8, "ALTO",
+                autor.id(), "{\"lat\": -7.1, \"lon\": -34.8}", OffsetDateTime.now(), OffsetDateTime.now(),
+                autor.nome(), autor.municipioId(), autor.estado());
+    }
+
+    private static long idDoEvento(String enviado) {
+        return Long.parseLong(enviado.lines().filter(l -> l.startsWith("id:")).findFirst().orElseThrow().substring(3));
+    }
+
+    @Test
+    void aoAlterarReport_shouldDeliverOnlyToMatchingSubscribers() {
+        // Arrange
+        FeedReportService servico = criarServico(new SyncTaskExecutor(), 100, 10);
+        servico.assinar(null, null, null, null);
+        servico.assinar(null, null, Estado.PE, null);
+
+        // Act
+        servico.aoAlterarReport(criado(AUTOR_PB));
+        servico.aoAlterarReport(ReportAlteradoEvent.removido(UUID.randomUUID(), CIDADAO_PE, AUTOR_PE));
+
+        // Assert
+        assertEquals(2, emitters.get(0).enviados.size());
+        assertEquals(1, emitters.get(1).enviados.size());
+        assertTrue(emitters.get(0).enviados.get(0).contains("event:CRIADO"));
+        assertTrue(emitters.get(1).enviados.get(0).contains("event:REMOVIDO"));
+        assertTrue(emitters.get(0).enviados.get(0).contains("Joao"), "Nome do autor vem do evento.");
+    }
+
+    @Test
+    void assinar_shouldReplayMissedEvents_whenResumingFromLastEventId() {
+        // Arrange
+        FeedReportService servico = criarServico(new SyncTaskExecutor(), 100, 10);
+        servico.assinar(null, null, null, null);
+        servico.aoAlterarReport(criado(AUTOR_PB));
+        servico.aoAlterarReport(criado(AUTOR_PE));
+        servico.aoAlterarReport(criado(AUTOR_PB));
+        long primeiroId = idDoEvento(emitters.get(0).enviados.get(0));
+
+        // Act
+        servico.assinar(null, null, Estado.PB, String.valueOf(primeiroId));
+
+        // Assert: só o terceiro evento é do PB e posterior ao id informado
+        List<String> reenviados = emitters.get(1).enviados;
+        assertEquals(1, reenviados.size());
+        assertEquals(primeiroId + 2, idDoEvento(reenviados.get(0)));
+    }
+
+    @Test
+    void assinar_shouldAskForReload_whenLastEventIdLeftTheHistory() {
+        // Arrange
+        FeedReportService servico = criarServico(new SyncTaskExecutor(), 2, 10);
+        servico.assinar(null, null, null, null);
+        servico.aoAlterarReport(criado(AUTOR_PB));
+        servico.aoAlterarReport(criado(AUTOR_PB));
+        servico.aoAlterarReport(criado(AUTOR_PB));
+        long primeiroId = idDoEvento(emitters.get(0).enviados.get(0));
+
+        // Act
+        servico.assinar(null, null, null, String.valueOf(primeiroId - 1));
+
+        // Assert
+        assertEquals(1, emitters.get(1).enviados.size());
+        assertTrue(emitters.get(1).enviados.get(0).contains("event:" + FeedReportService.EVENTO_RECARREGAR));
+    }
+
+    @Test
+    void aoAlterarReport_shouldDropOldestAndNotify_whenSubscriberIsSlow() {
+        // Arrange: executor que só roda quando o teste mandar, simulando um cliente lento
+        List<Runnable> pendentes = new ArrayList<>();
+        FeedReportService servico = criarServico(pendentes::add, 100, 2);
+        servico.assinar(null, null, null, null);
+
+        // Act
+        servico.aoAlterarReport(criado(AUTOR_PB));
+        servico.aoAlterarReport(criado(AUTOR_PB));
+        servico.aoAlterarReport(criado(AUTOR_PB));
+        pendentes.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1, pendentes.size());
+        List<String> enviados = emitters.get(0).enviados;
+        assertEquals(3, enviados.size());
+        assertTrue(enviados.get(0).contains("event:" + FeedReportService.EVENTO_DESCARTADOS));
+        assertEquals(idDoEvento(enviados.get(1)) + 1, idDoEvento(enviados.get(2)));
+    }
+
+    @Test
+    void aoAlterarReport_shouldCloseOnlyOverflowingSubscriber_whenFeedExecutorIsSaturated() throws Exception {
+        // Arrange: uma thread e um lugar na fila; o primeiro cliente trava no envio e prende a thread
+        ThreadPoolTaskExecutor executor = new FeedReportConfiguration().feedReportExecutor(1, 1);
+        executor.initialize();
+        CountDownLatch liberar = new CountDownLatch(1);
+        FeedReportService servico = criarServico(executor, 100, 10);
+        servico.assinar(null, null, null, null);
+        emitters.get(0).liberarEnvio = liberar;
+        servico.aoAlterarReport(criado(AUTOR_PB));
+        servico.assinar(null, null, null, null);
+        servico.assinar(null, null, null, null);
+
+        try {
+            // Act: um dos novos assinantes ocupa a fila, o outro não cabe no executor
+            servico.aoAlterarReport(criado(AUTOR_PB));
+            List<EmitterCapturador> encerrados = emitters.stream().filter(e -> e.encerradoComErro).toList();
+            liberar.countDown();
+
+            // Assert: o lento atrasa só a si mesmo; quem não coube é encerrado e reconecta
+            assertEquals(1, encerrados.size());
+            assertNotSame(emitters.get(0), encerrados.get(0));
+            EmitterCapturador enfileirado = emitters.get(1) == encerrados.get(0) ? emitters.get(2) : emitters.get(1);
+            long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while ((emitters.get(0).enviados.size() < 2 || enfileirado.enviados.isEmpty()) && System.nanoTime() < limite) {
+                Thread.sleep(20);
+            }
+            assertEquals(2, emitters.get(0).enviados.size());
+            assertEquals(1, enfileirado.enviados.size());
+            assertTrue(encerrados.get(0).enviados.isEmpty());
+        } finally {
+            liberar.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void assinar_shouldThrowIllegalArgumentException_whenMunicipioNotFound() {
+        // Arrange
+        FeedReportService servico = criarServico(new SyncTaskExecutor(), 100, 10);
+        when(municipioResolver.resolver("Inexistente", null, Estado.PB)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> servico.assinar(null, "Inexistente", Estado.PB, null));
+    }
+}
@@ -0,0 +1,82 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.versao.VersaoRecursoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.util.GetCondicionalUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GetCondicionalUtilTest {
+
+    private final VersaoRecursoDTO versao = new VersaoRecursoDTO(
+            3L, OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 123_456_000, ZoneOffset.UTC));
+
+    @Test
+    void naoModificado_shouldSetHeadersAndReturnFalse_onFirstRequest() {
+        // Arrange
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/api/report/esp");
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        // Act
+        boolean resultado = GetCondicionalUtil.naoModificado(new ServletWebRequest(requisicao, resposta), versao);
+
+        // Assert
+        assertFalse(resultado);
+        assertEquals(versao.etag(), resposta.getHeader(HttpHeaders.ETAG));
+        assertTrue(versao.etag().startsWith("W/"));
+        assertNotNull(resposta.getHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals("no-cache, private", resposta.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void naoModificado_shouldReturn304_whenEtagMatches() {
+        // Arrange
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/api/report/esp");
+        requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, versao.etag());
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        // Act
+        boolean resultado = GetCondicionalUtil.naoModificado(new ServletWebRequest(requisicao, resposta), versao);
+
+        // Assert
+        assertTrue(resultado);
+        assertEquals(304, resposta.getStatus());
+    }
+
+    @Test
+    void naoModificado_shouldChangeEtag_whenCountChanges() {
+        // Arrange
+        VersaoRecursoDTO aposRemocao = new VersaoRecursoDTO(2L, versao.getUltimaAlteracao());
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/api/report/esp-cidadao");
+        requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, versao.etag());
+
+        // Act
+        boolean resultado = GetCondicionalUtil.naoModificado(
+                new ServletWebRequest(requisicao, new MockHttpServletResponse()), aposRemocao);
+
+        // Assert
+        assertFalse(resultado);
+    }
+
+    @Test
+    void naoModificado_shouldIgnoreMissingResource() {
+        // Arrange
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/api/questionario/esp");
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        // Act
+        boolean resultado = GetCondicionalUtil.naoModificado(
+                new ServletWebRequest(requisicao, resposta), new VersaoRecursoDTO(0L, null));
+
+        // Assert
+        assertFalse(resultado);
+        assertNull(resposta.getHeader(HttpHeaders.ETAG));
+    }
+}
@@ -0,0 +1,219 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.IdempotenciaCache;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportCriacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportResponseDTO;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Idempotencia;
+import br.ifpb.project.denguemaps.pdmreportms.entity.IdempotenciaId;
+import br.ifpb.project.denguemaps.pdmreportms.repository.IdempotenciaRepository;
+import br.ifpb.project.denguemaps.pdmreportms.util.JsonCanonicoUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotenciaCacheTest {
+
+    @Mock
+    private IdempotenciaRepository idempotenciaRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private IdempotenciaCache idempotenciaCache;
+
+    private final ReportCriacaoDTO requisicao = new ReportCriacaoDTO("{}", "ALTO", UUID.randomUUID());
+
+    // Tabela idempotencia simulada: linhas confirmadas e as reservadas na transação em curso
+    private final Map<IdempotenciaId, Idempotencia> tabela = new HashMap<>();
+    private final List<IdempotenciaId> reservadasNaTransacao = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        idempotenciaCache = new IdempotenciaCache(idempotenciaRepository, transactionManager, objectMapper,
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(1), Duration.ofSeconds(5));
+
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        // Como no gerenciador real, o commit de uma transação marcada rollback-only desfaz tudo
+        doAnswer(invocation -> {
+            if (invocation.<SimpleTransactionStatus>getArgument(0).isRollbackOnly()) {
+                reservadasNaTransacao.forEach(tabela::remove);
+            }
+            reservadasNaTransacao.clear();
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(invocation -> {
+            reservadasNaTransacao.forEach(tabela::remove);
+            reservadasNaTransacao.clear();
+            return null;
+        }).when(transactionManager).rollback(any());
+
+        when(idempotenciaRepository.lockTimeoutAtual()).thenReturn("0");
+        when(idempotenciaRepository.reservar(anyString(), anyString(), anyString(), anyString(), any()))
+                .thenAnswer(invocation -> {
+                    IdempotenciaId id = new IdempotenciaId(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+                    if (tabela.containsKey(id)) {
+                        return 0;
+                    }
+                    tabela.put(id, new Idempotencia(id, invocation.getArgument(3), null, null, OffsetDateTime.now()));
+                    reservadasNaTransacao.add(id);
+                    return 1;
+                });
+        doAnswer(invocation -> {
+            Idempotencia linha = tabela.get(new IdempotenciaId(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+            linha.setStatus(invocation.getArgument(3));
+            linha.setResposta(invocation.getArgument(4));
+            return null;
+        }).when(idempotenciaRepository).registrarResposta(anyString(), anyString(), anyString(), anyInt(), anyString());
+        when(idempotenciaRepository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(tabela.get(invocation.getArgument(0))));
+    }
+
+    private ResponseEntity<ReportResponseDTO> criado(String classificacaoRisco) {
+        ReportResponseDTO resposta = new ReportResponseDTO();
+        resposta.setId(UUID.randomUUID());
+        resposta.setClassificacaoRisco(classificacaoRisco);
+        return new ResponseEntity<>(resposta, HttpStatus.CREATED);
+    }
+
+    @Test
+    void executar_shouldReplayStoredResponseWithoutRunningAgain() {
+        // Arrange
+        AtomicInteger execucoes = new AtomicInteger();
+
+        // Act
+        ResponseEntity<ReportResponseDTO> primeira = idempotenciaCache.executar("report", "chave-1", requisicao,
+                ReportResponseDTO.class, () -> criado("criado-" + execucoes.incrementAndGet()));
+        ResponseEntity<ReportResponseDTO> repetida = idempotenciaCache.executar("report", "chave-1", requisicao,
+                ReportResponseDTO.class, () -> criado("criado-" + execucoes.incrementAndGet()));
+
+        // Assert: a repetição sai do Caffeine, sem ir ao banco
+        assertEquals(1, execucoes.get());
+        assertEquals(HttpStatus.CREATED, repetida.getStatusCode());
+        assertEquals(primeira.getBody(), repetida.getBody());
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotenciaCache.CABECALHO_REPETIDA));
+        verify(idempotenciaRepository, times(1)).reservar(anyString(), anyString(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void executar_shouldReplayResponseStoredByAnotherInstance() throws Exception {
+        // Arrange: outra instância já confirmou a criação com esta chave
+        ReportResponseDTO original = criado("ALTO").getBody();
+        IdempotenciaId id = new IdempotenciaId("report", "", "chave-1");
+        tabela.put(id, new Idempotencia(id, JsonCanonicoUtil.hash(objectMapper.writeValueAsString(requisicao)),
+                201, objectMapper.writeValueAsString(original), OffsetDateTime.now()));
+
+        // Act
+        ResponseEntity<ReportResponseDTO> resposta = idempotenciaCache.executar("report", "chave-1", requisicao,
+                ReportResponseDTO.class, () -> fail("Não deveria gravar de novo"));
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        assertEquals(original, resposta.getBody());
+        assertEquals("true", resposta.getHeaders().getFirst(IdempotenciaCache.CABECALHO_REPETIDA));
+    }
+
+    @Test
+    void executar_shouldRejectSameKeyWithDifferentRequest() {
+        // Arrange
+        idempotenciaCache.executar("report", "chave-1", requisicao, ReportResponseDTO.class, () -> criado("ALTO"));
+        ReportCriacaoDTO outra = new ReportCriacaoDTO("{}", "BAIXO", requisicao.getFkCidadaoID());
+
+        // Act
+        ResponseEntity<ReportResponseDTO> resposta = idempotenciaCache.executar("report", "chave-1", outra,
+                ReportResponseDTO.class, () -> criado("BAIXO"));
+
+        // Assert
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, resposta.getStatusCode());
+    }
+
+    @Test
+    void executar_shouldRunAgain_whenOriginalFailed() {
+        // Arrange: a exceção desfaz a transação e com ela a reserva da chave
+        assertThrows(IllegalArgumentException.class, () -> idempotenciaCache.executar("report", "chave-1", requisicao,
+                ReportResponseDTO.class, () -> {
+                    throw new IllegalArgumentException("Cidadao não encontrado");
+                }));
+
+        // Act
+        ResponseEntity<ReportResponseDTO> resposta = idempotenciaCache.executar("report", "chave-1", requisicao,
+                ReportResponseDTO.class, () -> criado("ALTO"));
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        assertNull(resposta.getHeaders().getFirst(IdempotenciaCache.CABECALHO_REPETIDA));
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void executar_shouldRollBackAndNotStore_whenResponseIsNotSuccessful() {
+        // Act
+        ResponseEntity<ReportResponseDTO> recusada = idempotenciaCache.executar("report", "chave-1", requisicao,
+                ReportResponseDTO.class, () -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        ResponseEntity<ReportResponseDTO> repetida = idempotenciaCache.executar("report", "chave-1", requisicao,
+                ReportResponseDTO.class, () -> criado("ALTO"));
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, recusada.getStatusCode());
+        assertEquals(HttpStatus.CREATED, repetida.getStatusCode());
+        verify(idempotenciaRepository, times(1)).registrarResposta(anyString(), anyString(), anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void executar_shouldReturnConflict_whenOriginalIsStillRunning() {
+        // Arrange: a reserva esperou tempo-espera pela transação da original e estourou o lock_timeout
+        when(idempotenciaRepository.reservar(anyString(), anyString(), anyString(), anyString(), any()))
+                .thenThrow(new CannotAcquireLockException("canceling statement due to lock timeout"));
+        AtomicInteger execucoes = new AtomicInteger();
+
+        // Act
+        ResponseEntity<ReportResponseDTO> resposta = idempotenciaCache.executar("report", "chave-1", requisicao,
+                ReportResponseDTO.class, () -> {
+                    execucoes.incrementAndGet();
+                    return criado("ALTO");
+                });
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, resposta.getStatusCode());
+        assertEquals(0, execucoes.get());
+    }
+
+    @Test
+    void executar_shouldRunWithoutTouchingTheTable_whenKeyIsAbsent() {
+        // Act
+        ResponseEntity<ReportResponseDTO> resposta = idempotenciaCache.executar("report", null, requisicao,
+                ReportResponseDTO.class, () -> criado("ALTO"));
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        verifyNoInteractions(idempotenciaRepository, transactionManager);
+    }
+}
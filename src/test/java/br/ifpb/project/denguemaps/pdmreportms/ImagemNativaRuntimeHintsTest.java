@@ -0,0 +1,49 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.aot.ImagemNativaRuntimeHints;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportResponseDTO;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hypersistence.utils.hibernate.type.json.JsonType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImagemNativaRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setup() {
+        new ImagemNativaRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_shouldCoverImportedConfigFiles() {
+        // Assert
+        assertTrue(RuntimeHintsPredicates.resource().forResource("application_common.yml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("application_dev.yml").test(hints));
+    }
+
+    @Test
+    void registerHints_shouldRegisterConstructorsInstantiatedByHibernate() {
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ReportResponseDTO.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(JsonType.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void registerHints_shouldRegisterGeneratedCaffeineImplementations() {
+        // Arrange: implementação escolhida para um cache limitado por tamanho (ex: SSMS)
+        Class<?> implementacao = Caffeine.newBuilder().maximumSize(10).build().asMap().getClass();
+
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onType(implementacao)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+}
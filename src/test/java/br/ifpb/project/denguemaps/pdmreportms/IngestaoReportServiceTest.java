@@ -0,0 +1,202 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.IngestaoStatusDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportCriacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportIngestaoAceiteDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportIngestaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.ingestao.ArquivoWal;
+import br.ifpb.project.denguemaps.pdmreportms.ingestao.IngestaoReportHealthIndicator;
+import br.ifpb.project.denguemaps.pdmreportms.ingestao.IngestaoReportService;
+import br.ifpb.project.denguemaps.pdmreportms.service.ReportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IngestaoReportServiceTest {
+
+    @Mock
+    private ReportService reportService;
+
+    @TempDir
+    Path diretorio;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private IngestaoReportService ingestaoReportService;
+
+    private IngestaoReportService criarServico(int capacidade) {
+        ingestaoReportService = new IngestaoReportService(
+                reportService, objectMapper, new SimpleMeterRegistry(),
+                diretorio, false, capacidade, 10, Duration.ofSeconds(1));
+        return ingestaoReportService;
+    }
+
+    @AfterEach
+    void encerrar() {
+        if (ingestaoReportService != null && ingestaoReportService.isRunning()) {
+            ingestaoReportService.stop();
+        }
+    }
+
+    private static ReportCriacaoDTO reportCriacao() {
+        return new ReportCriacaoDTO("{\"lat\": -7.1, \"lng\": -34.8}", "ALTO", UUID.randomUUID());
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condicao.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(20);
+        }
+        assertTrue(condicao.getAsBoolean());
+    }
+
+    @Test
+    void enfileirar_shouldAcceptAndWriteInBackground() throws Exception {
+        // Arrange
+        when(reportService.gravarReportsIngeridos(anyList()))
+                .thenAnswer(inv -> ((List<ReportIngestaoDTO>) inv.getArgument(0)).stream().map(ReportIngestaoDTO::getId).toList());
+        IngestaoReportService servico = criarServico(100);
+        servico.start();
+
+        // Act
+        Optional<ReportIngestaoAceiteDTO> aceite = servico.enfileirar(reportCriacao());
+
+        // Assert
+        assertTrue(aceite.isPresent());
+        aguardar(() -> servico.status().getGravados() == 1);
+        IngestaoStatusDTO status = servico.status();
+        assertEquals(0, status.getPendentes());
+        assertEquals(0, status.getTamanhoWalBytes());
+        verify(reportService).validarReportCriacao(any());
+    }
+
+    @Test
+    void enfileirar_shouldNotAcceptInvalidReport() {
+        // Arrange
+        doThrow(new IllegalArgumentException("Cidadao não encontrado")).when(reportService).validarReportCriacao(any());
+        IngestaoReportService servico = criarServico(100);
+        servico.start();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> servico.enfileirar(reportCriacao()));
+        assertEquals(0, servico.status().getTamanhoWalBytes());
+    }
+
+    @Test
+    void enfileirar_shouldReturnEmpty_whenQueueIsFull() throws Exception {
+        // Arrange: banco fora do ar, nada sai da fila
+        when(reportService.gravarReportsIngeridos(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        IngestaoReportService servico = criarServico(1);
+        servico.start();
+        servico.enfileirar(reportCriacao());
+        aguardar(() -> servico.status().getUltimoErro() != null);
+
+        // Act: o primeiro saiu da fila para a retentativa; o segundo ocupa a capacidade
+        Optional<ReportIngestaoAceiteDTO> segundo = servico.enfileirar(reportCriacao());
+        Optional<ReportIngestaoAceiteDTO> terceiro = servico.enfileirar(reportCriacao());
+
+        // Assert
+        assertTrue(segundo.isPresent());
+        assertTrue(terceiro.isEmpty());
+        assertEquals(0, servico.status().getGravados());
+    }
+
+    @Test
+    void start_shouldReplayPendingRecordsFromWal() throws Exception {
+        // Arrange: reports aceitos antes de uma queda
+        UUID id = UUID.randomUUID();
+        try (ArquivoWal wal = new ArquivoWal(diretorio, false)) {
+            wal.anexar(objectMapper.writeValueAsBytes(
+                    new ReportIngestaoDTO(id, OffsetDateTime.now(), reportCriacao())));
+        }
+        when(reportService.gravarReportsIngeridos(anyList())).thenReturn(List.of(id));
+        IngestaoReportService servico = criarServico(100);
+
+        // Act
+        servico.start();
+
+        // Assert
+        aguardar(() -> servico.status().getGravados() == 1);
+        verify(reportService).gravarReportsIngeridos(argThat(lote -> lote.size() == 1 && lote.get(0).getId().equals(id)));
+    }
+
+    @Test
+    void gravar_shouldIsolateFailingReportIntoRejectedFile() throws Exception {
+        // Arrange
+        IngestaoReportService servico = criarServico(100);
+        ReportCriacaoDTO ruim = reportCriacao();
+        when(reportService.gravarReportsIngeridos(anyList())).thenAnswer(inv -> {
+            List<ReportIngestaoDTO> lote = inv.getArgument(0);
+            if (lote.stream().anyMatch(r -> r.getReport().getFkCidadaoID().equals(ruim.getFkCidadaoID()))) {
+                throw new DataIntegrityViolationException("violação");
+            }
+            return lote.stream().map(ReportIngestaoDTO::getId).toList();
+        });
+        try (ArquivoWal wal = new ArquivoWal(diretorio, false)) {
+            for (ReportCriacaoDTO dto : List.of(reportCriacao(), ruim, reportCriacao())) {
+                wal.anexar(objectMapper.writeValueAsBytes(new ReportIngestaoDTO(UUID.randomUUID(), OffsetDateTime.now(), dto)));
+            }
+        }
+
+        // Act
+        servico.start();
+
+        // Assert
+        aguardar(() -> servico.status().getRejeitados() == 1 && servico.status().getGravados() == 2);
+        List<String> rejeitados = Files.readAllLines(diretorio.resolve(IngestaoReportService.ARQUIVO_REJEITADOS));
+        assertEquals(1, rejeitados.size());
+        assertTrue(rejeitados.get(0).contains(ruim.getFkCidadaoID().toString()));
+        aguardar(() -> servico.status().getTamanhoWalBytes() == 0);
+    }
+
+    @Test
+    void gravar_shouldRefuseNewReportsAndRetry_whenRejectedFileCannotBeWritten() throws Exception {
+        // Arrange: o banco recusa o report e o arquivo de rejeitados não pode ser escrito
+        when(reportService.gravarReportsIngeridos(anyList())).thenThrow(new DataIntegrityViolationException("violação"));
+        Path rejeitados = Files.createDirectory(diretorio.resolve(IngestaoReportService.ARQUIVO_REJEITADOS));
+        IngestaoReportService servico = criarServico(100);
+        IngestaoReportHealthIndicator health = new IngestaoReportHealthIndicator(servico);
+        servico.start();
+        servico.enfileirar(reportCriacao());
+        aguardar(() -> servico.falhaGravacao().isPresent());
+
+        // Act
+        Optional<ReportIngestaoAceiteDTO> duranteFalha = servico.enfileirar(reportCriacao());
+        Status statusDuranteFalha = health.health().getStatus();
+        Files.delete(rejeitados);
+
+        // Assert: a mesma thread refaz o lote depois da espera e volta a aceitar
+        assertTrue(duranteFalha.isEmpty());
+        assertEquals(Status.DOWN, statusDuranteFalha);
+        aguardar(() -> servico.falhaGravacao().isEmpty());
+        assertEquals(1, servico.status().getRejeitados());
+        assertEquals(0, servico.status().getTamanhoWalBytes());
+        assertEquals(Status.UP, health.health().getStatus());
+        assertTrue(servico.enfileirar(reportCriacao()).isPresent());
+    }
+}
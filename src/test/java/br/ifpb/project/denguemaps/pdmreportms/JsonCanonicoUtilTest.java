@@ -0,0 +1,38 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.util.JsonCanonicoUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonCanonicoUtilTest {
+
+    @Test
+    void canonizar_shouldSortKeysAndDropWhitespace() {
+        // Act
+        String canonico = JsonCanonicoUtil.canonizar("{ \"q2\": [\"B\", {\"z\": 1, \"a\": 2.50}],\n \"q1\": \"A\" }");
+
+        // Assert
+        assertEquals("{\"q1\":\"A\",\"q2\":[\"B\",{\"a\":2.50,\"z\":1}]}", canonico);
+    }
+
+    @Test
+    void hash_shouldBeEqualForSameContentInDifferentOrder() {
+        // Act
+        String hashA = JsonCanonicoUtil.hash(JsonCanonicoUtil.canonizar("{\"q1\": \"A\", \"q2\": \"B\"}"));
+        String hashB = JsonCanonicoUtil.hash(JsonCanonicoUtil.canonizar("{\"q2\":\"B\",\"q1\":\"A\"}"));
+        String hashC = JsonCanonicoUtil.hash(JsonCanonicoUtil.canonizar("{\"q1\": \"A\", \"q2\": \"C\"}"));
+
+        // Assert
+        assertEquals(64, hashA.length());
+        assertEquals(hashA, hashB);
+        assertNotEquals(hashA, hashC);
+    }
+
+    @Test
+    void canonizar_shouldThrowIllegalArgumentException_whenJsonIsInvalid() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> JsonCanonicoUtil.canonizar("{invalido"));
+        assertThrows(IllegalArgumentException.class, () -> JsonCanonicoUtil.canonizar(" "));
+    }
+}
@@ -0,0 +1,68 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.security.JwtDecoderConfiguration;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtDecoderConfigurationTest {
+
+    private static final String ISSUER = "http://localhost:8080/realms/denguemaps";
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void jwtDecoder_shouldFallBackToLocalKeys_whenIssuerIsUnreachable() throws Exception {
+        // Arrange
+        RSAKey chave = new RSAKeyGenerator(2048).keyID("chave-local").generate();
+        Path arquivo = diretorio.resolve("jwks.json");
+        Files.writeString(arquivo, new JWKSet(chave.toPublicJWK()).toString());
+
+        OAuth2ResourceServerProperties propriedades = new OAuth2ResourceServerProperties();
+        // Porta 1: conexão recusada na hora, simulando o Keycloak fora do ar
+        propriedades.getJwt().setJwkSetUri("http://localhost:1/realms/denguemaps/protocol/openid-connect/certs");
+        propriedades.getJwt().setIssuerUri(ISSUER);
+
+        JwtDecoder decoder = new JwtDecoderConfiguration().jwtDecoder(
+                propriedades,
+                Duration.ofMinutes(15),
+                Duration.ofSeconds(2),
+                Duration.ofSeconds(30),
+                Duration.ofHours(4),
+                new FileSystemResource(arquivo));
+
+        SignedJWT token = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("chave-local").build(),
+                new JWTClaimsSet.Builder()
+                        .issuer(ISSUER)
+                        .subject("cidadao")
+                        .expirationTime(new Date(System.currentTimeMillis() + 60_000))
+                        .build());
+        token.sign(new RSASSASigner(chave));
+
+        // Act
+        Jwt jwt = decoder.decode(token.serialize());
+
+        // Assert
+        assertEquals("cidadao", jwt.getSubject());
+    }
+}
@@ -0,0 +1,80 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.security.converter.KeycloakRealmRoleConverter;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeycloakRealmRoleConverterTest {
+
+    private final KeycloakRealmRoleConverter converter = new KeycloakRealmRoleConverter();
+
+    @Test
+    void convert_shouldMergeRealmAndClientRolesWithPrefix() {
+        // Act
+        Collection<GrantedAuthority> autoridades = converter.convert(token("jti-1", "token-1", Instant.now().plusSeconds(300)));
+
+        // Assert
+        Set<String> nomes = autoridades.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+        assertEquals(Set.of("ROLE_CIDADAO", "ROLE_offline_access", "ROLE_report-leitura"), nomes);
+    }
+
+    @Test
+    void convert_shouldReuseResult_forSameJti() {
+        // Arrange
+        Instant expiracao = Instant.now().plusSeconds(300);
+
+        // Act
+        Collection<GrantedAuthority> primeira = converter.convert(token("jti-1", "token-1", expiracao));
+        Collection<GrantedAuthority> segunda = converter.convert(token("jti-1", "token-1", expiracao));
+
+        // Assert
+        assertSame(primeira, segunda);
+    }
+
+    @Test
+    void convert_shouldInternAuthorities_acrossTokens() {
+        // Act
+        Collection<GrantedAuthority> primeira = converter.convert(token("jti-1", "token-1", Instant.now().plusSeconds(300)));
+        Collection<GrantedAuthority> segunda = converter.convert(token("jti-2", "token-2", Instant.now().plusSeconds(300)));
+
+        // Assert
+        assertNotSame(primeira, segunda);
+        GrantedAuthority cidadaoPrimeira = primeira.stream().filter(a -> a.getAuthority().equals("ROLE_CIDADAO")).findFirst().orElseThrow();
+        GrantedAuthority cidadaoSegunda = segunda.stream().filter(a -> a.getAuthority().equals("ROLE_CIDADAO")).findFirst().orElseThrow();
+        assertSame(cidadaoPrimeira, cidadaoSegunda);
+    }
+
+    @Test
+    void convert_shouldNotCache_whenTokenHasNoExpiration() {
+        // Act
+        Collection<GrantedAuthority> primeira = converter.convert(token("jti-1", "token-1", null));
+        Collection<GrantedAuthority> segunda = converter.convert(token("jti-1", "token-1", null));
+
+        // Assert
+        assertNotSame(primeira, segunda);
+        assertEquals(primeira, segunda);
+    }
+
+    private Jwt token(String jti, String valor, Instant expiracao) {
+        Jwt.Builder construtor = Jwt.withTokenValue(valor)
+                .header("alg", "RS256")
+                .jti(jti)
+                .issuedAt(Instant.now().minusSeconds(10))
+                .claim("realm_access", Map.of("roles", List.of("offline_access", "CIDADAO")))
+                .claim("resource_access", Map.of("pdm-report-ms", Map.of("roles", List.of("report-leitura"))));
+        if (expiracao != null) {
+            construtor.expiresAt(expiracao);
+        }
+        return construtor.build();
+    }
+}
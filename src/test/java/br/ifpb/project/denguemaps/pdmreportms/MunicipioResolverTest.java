@@ -0,0 +1,84 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.MunicipioResolver;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Municipio;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.repository.MunicipioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MunicipioResolverTest {
+
+    @Mock
+    private MunicipioRepository municipioRepository;
+
+    @InjectMocks
+    private MunicipioResolver municipioResolver;
+
+    private final UUID JOAO_PESSOA_ID = UUID.randomUUID();
+    private final UUID SAO_JOSE_PB_ID = UUID.randomUUID();
+    private final UUID SAO_JOSE_SC_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        when(municipioRepository.findAll()).thenReturn(List.of(
+                new Municipio(JOAO_PESSOA_ID, "João Pessoa", null, Estado.PB, null),
+                new Municipio(SAO_JOSE_PB_ID, "São José de Piranhas", null, Estado.PB, null),
+                new Municipio(SAO_JOSE_SC_ID, "São José", null, Estado.SC, null)
+        ));
+        when(municipioRepository.buscarPorNomeOuIdEEstado(any(), any(), any())).thenReturn(Optional.empty());
+        municipioResolver.recarregar();
+    }
+
+    @Test
+    void resolver_shouldIgnoreAccentsAndCase() {
+        // Act
+        Optional<Municipio> municipio = municipioResolver.resolver("  joao   PESSOA ", null, Estado.PB);
+
+        // Assert
+        assertEquals(JOAO_PESSOA_ID, municipio.orElseThrow().getId());
+        verify(municipioRepository, never()).buscarPorNomeOuIdEEstado(any(), any(), any());
+    }
+
+    @Test
+    void resolver_shouldPreferIdAndRespectEstado() {
+        // Act
+        Optional<Municipio> porId = municipioResolver.resolver("nome qualquer", SAO_JOSE_PB_ID, Estado.PB);
+        Optional<Municipio> idDeOutroEstado = municipioResolver.resolver(null, SAO_JOSE_SC_ID, Estado.PB);
+
+        // Assert
+        assertEquals(SAO_JOSE_PB_ID, porId.orElseThrow().getId());
+        assertTrue(idDeOutroEstado.isEmpty());
+    }
+
+    @Test
+    void resolver_shouldFallBackToDatabaseOnce_andIndexTheResult() {
+        // Arrange
+        UUID novoId = UUID.randomUUID();
+        when(municipioRepository.buscarPorNomeOuIdEEstado("Patos", null, "PB"))
+                .thenReturn(Optional.of(new Municipio(novoId, "Patos", null, Estado.PB, null)));
+
+        // Act
+        municipioResolver.resolver("Patos", null, Estado.PB);
+        Optional<Municipio> segundaVez = municipioResolver.resolver("patos", null, Estado.PB);
+
+        // Assert
+        assertEquals(novoId, segundaVez.orElseThrow().getId());
+        verify(municipioRepository, times(1)).buscarPorNomeOuIdEEstado("Patos", null, "PB");
+    }
+}
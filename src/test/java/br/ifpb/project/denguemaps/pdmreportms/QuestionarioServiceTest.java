@@ -1,13 +1,22 @@
 package br.ifpb.project.denguemaps.pdmreportms;
 
+import br.ifpb.project.denguemaps.pdmreportms.cache.CidadaoCache;
+import br.ifpb.project.denguemaps.pdmreportms.cache.ConjuntoPerguntasCache;
+import br.ifpb.project.denguemaps.pdmreportms.cache.MunicipioResolver;
+import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.AgregacaoPerguntaDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.DistribuicaoRespostaProjecao;
 import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.QuestionarioAtualizarDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.QuestionarioCriarDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.questionario.QuestionarioResponseDTO;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Cidadao;
+import br.ifpb.project.denguemaps.pdmreportms.entity.ConjuntoPerguntas;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Municipio;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Questionario;
-import br.ifpb.project.denguemaps.pdmreportms.repository.CidadaoRepository;
+import br.ifpb.project.denguemaps.pdmreportms.entity.RespostaQuestionario;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
 import br.ifpb.project.denguemaps.pdmreportms.repository.QuestionarioRepository;
 import br.ifpb.project.denguemaps.pdmreportms.service.QuestionarioService;
+import br.ifpb.project.denguemaps.pdmreportms.util.JsonCanonicoUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,7 +28,10 @@ import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -34,7 +46,13 @@ class QuestionarioServiceTest {
     private QuestionarioRepository questionarioRepository;
 
     @Mock
-    private CidadaoRepository cidadaoRepository;
+    private CidadaoCache cidadaoCache;
+
+    @Mock
+    private MunicipioResolver municipioResolver;
+
+    @Mock
+    private ConjuntoPerguntasCache conjuntoPerguntasCache;
 
     @InjectMocks
     private QuestionarioService questionarioService;
@@ -62,7 +80,10 @@ class QuestionarioServiceTest {
                 "{\"q1\": \"Resp 1\"}",  // respostas
                 mockCidadao,
                 OffsetDateTime.now().minusDays(2),
-                OffsetDateTime.now().minusDays(1)
+                OffsetDateTime.now().minusDays(1),
+                new ArrayList<>(),
+                null,
+                null
         );
 
         // 3. Inicialização de DTOs de Criação usando .set()
@@ -79,7 +100,25 @@ class QuestionarioServiceTest {
         mockAtualizarDTO.setFkCidadaoId(CIDADAO_ID);
 
         // Configuração Padrão de Repositório (Reutilizada em vários testes)
-        when(cidadaoRepository.findById(CIDADAO_ID)).thenReturn(Optional.of(mockCidadao));
+        when(cidadaoCache.referenciar(CIDADAO_ID)).thenReturn(mockCidadao);
+
+        // Cache de conjuntos de perguntas simulado por um mapa hash -> JSON
+        Map<String, String> conjuntos = new HashMap<>();
+        when(conjuntoPerguntasCache.registrar(anyString())).thenAnswer(invocation -> {
+            String perguntas = invocation.getArgument(0);
+            String hash = JsonCanonicoUtil.hash(JsonCanonicoUtil.canonizar(perguntas));
+            conjuntos.put(hash, perguntas);
+            return new ConjuntoPerguntas(hash, perguntas, OffsetDateTime.now());
+        });
+        when(conjuntoPerguntasCache.buscarPerguntas(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(conjuntos.get(invocation.<String>getArgument(0))));
+        when(conjuntoPerguntasCache.referenciar(anyString())).thenAnswer(invocation -> {
+            String hash = invocation.getArgument(0);
+            if (!conjuntos.containsKey(hash)) {
+                throw new IllegalArgumentException("Conjunto de perguntas não encontrado");
+            }
+            return new ConjuntoPerguntas(hash, conjuntos.get(hash), OffsetDateTime.now());
+        });
     }
 
     // --- Testes para registrarQuestionarioComRetorno ---
@@ -106,10 +145,57 @@ class QuestionarioServiceTest {
 
         verify(questionarioRepository, times(1)).save(any(Questionario.class));
 
-        assertEquals(mockCriarDTO.getPerguntas(), capturedQuestionario.getPerguntas());
+        // As perguntas ficam só no conjunto deduplicado
+        assertNull(capturedQuestionario.getPerguntas());
+        assertEquals(result.getConjuntoPerguntasHash(), capturedQuestionario.getConjuntoPerguntas().getHash());
+        assertEquals(mockCriarDTO.getPerguntas(), result.getPerguntas());
         assertEquals(CIDADAO_ID, result.getFkCidadaoId());
     }
 
+    @Test
+    void registrarQuestionarioComRetorno_shouldReferenceExistingSet_whenOnlyHashIsGiven() {
+        // Arrange
+        String hash = conjuntoPerguntasCache.registrar(mockCriarDTO.getPerguntas()).getHash();
+        mockCriarDTO.setPerguntas(null);
+        mockCriarDTO.setConjuntoPerguntasHash(hash);
+        ArgumentCaptor<Questionario> questionarioCaptor = ArgumentCaptor.forClass(Questionario.class);
+        when(questionarioRepository.save(questionarioCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        QuestionarioResponseDTO result = questionarioService.registrarQuestionarioComRetorno(mockCriarDTO);
+
+        // Assert
+        assertEquals(hash, questionarioCaptor.getValue().getConjuntoPerguntas().getHash());
+        assertEquals("{\"q1\": \"Nova Perg 1\"}", result.getPerguntas());
+        assertEquals(1, questionarioCaptor.getValue().getRespostasNormalizadas().size());
+    }
+
+    @Test
+    void registrarQuestionarioComRetorno_shouldThrowIllegalArgumentException_whenNoQuestionsGiven() {
+        // Arrange
+        mockCriarDTO.setPerguntas(null);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> questionarioService.registrarQuestionarioComRetorno(mockCriarDTO));
+        verify(questionarioRepository, never()).save(any(Questionario.class));
+    }
+
+    @Test
+    void registrarQuestionarioComRetorno_shouldNormalizeAnswers() {
+        // Arrange
+        ArgumentCaptor<Questionario> questionarioCaptor = ArgumentCaptor.forClass(Questionario.class);
+        when(questionarioRepository.save(questionarioCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        questionarioService.registrarQuestionarioComRetorno(mockCriarDTO);
+
+        // Assert
+        assertEquals(
+                List.of(new RespostaQuestionario("q1", "Nova Perg 1", "nova resp 1")),
+                questionarioCaptor.getValue().getRespostasNormalizadas());
+    }
+
     @Test
     void registrarQuestionarioComRetorno_shouldThrowIllegalArgumentException_whenCidadaoNotFound() {
         // Arrange
@@ -119,7 +205,8 @@ class QuestionarioServiceTest {
         dto.setRespostas("{}");
         dto.setFkCidadaoId(nonExistingCidadaoId); // ID que não existe
 
-        when(cidadaoRepository.findById(nonExistingCidadaoId)).thenReturn(Optional.empty());
+        when(cidadaoCache.referenciar(nonExistingCidadaoId))
+                .thenThrow(new IllegalArgumentException("Cidadao não encontrado"));
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class,
@@ -147,11 +234,12 @@ class QuestionarioServiceTest {
 
         // Assert
         verify(questionarioRepository, times(1)).findById(QUESTIONARIO_ID);
-        verify(cidadaoRepository, times(1)).findById(CIDADAO_ID); // Busca do Cidadao para atualização
+        verify(cidadaoCache, times(1)).referenciar(CIDADAO_ID); // Busca do Cidadao para atualização
         verify(questionarioRepository, times(1)).save(mockQuestionario);
 
         // Verifica se os campos foram atualizados no objeto mockQuestionario
-        assertEquals(mockAtualizarDTO.getPerguntas(), mockQuestionario.getPerguntas());
+        assertNull(mockQuestionario.getPerguntas());
+        assertNotNull(mockQuestionario.getConjuntoPerguntas());
         assertEquals(mockAtualizarDTO.getRespostas(), mockQuestionario.getRespostas());
 
         // Verifica o DTO de resposta
@@ -192,7 +280,8 @@ class QuestionarioServiceTest {
         when(questionarioRepository.findById(QUESTIONARIO_ID)).thenReturn(Optional.of(mockQuestionario));
 
         // Simula a falha na busca do Cidadao
-        when(cidadaoRepository.findById(nonExistingCidadaoId)).thenReturn(Optional.empty());
+        when(cidadaoCache.referenciar(nonExistingCidadaoId))
+                .thenThrow(new IllegalArgumentException("Cidadao não encontrado"));
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class,
@@ -245,6 +334,23 @@ class QuestionarioServiceTest {
         verify(questionarioRepository, times(1)).findById(QUESTIONARIO_ID);
     }
 
+    @Test
+    void buscarQuestionarioEspecifico_shouldReturnOnlyHash_whenQuestionsNotIncluded() {
+        // Arrange
+        mockQuestionario.setConjuntoPerguntas(conjuntoPerguntasCache.registrar(mockQuestionario.getPerguntas()));
+        mockQuestionario.setPerguntas(null);
+        when(questionarioRepository.findById(QUESTIONARIO_ID)).thenReturn(Optional.of(mockQuestionario));
+
+        // Act
+        QuestionarioResponseDTO semPerguntas = questionarioService.buscarQuestionarioEspecifico(QUESTIONARIO_ID, false);
+        QuestionarioResponseDTO comPerguntas = questionarioService.buscarQuestionarioEspecifico(QUESTIONARIO_ID, true);
+
+        // Assert
+        assertNull(semPerguntas.getPerguntas());
+        assertEquals(mockQuestionario.getConjuntoPerguntas().getHash(), semPerguntas.getConjuntoPerguntasHash());
+        assertEquals("{\"q1\": \"Perg 1\"}", comPerguntas.getPerguntas());
+    }
+
     @Test
     void buscarQuestionarioEspecifico_shouldThrowException_whenNotFound() {
         // Arrange
@@ -265,7 +371,10 @@ class QuestionarioServiceTest {
                 "{}",
                 mockCidadao,
                 OffsetDateTime.now(),
-                OffsetDateTime.now()
+                OffsetDateTime.now(),
+                new ArrayList<>(),
+                null,
+                null
         );
         List<Questionario> mockList = List.of(mockQuestionario, mockQuestionario2);
 
@@ -289,7 +398,10 @@ class QuestionarioServiceTest {
                 "{}",
                 mockCidadao,
                 OffsetDateTime.now(),
-                OffsetDateTime.now()
+                OffsetDateTime.now(),
+                new ArrayList<>(),
+                null,
+                null
         );
         List<Questionario> mockList = List.of(mockQuestionario, mockQuestionario2);
 
@@ -303,4 +415,82 @@ class QuestionarioServiceTest {
         assertEquals(QUESTIONARIO_ID, results.get(0).getId());
         verify(questionarioRepository, times(1)).findAll();
     }
-}
\ No newline at end of file
+
+    // --- Testes para agregarRespostasPorMunicipio ---
+
+    @Test
+    void agregarRespostasPorMunicipio_shouldGroupByQuestionAndComputeShare() {
+        // Arrange
+        UUID municipioId = UUID.randomUUID();
+        when(municipioResolver.resolver("João Pessoa", null, Estado.PB))
+                .thenReturn(Optional.of(new Municipio(municipioId, "João Pessoa", null, Estado.PB, null)));
+        when(questionarioRepository.agregarRespostas(eq(municipioId), any(), any())).thenReturn(List.of(
+                linha("q1", null, 5, 4, 1),
+                linha("q1", "sim", 3, 3, 0),
+                linha("q1", "nao", 2, 1, 0)
+        ));
+
+        // Act
+        List<AgregacaoPerguntaDTO> resultado = questionarioService.agregarRespostasPorMunicipio(
+                "João Pessoa", null, Estado.PB, null, null);
+
+        // Assert
+        assertEquals(1, resultado.size());
+        AgregacaoPerguntaDTO pergunta = resultado.get(0);
+        assertEquals(4, pergunta.getTotalCidadaos());
+        assertEquals(2, pergunta.getRespostas().size());
+        assertEquals("sim", pergunta.getRespostas().get(0).getResposta());
+        assertEquals(75.0, pergunta.getRespostas().get(0).getPercentualCidadaos(), 0.001);
+    }
+
+    @Test
+    void agregarRespostasPorMunicipio_shouldThrowIllegalArgumentException_whenMunicipioNotFound() {
+        // Arrange
+        when(municipioResolver.resolver(any(), any(), any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> questionarioService.agregarRespostasPorMunicipio("Inexistente", null, Estado.PB, null, null));
+        verify(questionarioRepository, never()).agregarRespostas(any(), any(), any());
+    }
+
+    private DistribuicaoRespostaProjecao linha(String chave, String resposta, long quantidade, long cidadaos, int total) {
+        return new DistribuicaoRespostaProjecao() {
+            public String getPerguntaChave() { return chave; }
+            public String getPergunta() { return "Há água parada?"; }
+            public String getResposta() { return resposta; }
+            public Long getQuantidade() { return quantidade; }
+            public Long getCidadaos() { return cidadaos; }
+            public Integer getTotal() { return total; }
+        };
+    }
+
+    @Test
+    void normalizarLoteRespostas_shouldMarkQuestionario_evenWhenNothingIsExtracted() {
+        // Arrange
+        mockQuestionario.setRespostas("não é JSON");
+        when(questionarioRepository.tentarBloquearNormalizacao()).thenReturn(true);
+        when(questionarioRepository.buscarSemRespostasNormalizadas(any(), any())).thenReturn(List.of(mockQuestionario));
+
+        // Act
+        UUID ultimoId = questionarioService.normalizarLoteRespostas(new UUID(0, 0), 200);
+
+        // Assert
+        assertEquals(QUESTIONARIO_ID, ultimoId);
+        assertTrue(mockQuestionario.getRespostasNormalizadas().isEmpty());
+        assertNotNull(mockQuestionario.getNormalizadoEm());
+    }
+
+    @Test
+    void normalizarLoteRespostas_shouldStop_whenAnotherInstanceHoldsTheLock() {
+        // Arrange
+        when(questionarioRepository.tentarBloquearNormalizacao()).thenReturn(false);
+
+        // Act
+        UUID ultimoId = questionarioService.normalizarLoteRespostas(new UUID(0, 0), 200);
+
+        // Assert
+        assertNull(ultimoId);
+        verify(questionarioRepository, never()).buscarSemRespostasNormalizadas(any(), any());
+    }
+}
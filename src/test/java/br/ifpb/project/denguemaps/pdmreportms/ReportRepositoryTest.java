@@ -0,0 +1,144 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportResponseDTO;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Cidadao;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Report;
+import br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Executa as consultas com PROJECAO_RESPONSE de verdade (H2 em modo PostgreSQL, schema gerado
+ * pelas entidades) e conta os statements pelas estatísticas do Hibernate: a projeção precisa
+ * resolver o construtor do DTO e trazer o nome do cidadão sem consultas extras.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:report;MODE=PostgreSQL;IGNORE_UNKNOWN_SETTINGS=TRUE;"
+                + "INIT=CREATE DOMAIN IF NOT EXISTS jsonb AS JSON",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReportRepositoryTest {
+
+    private static final OffsetDateTime INICIO = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime FIM = INICIO.plusMonths(1);
+
+    @Autowired
+    private ReportRepository reportRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setup() {
+        estatisticas = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void buscarTodosResponse_shouldProjectCidadaoNameInSingleStatement() {
+        // Arrange
+        for (int i = 1; i <= 5; i++) {
+            persistirReport(persistirCidadao(i), INICIO.plusDays(i));
+        }
+        limparContexto();
+
+        // Act
+        List<ReportResponseDTO> reports = reportRepository.buscarTodosResponse(INICIO, FIM);
+
+        // Assert
+        assertEquals(5, reports.size());
+        assertTrue(reports.stream().allMatch(r -> r.getNomeCidadao().startsWith("Cidadão ")));
+        assertTrue(reports.stream().allMatch(r -> r.getCoordenadas().contains("\"lat\"")));
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void buscarResponsePorCidadaoId_shouldFilterByCidadaoAndPeriod() {
+        // Arrange
+        Cidadao autor = persistirCidadao(1);
+        Cidadao outro = persistirCidadao(2);
+        Report noPeriodo = persistirReport(autor, INICIO.plusDays(3));
+        persistirReport(autor, FIM.plusDays(1));
+        persistirReport(outro, INICIO.plusDays(3));
+        limparContexto();
+
+        // Act
+        List<ReportResponseDTO> reports = reportRepository.buscarResponsePorCidadaoId(autor.getId(), INICIO, FIM);
+
+        // Assert
+        assertEquals(List.of(noPeriodo.getId()), reports.stream().map(ReportResponseDTO::getId).toList());
+        assertEquals("Cidadão 1", reports.get(0).getNomeCidadao());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void buscarPrimeiraPagina_shouldKeepReportsWithoutCidadao_andStreamInSameOrder() {
+        // Arrange
+        persistirReport(persistirCidadao(1), INICIO.plusDays(2));
+        Report semCidadao = persistirReport(null, INICIO.plusDays(1));
+        limparContexto();
+
+        // Act
+        List<ReportResponseDTO> pagina = reportRepository.buscarPrimeiraPagina(INICIO, FIM, Limit.of(10));
+        List<UUID> transmitidos;
+        try (Stream<ReportResponseDTO> stream = reportRepository.transmitirTodos(INICIO, FIM)) {
+            transmitidos = stream.map(ReportResponseDTO::getId).toList();
+        }
+
+        // Assert
+        assertEquals(semCidadao.getId(), pagina.get(0).getId());
+        assertNull(pagina.get(0).getNomeCidadao());
+        assertEquals(pagina.stream().map(ReportResponseDTO::getId).toList(), transmitidos);
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+    }
+
+    private Cidadao persistirCidadao(int numero) {
+        Cidadao cidadao = new Cidadao();
+        cidadao.setNome("Cidadão " + numero);
+        cidadao.setCpf(String.format("%011d", numero));
+        cidadao.setRefKeycloakId(UUID.randomUUID());
+        return entityManager.persist(cidadao);
+    }
+
+    private Report persistirReport(Cidadao cidadao, OffsetDateTime criadoEm) {
+        Report report = new Report();
+        report.setCoordenadas("{\"lat\": -7.12, \"lon\": -34.86}");
+        report.setClassificacaoRisco("ALTO");
+        report.setCidadao(cidadao);
+        report.setCreatedAt(criadoEm);
+        report.setUpdatedBy(criadoEm);
+        report.setLatitude(-7.12);
+        report.setLongitude(-34.86);
+        return entityManager.persist(report);
+    }
+
+    // Só as consultas do teste entram na contagem
+    private void limparContexto() {
+        entityManager.flush();
+        entityManager.clear();
+        estatisticas.clear();
+    }
+}
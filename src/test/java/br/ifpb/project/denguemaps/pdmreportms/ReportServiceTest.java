@@ -1,28 +1,54 @@
 package br.ifpb.project.denguemaps.pdmreportms;
 
+import br.ifpb.project.denguemaps.pdmreportms.cache.CidadaoCache;
+import br.ifpb.project.denguemaps.pdmreportms.cache.MunicipioResolver;
+import br.ifpb.project.denguemaps.pdmreportms.dto.contador.ContagemRiscoCidadaoDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportAtualizarDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportCriacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportIngestaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLocalizacaoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportLoteResultadoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportObjetoDTO;
+import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportPaginaDTO;
 import br.ifpb.project.denguemaps.pdmreportms.dto.report.ReportResponseDTO;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Cidadao;
+import br.ifpb.project.denguemaps.pdmreportms.entity.Municipio;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
 import br.ifpb.project.denguemaps.pdmreportms.entity.Report;
+import br.ifpb.project.denguemaps.pdmreportms.event.ReportAlteradoEvent;
 import br.ifpb.project.denguemaps.pdmreportms.repository.CidadaoRepository;
 import br.ifpb.project.denguemaps.pdmreportms.repository.ReportRepository;
+import br.ifpb.project.denguemaps.pdmreportms.service.ContadorRiscoService;
 import br.ifpb.project.denguemaps.pdmreportms.service.ReportService;
+import br.ifpb.project.denguemaps.pdmreportms.util.PeriodoUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,6 +62,14 @@ class ReportServiceTest {
     private ReportRepository reportRepository;
     @Mock
     private CidadaoRepository cidadaoRepository;
+    @Mock
+    private CidadaoCache cidadaoCache;
+    @Mock
+    private MunicipioResolver municipioResolver;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ContadorRiscoService contadorRiscoService;
 
     @InjectMocks
     private ReportService reportService;
@@ -43,6 +77,7 @@ class ReportServiceTest {
     // Dados de teste
     private final UUID CIDADAO_ID = UUID.randomUUID();
     private final UUID REPORT_ID = UUID.randomUUID();
+    private final UUID MUNICIPIO_ID = UUID.randomUUID();
     private Cidadao mockCidadao;
     private Report mockReport;
     private ReportCriacaoDTO mockCriacaoDTO;
@@ -62,7 +97,9 @@ class ReportServiceTest {
                 "ALTO",
                 mockCidadao,
                 OffsetDateTime.now().minusDays(1),
-                OffsetDateTime.now().minusDays(1)
+                OffsetDateTime.now().minusDays(1),
+                1.0,
+                2.0
         );
 
         // Inicialização dos DTOs de teste usando .set()
@@ -80,7 +117,7 @@ class ReportServiceTest {
 
 
         // Configurações Padrão de Repositório
-        when(cidadaoRepository.findById(CIDADAO_ID)).thenReturn(Optional.of(mockCidadao));
+        when(cidadaoCache.referenciar(CIDADAO_ID)).thenReturn(mockCidadao);
     }
 
     // --- Testes para cadastrarReport ---
@@ -117,7 +154,8 @@ class ReportServiceTest {
         dto.setClassificacaoRisco("ALTO");
         dto.setFkCidadaoID(nonExistingCidadaoId); // ID que não existe
 
-        when(cidadaoRepository.findById(nonExistingCidadaoId)).thenReturn(Optional.empty());
+        when(cidadaoCache.referenciar(nonExistingCidadaoId))
+                .thenThrow(new IllegalArgumentException("Cidadao não encontrado"));
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class,
@@ -127,6 +165,81 @@ class ReportServiceTest {
         verify(reportRepository, never()).save(any(Report.class));
     }
 
+    // --- Testes para cadastrarReportsEmLote ---
+
+    @Test
+    void cadastrarReportsEmLote_shouldResolveCidadaosOnceAndReportPartialFailures() {
+        // Arrange
+        UUID nonExistingCidadaoId = UUID.randomUUID();
+        ReportCriacaoDTO itemInvalido = new ReportCriacaoDTO("{}", "ALTO", nonExistingCidadaoId);
+        List<ReportCriacaoDTO> lote = List.of(mockCriacaoDTO, itemInvalido, mockCriacaoDTO);
+
+        when(cidadaoRepository.findAllById(anyCollection())).thenReturn(List.of(mockCidadao));
+        when(reportRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Report> reports = invocation.getArgument(0);
+            reports.forEach(report -> report.setId(UUID.randomUUID()));
+            return reports;
+        });
+
+        // Act
+        List<ReportLoteResultadoDTO> resultados = reportService.cadastrarReportsEmLote(lote);
+
+        // Assert
+        assertEquals(3, resultados.size());
+        assertTrue(resultados.get(0).isSucesso());
+        assertFalse(resultados.get(1).isSucesso());
+        assertEquals("Cidadao não encontrado", resultados.get(1).getErro());
+        assertTrue(resultados.get(2).isSucesso());
+        assertEquals(2, resultados.get(2).getIndice());
+        verify(cidadaoRepository, times(1)).findAllById(anyCollection());
+        verify(cidadaoRepository, never()).findById(any());
+        verify(reportRepository, times(1)).saveAll(argThat(reports -> ((List<Report>) reports).size() == 2));
+        verify(reportRepository, never()).save(any(Report.class));
+    }
+
+    @Test
+    void cadastrarReportsEmLote_shouldThrowIllegalArgumentException_whenBatchTooLarge() {
+        List<ReportCriacaoDTO> lote = Collections.nCopies(ReportService.TAMANHO_LOTE_MAXIMO + 1, mockCriacaoDTO);
+
+        assertThrows(IllegalArgumentException.class, () -> reportService.cadastrarReportsEmLote(lote));
+        verifyNoInteractions(reportRepository);
+    }
+
+    // --- Testes para gravarReportsIngeridos ---
+
+    @Test
+    void gravarReportsIngeridos_shouldCountAndPublishOnlyInsertedReports() {
+        // Arrange: o segundo já existe (replay do WAL) e o terceiro perdeu o cidadão
+        UUID novo = UUID.randomUUID();
+        UUID repetido = UUID.randomUUID();
+        OffsetDateTime recebidoEm = OffsetDateTime.now().minusMinutes(1);
+        List<ReportIngestaoDTO> ingeridos = List.of(
+                new ReportIngestaoDTO(novo, recebidoEm, mockCriacaoDTO),
+                new ReportIngestaoDTO(repetido, recebidoEm, mockCriacaoDTO),
+                new ReportIngestaoDTO(UUID.randomUUID(), recebidoEm, new ReportCriacaoDTO("{}", "ALTO", UUID.randomUUID()))
+        );
+        when(cidadaoRepository.findAllById(anyCollection())).thenReturn(List.of(mockCidadao));
+        when(cidadaoCache.buscarTodos(Set.of(CIDADAO_ID))).thenReturn(Map.of(CIDADAO_ID,
+                new CidadaoCache.CidadaoResumo(CIDADAO_ID, "Carlos Teste", MUNICIPIO_ID, Estado.PB)));
+        ArgumentCaptor<ReportAlteradoEvent> eventoCaptor = ArgumentCaptor.forClass(ReportAlteradoEvent.class);
+        when(reportRepository.inserirSeAusente(eq(novo), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        when(reportRepository.inserirSeAusente(eq(repetido), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        // Act
+        List<UUID> inseridos = reportService.gravarReportsIngeridos(ingeridos);
+
+        // Assert
+        assertEquals(List.of(novo), inseridos);
+        verify(reportRepository).inserirSeAusente(novo, mockCriacaoDTO.getCoordenadas(), "BAIXO", CIDADAO_ID, recebidoEm, 3.0, 4.0);
+        verify(reportRepository, times(2)).inserirSeAusente(any(), any(), any(), any(), any(), any(), any());
+        verify(contadorRiscoService).registrarAlteracoes(List.of(new ContagemRiscoCidadaoDTO(CIDADAO_ID, "BAIXO", 1)));
+        verify(eventPublisher, times(1)).publishEvent(eventoCaptor.capture());
+        // O município do autor é resolvido antes do commit, numa consulta só para o lote
+        assertEquals(MUNICIPIO_ID, eventoCaptor.getValue().municipioId());
+        assertEquals(Estado.PB, eventoCaptor.getValue().estado());
+        verify(cidadaoCache, times(1)).buscarTodos(any());
+    }
+
     // --- Testes para atualizarReport ---
 
     @Test
@@ -153,6 +266,35 @@ class ReportServiceTest {
         assertEquals(mockAtualizarDTO.getCoordenadas(), result.getCoordenadas());
     }
 
+    @Test
+    void atualizarReport_shouldMoveRiskCounter_whenClassificacaoChanges() {
+        // Arrange
+        when(reportRepository.findById(REPORT_ID)).thenReturn(Optional.of(mockReport));
+        when(reportRepository.save(any(Report.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        reportService.atualizarReport(mockAtualizarDTO);
+
+        // Assert
+        verify(contadorRiscoService, times(1)).registrarAlteracoes(List.of(
+                new ContagemRiscoCidadaoDTO(CIDADAO_ID, "ALTO", -1),
+                new ContagemRiscoCidadaoDTO(CIDADAO_ID, "MEDIO", 1)));
+    }
+
+    @Test
+    void atualizarReport_shouldNotTouchRiskCounter_whenClassificacaoUnchanged() {
+        // Arrange
+        mockAtualizarDTO.setClassificacaoRisco("ALTO");
+        when(reportRepository.findById(REPORT_ID)).thenReturn(Optional.of(mockReport));
+        when(reportRepository.save(any(Report.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        reportService.atualizarReport(mockAtualizarDTO);
+
+        // Assert
+        verify(contadorRiscoService, never()).registrarAlteracoes(anyCollection());
+    }
+
     @Test
     void atualizarReport_shouldThrowIllegalArgumentException_whenReportNotFound() {
         // Arrange
@@ -187,7 +329,8 @@ class ReportServiceTest {
         when(reportRepository.findById(REPORT_ID)).thenReturn(Optional.of(mockReport));
 
         // Simula a falha na busca do Cidadao (passo 2)
-        when(cidadaoRepository.findById(nonExistingCidadaoId)).thenReturn(Optional.empty());
+        when(cidadaoCache.referenciar(nonExistingCidadaoId))
+                .thenThrow(new IllegalArgumentException("Cidadao não encontrado"));
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class,
@@ -203,25 +346,25 @@ class ReportServiceTest {
     @Test
     void buscarTodoReport_shouldReturnAllReports() {
         // Arrange
-        Report mockReport2 = new Report(UUID.randomUUID(), "{\"lat\": 7.0, \"lon\": 8.0}", "MEDIO", mockCidadao, OffsetDateTime.now(), OffsetDateTime.now());
-        List<Report> mockReports = List.of(mockReport, mockReport2);
+        Report mockReport2 = new Report(UUID.randomUUID(), "{\"lat\": 7.0, \"lon\": 8.0}", "MEDIO", mockCidadao, OffsetDateTime.now(), OffsetDateTime.now(), 7.0, 8.0);
+        List<ReportResponseDTO> mockReports = List.of(paraResponse(mockReport), paraResponse(mockReport2));
 
-        when(reportRepository.findAll()).thenReturn(mockReports);
+        when(reportRepository.buscarTodosResponse(any(), any())).thenReturn(mockReports);
 
         // Act
-        List<ReportResponseDTO> results = reportService.buscarTodoReport();
+        List<ReportResponseDTO> results = reportService.buscarTodoReport(null, null);
 
         // Assert
         assertEquals(2, results.size());
         assertEquals(mockReport.getId(), results.get(0).getId());
-        verify(reportRepository, times(1)).findAll();
+        verify(reportRepository, times(1)).buscarTodosResponse(eq(PeriodoUtil.INICIO_PADRAO), any());
     }
 
     @Test
     void buscarReportEspecifico_shouldReturnSingleReport() {
         // Arrange
-        when(reportRepository.findAllById(Collections.singleton(REPORT_ID)))
-                .thenReturn(List.of(mockReport));
+        when(reportRepository.buscarResponsePorId(REPORT_ID))
+                .thenReturn(List.of(paraResponse(mockReport)));
 
         // Act
         List<ReportResponseDTO> results = reportService.buscarReportEspecifico(REPORT_ID);
@@ -229,23 +372,216 @@ class ReportServiceTest {
         // Assert
         assertEquals(1, results.size());
         assertEquals(REPORT_ID, results.get(0).getId());
-        verify(reportRepository, times(1)).findAllById(Collections.singleton(REPORT_ID));
+        verify(reportRepository, times(1)).buscarResponsePorId(REPORT_ID);
     }
 
     @Test
     void buscarReportCidadaoEspecifico_shouldReturnReportsByCidadaoId() {
         // Arrange
-        List<Report> mockReports = List.of(mockReport);
+        List<ReportResponseDTO> mockReports = List.of(paraResponse(mockReport));
 
-        when(reportRepository.findByCidadao_Id(CIDADAO_ID)).thenReturn(mockReports);
+        when(reportRepository.buscarResponsePorCidadaoId(eq(CIDADAO_ID), any(), any())).thenReturn(mockReports);
 
         // Act
-        List<ReportResponseDTO> results = reportService.buscarReportCidadaoEspecifico(CIDADAO_ID);
+        List<ReportResponseDTO> results = reportService.buscarReportCidadaoEspecifico(CIDADAO_ID, null, null);
 
         // Assert
         assertEquals(1, results.size());
         assertEquals(mockCidadao.getNome(), results.get(0).getNomeCidadao());
-        verify(reportRepository, times(1)).findByCidadao_Id(CIDADAO_ID);
+        verify(reportRepository, times(1)).buscarResponsePorCidadaoId(eq(CIDADAO_ID), any(), any());
+    }
+
+    @Test
+    void buscarReportsPorMunicipio_shouldResolveMunicipioInMemory() {
+        // Arrange
+        UUID municipioId = UUID.randomUUID();
+        when(municipioResolver.resolver("Joao Pessoa", null, Estado.PB))
+                .thenReturn(Optional.of(new Municipio(municipioId, "João Pessoa", null, Estado.PB, null)));
+        when(reportRepository.buscarResponsePorMunicipioId(eq(municipioId), any(), any())).thenReturn(List.of(paraResponse(mockReport)));
+
+        // Act
+        List<ReportResponseDTO> results = reportService.buscarReportsPorMunicipio("Joao Pessoa", null, Estado.PB, null, null);
+
+        // Assert
+        assertEquals(1, results.size());
+        verify(reportRepository, times(1)).buscarResponsePorMunicipioId(eq(municipioId), any(), any());
+    }
+
+    @Test
+    void buscarReportsPorMunicipio_shouldThrowIllegalArgumentException_whenMunicipioNotFound() {
+        // Arrange
+        when(municipioResolver.resolver("Inexistente", null, Estado.PB)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> reportService.buscarReportsPorMunicipio("Inexistente", null, Estado.PB, null, null));
+        verifyNoInteractions(reportRepository);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 200})
+    void buscarReportObjeto_shouldKeepQueryCountConstant_asResultGrows(int quantidade) {
+        // Arrange: cada report tem um cidadão diferente, o pior caso para N+1
+        List<Report> reports = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            Cidadao cidadao = new Cidadao();
+            cidadao.setId(UUID.randomUUID());
+            cidadao.setNome("Cidadao " + i);
+            reports.add(new Report(UUID.randomUUID(), "{}", "ALTO", cidadao, OffsetDateTime.now(), OffsetDateTime.now(), null, null));
+        }
+        ReportObjetoDTO filtro = new ReportObjetoDTO(null, null, "ALTO", null);
+        when(reportRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(reports, invocation.getArgument(1), reports.size()));
+
+        // Act
+        Page<ReportResponseDTO> results = reportService.buscarReportObjeto(filtro, 0, ReportService.TAMANHO_PAGINA_PADRAO, null, null);
+
+        // Assert: a busca traz o cidadão via fetch join na mesma consulta, independente do tamanho
+        assertEquals(quantidade, results.getContent().size());
+        assertEquals("Cidadao 0", results.getContent().get(0).getNomeCidadao());
+        verify(reportRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+        verifyNoInteractions(cidadaoRepository, cidadaoCache);
+    }
+
+    @Test
+    void buscarReportObjeto_shouldCapPageSize() {
+        // Arrange
+        ArgumentCaptor<Pageable> paginacaoCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(reportRepository.findAll(any(Specification.class), paginacaoCaptor.capture())).thenReturn(Page.empty());
+
+        // Act
+        reportService.buscarReportObjeto(new ReportObjetoDTO(), -3, 100_000, null, null);
+
+        // Assert
+        assertEquals(0, paginacaoCaptor.getValue().getPageNumber());
+        assertEquals(500, paginacaoCaptor.getValue().getPageSize());
+        assertEquals(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")), paginacaoCaptor.getValue().getSort());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 200})
+    void buscarTodoReport_shouldIssueSingleQuery_asResultGrows(int quantidade) {
+        // Arrange
+        List<ReportResponseDTO> reports = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            reports.add(paraResponse(mockReport));
+        }
+        when(reportRepository.buscarTodosResponse(any(), any())).thenReturn(reports);
+
+        // Act
+        List<ReportResponseDTO> results = reportService.buscarTodoReport(null, null);
+
+        // Assert
+        assertEquals(quantidade, results.size());
+        verify(reportRepository, times(1)).buscarTodosResponse(any(), any());
+        verifyNoMoreInteractions(reportRepository);
+        verifyNoInteractions(cidadaoRepository);
+    }
+
+    @Test
+    void buscarPaginaReport_shouldReturnCursor_whenMoreReportsExist() {
+        // Arrange
+        Report mockReport2 = new Report(UUID.randomUUID(), "{}", "MEDIO", mockCidadao, OffsetDateTime.now(), OffsetDateTime.now(), null, null);
+        when(reportRepository.buscarPrimeiraPagina(any(), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(paraResponse(mockReport), paraResponse(mockReport2)));
+        when(reportRepository.buscarPaginaApos(eq(mockReport.getCreatedAt()), eq(REPORT_ID), any(), any(), eq(Limit.of(2))))
+                .thenReturn(List.of(paraResponse(mockReport2)));
+
+        // Act
+        ReportPaginaDTO primeira = reportService.buscarPaginaReport(null, 1, null, null);
+        ReportPaginaDTO segunda = reportService.buscarPaginaReport(primeira.getProximoCursor(), 1, null, null);
+
+        // Assert
+        assertEquals(1, primeira.getReports().size());
+        assertEquals(REPORT_ID, primeira.getReports().get(0).getId());
+        assertNotNull(primeira.getProximoCursor());
+        assertEquals(mockReport2.getId(), segunda.getReports().get(0).getId());
+        assertNull(segunda.getProximoCursor(), "Última página não deve ter cursor.");
+    }
+
+    @Test
+    void buscarPaginaReport_shouldThrowIllegalArgumentException_whenCursorInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> reportService.buscarPaginaReport("cursor-invalido", 10, null, null));
+
+        verify(reportRepository, never()).buscarPaginaApos(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void transmitirTodoReport_shouldDeliverEveryReportToConsumer() {
+        // Arrange
+        when(reportRepository.transmitirTodos(any(), any())).thenReturn(Stream.of(paraResponse(mockReport)));
+        List<ReportResponseDTO> recebidos = new ArrayList<>();
+
+        // Act
+        reportService.transmitirTodoReport(null, null, recebidos::add);
+
+        // Assert
+        assertEquals(1, recebidos.size());
+        assertEquals(mockCidadao.getNome(), recebidos.get(0).getNomeCidadao());
+    }
+
+    @Test
+    void cadastrarReport_shouldExtractLatitudeAndLongitudeFromCoordenadas() {
+        // Arrange
+        ArgumentCaptor<Report> reportCaptor = ArgumentCaptor.forClass(Report.class);
+        when(reportRepository.save(reportCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        reportService.cadastrarReport(mockCriacaoDTO);
+
+        // Assert
+        assertEquals(3.0, reportCaptor.getValue().getLatitude());
+        assertEquals(4.0, reportCaptor.getValue().getLongitude());
+    }
+
+    @Test
+    void buscarReportsNoRaio_shouldKeepDistanceOrderFromQuery() {
+        // Arrange
+        Report mockReport2 = new Report(UUID.randomUUID(), "{}", "MEDIO", mockCidadao, OffsetDateTime.now(), OffsetDateTime.now(), 1.001, 2.0);
+        when(reportRepository.buscarIdsNoRaio(eq(1.0), eq(2.0), eq(500.0), anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any(), eq(10)))
+                .thenReturn(List.of(mockReport2.getId(), REPORT_ID));
+        when(reportRepository.buscarResponsePorIds(eq(List.of(mockReport2.getId(), REPORT_ID)), any(), any()))
+                .thenReturn(List.of(paraResponse(mockReport), paraResponse(mockReport2)));
+
+        // Act
+        List<ReportResponseDTO> results = reportService.buscarReportsNoRaio(1.0, 2.0, 500, null, null, 10);
+
+        // Assert
+        assertEquals(mockReport2.getId(), results.get(0).getId());
+        assertEquals(REPORT_ID, results.get(1).getId());
+    }
+
+    @Test
+    void buscarTodoReport_shouldPassRequestedPeriodToQuery() {
+        // Arrange
+        OffsetDateTime de = OffsetDateTime.now().minusDays(14);
+        OffsetDateTime ate = OffsetDateTime.now();
+
+        // Act
+        reportService.buscarTodoReport(de, ate);
+
+        // Assert
+        verify(reportRepository, times(1)).buscarTodosResponse(de, ate);
+    }
+
+    @Test
+    void buscarReportCidadaoEspecifico_shouldThrowIllegalArgumentException_whenPeriodInverted() {
+        // Arrange
+        OffsetDateTime agora = OffsetDateTime.now();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> reportService.buscarReportCidadaoEspecifico(CIDADAO_ID, agora, agora.minusDays(1)));
+        verifyNoInteractions(reportRepository);
+    }
+
+    @Test
+    void buscarReportsNaCaixa_shouldThrowIllegalArgumentException_whenCornersInverted() {
+        assertThrows(IllegalArgumentException.class,
+                () -> reportService.buscarReportsNaCaixa(10, 10, -10, -10, null, null, 100));
+
+        verifyNoInteractions(reportRepository);
     }
 
     // --- Testes para Métodos de Deleção ---
@@ -262,6 +598,19 @@ class ReportServiceTest {
         verify(reportRepository, times(1)).deleteById(reportToDeleteId);
     }
 
+    @Test
+    void deletarReportEspecifico_shouldDecrementRiskCounter() {
+        // Arrange
+        when(reportRepository.findById(REPORT_ID)).thenReturn(Optional.of(mockReport));
+
+        // Act
+        reportService.deletarReportEspecifico(REPORT_ID);
+
+        // Assert
+        verify(contadorRiscoService, times(1)).registrarAlteracao(CIDADAO_ID, "ALTO", -1);
+        verify(reportRepository, times(1)).deleteById(REPORT_ID);
+    }
+
     @Test
     void deletarTodoReportCidadao_shouldCallDeleteAllByCidadaoId() {
         // Arrange
@@ -273,4 +622,62 @@ class ReportServiceTest {
         // Assert
         verify(reportRepository, times(1)).deleteAllByCidadaoId(cidadaoIdToDeleteReports);
     }
+
+    @Test
+    void deletarTodoReportCidadao_shouldPublishRemovalForEachReport() {
+        // Arrange
+        CidadaoCache.CidadaoResumo autor = new CidadaoCache.CidadaoResumo(CIDADAO_ID, "Carlos Teste", MUNICIPIO_ID, Estado.PB);
+        when(reportRepository.buscarIdsPorCidadaoId(CIDADAO_ID)).thenReturn(List.of(REPORT_ID));
+        when(cidadaoCache.buscar(CIDADAO_ID)).thenReturn(Optional.of(autor));
+
+        // Act
+        reportService.deletarTodoReportCidadao(CIDADAO_ID);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(ReportAlteradoEvent.removido(REPORT_ID, CIDADAO_ID, autor));
+    }
+
+    @Test
+    void apagarLoteReportsCidadao_shouldDeleteChunkInBatchAndDiscountCounters() {
+        // Arrange
+        UUID outroReportId = UUID.randomUUID();
+        when(reportRepository.buscarLocalizacoesPorCidadaoId(CIDADAO_ID, Limit.of(2))).thenReturn(List.of(
+                new ReportLocalizacaoDTO(REPORT_ID, -7.1, -34.8, "ALTO"),
+                new ReportLocalizacaoDTO(outroReportId, null, null, "ALTO")
+        ));
+
+        // Act
+        int apagados = reportService.apagarLoteReportsCidadao(CIDADAO_ID, 2);
+
+        // Assert
+        assertEquals(2, apagados);
+        verify(reportRepository, times(1)).deleteAllByIdInBatch(List.of(REPORT_ID, outroReportId));
+        verify(contadorRiscoService, times(1)).registrarAlteracoes(List.of(
+                new ContagemRiscoCidadaoDTO(CIDADAO_ID, "ALTO", -1),
+                new ContagemRiscoCidadaoDTO(CIDADAO_ID, "ALTO", -1)
+        ));
+        verify(eventPublisher, times(1)).publishEvent(ReportAlteradoEvent.removido(outroReportId, CIDADAO_ID, null));
+        verify(reportRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void apagarLoteReportsCidadao_shouldReturnZero_whenNothingLeft() {
+        // Arrange
+        when(reportRepository.buscarLocalizacoesPorCidadaoId(eq(CIDADAO_ID), any())).thenReturn(List.of());
+
+        // Act & Assert
+        assertEquals(0, reportService.apagarLoteReportsCidadao(CIDADAO_ID, 500));
+        verify(reportRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private ReportResponseDTO paraResponse(Report report) {
+        return new ReportResponseDTO(
+                report.getId(),
+                report.getCoordenadas(),
+                report.getClassificacaoRisco(),
+                report.getCidadao().getNome(),
+                report.getCreatedAt(),
+                report.getUpdatedBy()
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.entity.RespostaQuestionario;
+import br.ifpb.project.denguemaps.pdmreportms.util.RespostaQuestionarioUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RespostaQuestionarioUtilTest {
+
+    @Test
+    void normalizar_shouldMatchKeyedObjects() {
+        // Act
+        List<RespostaQuestionario> respostas = RespostaQuestionarioUtil.normalizar(
+                "{\"q1\": \"Há água parada?\", \"q2\": \"Quantos recipientes?\"}",
+                "{\"q1\": \"SIM\", \"q2\": 3}");
+
+        // Assert
+        assertEquals(List.of(
+                new RespostaQuestionario("q1", "Há água parada?", "sim"),
+                new RespostaQuestionario("q2", "Quantos recipientes?", "3")
+        ), respostas);
+    }
+
+    @Test
+    void normalizar_shouldAlignArraysByPositionAndSplitMultipleChoice() {
+        // Act
+        List<RespostaQuestionario> respostas = RespostaQuestionarioUtil.normalizar(
+                "[\"Há água parada?\", \"Onde?\"]",
+                "[\"Não\", [\"Pneu\", \"Caixa d'água\"]]");
+
+        // Assert
+        assertEquals(List.of(
+                new RespostaQuestionario("0", "Há água parada?", "nao"),
+                new RespostaQuestionario("1", "Onde?", "pneu"),
+                new RespostaQuestionario("1", "Onde?", "caixa d'agua")
+        ), respostas);
+    }
+
+    @Test
+    void normalizar_shouldReadAnswerObjectsAndSkipNulls() {
+        // Act
+        List<RespostaQuestionario> respostas = RespostaQuestionarioUtil.normalizar(
+                "[{\"id\": \"agua\", \"texto\": \"Há água parada?\"}]",
+                "[{\"id\": \"agua\", \"resposta\": \"Sim\"}, {\"pergunta\": \"Observação\", \"resposta\": null}]");
+
+        // Assert
+        assertEquals(List.of(new RespostaQuestionario("agua", "Há água parada?", "sim")), respostas);
+    }
+
+    @Test
+    void normalizar_shouldReturnEmpty_whenJsonIsInvalid() {
+        // Act & Assert
+        assertTrue(RespostaQuestionarioUtil.normalizar("{}", "{invalido").isEmpty());
+    }
+}
@@ -0,0 +1,196 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.datasource.RoteamentoLeituraDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Primário e duas réplicas simulados no nível do JDBC: cada DataSource entrega uma
+ * conexão própria e as réplicas respondem a consulta de atraso com o valor configurado.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RoteamentoLeituraDataSourceTest {
+
+    @Mock
+    private DataSource primario;
+    @Mock
+    private DataSource replicaA;
+    @Mock
+    private DataSource replicaB;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RoteamentoLeituraDataSource dataSource;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        simularBanco(primario, 0);
+        simularBanco(replicaA, 0);
+        simularBanco(replicaB, 0);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replicaA);
+        replicas.put("replica-2", replicaB);
+        dataSource = new RoteamentoLeituraDataSource(primario, replicas, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @AfterEach
+    void limparTransacao() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void getConnection_shouldAlternateReplicas_whenTransactionIsReadOnly() throws SQLException {
+        // Arrange
+        dataSource.verificarReplicas();
+        clearInvocations(primario, replicaA, replicaB);
+        iniciarTransacao(true);
+
+        // Act
+        usarConexao();
+        usarConexao();
+
+        // Assert
+        verify(replicaA, times(1)).getConnection();
+        verify(replicaB, times(1)).getConnection();
+        verify(primario, never()).getConnection();
+        assertEquals(1.0, meterRegistry.get("datasource.roteamento.conexoes").tag("destino", "replica-1").counter().count());
+    }
+
+    @Test
+    void getConnection_shouldUsePrimary_whenTransactionWritesOrIsAbsent() throws SQLException {
+        // Arrange
+        dataSource.verificarReplicas();
+        clearInvocations(primario, replicaA, replicaB);
+
+        // Act
+        usarConexao();
+        iniciarTransacao(false);
+        usarConexao();
+
+        // Assert
+        verify(primario, times(2)).getConnection();
+        verify(replicaA, never()).getConnection();
+        verify(replicaB, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_shouldSkipLaggingReplica_andFallBackToPrimary_whenAllLag() throws SQLException {
+        // Arrange
+        simularBanco(replicaA, 30);
+        dataSource.verificarReplicas();
+        clearInvocations(primario, replicaA, replicaB);
+        iniciarTransacao(true);
+
+        // Act
+        usarConexao();
+        usarConexao();
+        simularBanco(replicaB, 30);
+        dataSource.verificarReplicas();
+        clearInvocations(primario, replicaA, replicaB);
+        usarConexao();
+
+        // Assert
+        verify(primario, times(1)).getConnection();
+        verify(replicaA, never()).getConnection();
+        assertEquals(30.0, meterRegistry.get("datasource.replica.atraso").tag("replica", "replica-1").gauge().value());
+        assertEquals(0.0, meterRegistry.get("datasource.replica.disponivel").tag("replica", "replica-2").gauge().value());
+    }
+
+    @Test
+    void verificarReplicas_shouldMarkReplicaUnavailable_whenItCannotConnect() throws SQLException {
+        // Arrange
+        dataSource.verificarReplicas();
+        when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // Act
+        dataSource.verificarReplicas();
+        clearInvocations(primario, replicaA, replicaB);
+        iniciarTransacao(true);
+        usarConexao();
+
+        // Assert
+        assertTrue(dataSource.getReplicas().stream().noneMatch(RoteamentoLeituraDataSource.Replica::isDisponivel));
+        verify(primario, times(1)).getConnection();
+    }
+
+    @Test
+    void getConnection_shouldUsePrimary_beforeFirstVerification() throws SQLException {
+        // Arrange
+        iniciarTransacao(true);
+
+        // Act
+        usarConexao();
+
+        // Assert
+        verify(primario, times(1)).getConnection();
+        verify(replicaA, never()).getConnection();
+    }
+
+    @Test
+    void configuracao_shouldDeclareReplicas_outsideProfileDocuments() throws IOException {
+        // Arrange
+        List<PropertySource<?>> documentos = new YamlPropertySourceLoader()
+                .load("application_common", new ClassPathResource("application_common.yml"));
+
+        // Act
+        List<PropertySource<?>> comReplicas = documentos.stream()
+                .filter(d -> d.containsProperty("datasource.replicas.urls"))
+                .toList();
+
+        // Assert
+        assertEquals(1, comReplicas.size());
+        assertNull(comReplicas.get(0).getProperty("spring.config.activate.on-profile"),
+                "datasource.replicas precisa valer em qualquer perfil, não só no virtual-threads");
+    }
+
+    private void iniciarTransacao(boolean somenteLeitura) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(somenteLeitura);
+    }
+
+    // A conexão é preguiçosa: o destino só é escolhido no primeiro comando
+    private void usarConexao() throws SQLException {
+        try (Connection conexao = dataSource.getConnection()) {
+            conexao.createStatement();
+        }
+    }
+
+    private static void simularBanco(DataSource banco, double atrasoSegundos) throws SQLException {
+        Connection conexao = mock(Connection.class);
+        Statement comando = mock(Statement.class);
+        ResultSet resultado = mock(ResultSet.class);
+        when(resultado.next()).thenReturn(true);
+        when(resultado.getDouble(1)).thenReturn(atrasoSegundos);
+        when(comando.executeQuery(anyString())).thenReturn(resultado);
+        when(conexao.createStatement()).thenReturn(comando);
+        when(conexao.getAutoCommit()).thenReturn(true);
+        when(banco.getConnection()).thenReturn(conexao);
+    }
+}
@@ -0,0 +1,62 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.cache.SegundoNivelCacheConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegundoNivelCacheConfigurationTest {
+
+    private final SegundoNivelCacheConfiguration configuracao = new SegundoNivelCacheConfiguration();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void fechar() {
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+    }
+
+    @Test
+    void segundoNivelCacheManager_shouldCreateBoundedRegionsWithMetrics() {
+        // Act
+        cacheManager = configuracao.segundoNivelCacheManager(meterRegistry, 2, Duration.ofHours(6));
+        Cache<Object, Object> municipios = cacheManager.getCache(SegundoNivelCacheConfiguration.REGIAO_MUNICIPIO);
+        for (int i = 0; i < 10; i++) {
+            municipios.put(i, "municipio " + i);
+        }
+        municipios.get(0);
+        municipios.get(100);
+        municipios.unwrap(com.github.benmanes.caffeine.cache.Cache.class).cleanUp();
+
+        // Assert
+        assertNotNull(cacheManager.getCache(SegundoNivelCacheConfiguration.REGIAO_SECRETARIA));
+        assertNotNull(cacheManager.getCache("default-query-results-region"));
+        assertNotNull(cacheManager.getCache("default-update-timestamps-region"));
+        assertTrue(municipios.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize() <= 2);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "hibernate.municipio").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void segundoNivelCacheHibernate_shouldHandCacheManagerToHibernate() {
+        // Arrange
+        cacheManager = configuracao.segundoNivelCacheManager(meterRegistry, 100, Duration.ofHours(6));
+        Map<String, Object> propriedades = new HashMap<>();
+
+        // Act
+        configuracao.segundoNivelCacheHibernate(cacheManager).customize(propriedades);
+
+        // Assert
+        assertSame(cacheManager, propriedades.get(ConfigSettings.CACHE_MANAGER));
+    }
+}
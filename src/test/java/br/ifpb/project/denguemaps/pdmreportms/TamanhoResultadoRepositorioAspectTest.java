@@ -0,0 +1,67 @@
+package br.ifpb.project.denguemaps.pdmreportms;
+
+import br.ifpb.project.denguemaps.pdmreportms.entity.Municipio;
+import br.ifpb.project.denguemaps.pdmreportms.enums.Estado;
+import br.ifpb.project.denguemaps.pdmreportms.metrics.TamanhoResultadoRepositorioAspect;
+import br.ifpb.project.denguemaps.pdmreportms.repository.MunicipioRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TamanhoResultadoRepositorioAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MunicipioRepository municipioRepository;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        MunicipioRepository alvo = mock(MunicipioRepository.class);
+        when(alvo.findAll()).thenReturn(List.of(
+                new Municipio(UUID.randomUUID(), "João Pessoa", null, Estado.PB, null),
+                new Municipio(UUID.randomUUID(), "Campina Grande", null, Estado.PB, null)
+        ));
+        when(alvo.findByNomeAndEstado(any(), any())).thenReturn(Optional.empty());
+
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(alvo);
+        fabrica.addAspect(new TamanhoResultadoRepositorioAspect(meterRegistry));
+        municipioRepository = fabrica.getProxy();
+    }
+
+    @Test
+    void registrarTamanho_shouldRecordCollectionSizePerMethod() {
+        // Act
+        municipioRepository.findAll();
+        municipioRepository.findAll();
+
+        // Assert
+        DistributionSummary resumo = meterRegistry.get(TamanhoResultadoRepositorioAspect.METRICA)
+                .tag("repositorio", "MunicipioRepository")
+                .tag("metodo", "findAll")
+                .summary();
+        assertEquals(2, resumo.count());
+        assertEquals(4, resumo.totalAmount());
+    }
+
+    @Test
+    void registrarTamanho_shouldCountEmptyOptionalAsZero() {
+        // Act
+        municipioRepository.findByNomeAndEstado("Inexistente", Estado.PB);
+
+        // Assert
+        DistributionSummary resumo = meterRegistry.get(TamanhoResultadoRepositorioAspect.METRICA)
+                .tag("metodo", "findByNomeAndEstado")
+                .summary();
+        assertEquals(1, resumo.count());
+        assertEquals(0, resumo.totalAmount());
+    }
+}